@@ -0,0 +1,230 @@
+package com.github.menglanyan.inventory_management.analytics;
+
+import com.github.menglanyan.inventory_management.entities.Product;
+import com.github.menglanyan.inventory_management.repositories.CategoryValue;
+import com.github.menglanyan.inventory_management.repositories.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Running Σ price × stock per category, kept current by every write that changes a product's price, stock or
+// category, so the valuation is read in O(categories) instead of touching every product.
+// Changes are collected per transaction and applied after commit. Commits in flight are counted, so a
+// recomputation is only compared with (or installed over) the running totals when no change landed while it ran.
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class CategoryValuationLedger {
+
+    // Key for products without a category
+    private static final long NO_CATEGORY = 0L;
+
+    private static final int RECONCILE_ATTEMPTS = 10;
+
+    private final ProductRepository productRepository;
+
+    // Guarded by this
+    private final Map<Long, BigDecimal> totals = new HashMap<>();
+
+    private long version;
+
+    private int committing;
+
+    private boolean loaded;
+
+    public record Discrepancy(Long categoryId, BigDecimal runningValue, BigDecimal recomputedValue) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reconcile();
+    }
+
+    public static BigDecimal valueOf(Product product) {
+        return product.getPrice() == null || product.getStockQuantity() == null
+                ? BigDecimal.ZERO
+                : product.getPrice().multiply(BigDecimal.valueOf(product.getStockQuantity()));
+    }
+
+    public static Long categoryIdOf(Product product) {
+        return product.getCategory() == null ? null : product.getCategory().getId();
+    }
+
+    public void recordAdded(Product product) {
+        recordChange(null, BigDecimal.ZERO, product);
+    }
+
+    public void recordRemoved(Product product) {
+        record(categoryIdOf(product), valueOf(product).negate());
+    }
+
+    // The product as it is now, after a write that started from previousValue in previousCategoryId
+    public void recordChange(Long previousCategoryId, BigDecimal previousValue, Product product) {
+        record(previousCategoryId, previousValue.negate());
+        record(categoryIdOf(product), valueOf(product));
+    }
+
+    // Category id to running value, or null until the first load; products without a category are under null
+    public synchronized Map<Long, BigDecimal> totals() {
+
+        if (!loaded) {
+            return null;
+        }
+
+        Map<Long, BigDecimal> copy = new HashMap<>();
+
+        totals.forEach((categoryId, value) -> copy.put(categoryId == NO_CATEGORY ? null : categoryId, value));
+
+        return copy;
+    }
+
+    // Recomputes every category from the products table, replaces the running totals with the result and returns
+    // where they differed. Returns null if writes kept committing during every attempt.
+    public List<Discrepancy> reconcile() {
+
+        for (int attempt = 0; attempt < RECONCILE_ATTEMPTS; attempt++) {
+            long startVersion;
+
+            synchronized (this) {
+                startVersion = version;
+            }
+
+            List<CategoryValue> recomputed = productRepository.sumValueByCategory();
+
+            synchronized (this) {
+                if (committing == 0 && version == startVersion) {
+                    return install(recomputed);
+                }
+            }
+
+            try {
+                Thread.sleep(10L << attempt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+
+        log.warn("Inventory valuation could not be reconciled while writes kept committing");
+
+        return null;
+    }
+
+    private List<Discrepancy> install(List<CategoryValue> recomputed) {
+
+        Map<Long, BigDecimal> fresh = new HashMap<>();
+
+        for (CategoryValue categoryValue : recomputed) {
+            fresh.put(categoryValue.categoryId() == null ? NO_CATEGORY : categoryValue.categoryId(),
+                    categoryValue.value() == null ? BigDecimal.ZERO : categoryValue.value());
+        }
+
+        List<Discrepancy> discrepancies = new ArrayList<>();
+
+        if (loaded) {
+            Set<Long> categoryIds = new HashSet<>(totals.keySet());
+            categoryIds.addAll(fresh.keySet());
+
+            for (Long categoryId : categoryIds) {
+                BigDecimal running = totals.getOrDefault(categoryId, BigDecimal.ZERO);
+                BigDecimal actual = fresh.getOrDefault(categoryId, BigDecimal.ZERO);
+
+                if (running.compareTo(actual) != 0) {
+                    discrepancies.add(new Discrepancy(categoryId == NO_CATEGORY ? null : categoryId, running, actual));
+                }
+            }
+
+            if (!discrepancies.isEmpty()) {
+                log.warn("Inventory valuation drifted in {} categories; running totals replaced", discrepancies.size());
+            }
+        }
+
+        totals.clear();
+        totals.putAll(fresh);
+        loaded = true;
+
+        return discrepancies;
+    }
+
+    private void record(Long categoryId, BigDecimal delta) {
+
+        if (delta.signum() == 0) {
+            return;
+        }
+
+        long key = categoryId == null ? NO_CATEGORY : categoryId;
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            synchronized (this) {
+                apply(Map.of(key, delta));
+            }
+            return;
+        }
+
+        pendingDeltas().merge(key, delta, BigDecimal::add);
+    }
+
+    // Category key to value change, for the current transaction
+    @SuppressWarnings("unchecked")
+    private Map<Long, BigDecimal> pendingDeltas() {
+
+        Map<Long, BigDecimal> pending = (Map<Long, BigDecimal>) TransactionSynchronizationManager.getResource(this);
+
+        if (pending != null) {
+            return pending;
+        }
+
+        Map<Long, BigDecimal> created = new HashMap<>();
+
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            private boolean counted;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                synchronized (CategoryValuationLedger.this) {
+                    committing++;
+                    version++;
+                    counted = true;
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResource(CategoryValuationLedger.this);
+
+                synchronized (CategoryValuationLedger.this) {
+                    if (status == STATUS_COMMITTED) {
+                        apply(created);
+                    }
+
+                    if (counted) {
+                        committing--;
+                        version++;
+                    }
+                }
+            }
+        });
+
+        return created;
+    }
+
+    private void apply(Map<Long, BigDecimal> deltas) {
+
+        deltas.forEach((categoryId, delta) -> totals.merge(categoryId, delta, BigDecimal::add));
+        version++;
+    }
+}
@@ -0,0 +1,250 @@
+package com.github.menglanyan.inventory_management.analytics;
+
+import com.github.menglanyan.inventory_management.entities.Category;
+import com.github.menglanyan.inventory_management.entities.Product;
+import com.github.menglanyan.inventory_management.entities.Supplier;
+import com.github.menglanyan.inventory_management.entities.Transaction;
+import com.github.menglanyan.inventory_management.enums.AnalyticsDimension;
+import com.github.menglanyan.inventory_management.enums.TransactionStatus;
+import com.github.menglanyan.inventory_management.enums.TransactionType;
+import com.github.menglanyan.inventory_management.events.TransactionStatusChangedEvent;
+import com.github.menglanyan.inventory_management.events.TransactionsRecordedEvent;
+import com.github.menglanyan.inventory_management.repositories.ProductRepository;
+import com.github.menglanyan.inventory_management.repositories.SalesAggregate;
+import com.github.menglanyan.inventory_management.repositories.SupplierRepository;
+import com.github.menglanyan.inventory_management.repositories.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Optional in-memory copy of the transactions table as TransactionColumns, for slicing years of history without
+// touching MySQL. Enabled with analytics.columnar.enabled=true; it loads in the background at startup and then
+// appends every committed write, the same way TransactionSearchIndex is maintained.
+@Component
+@ConditionalOnProperty(name = "analytics.columnar.enabled", havingValue = "true")
+@Slf4j
+@RequiredArgsConstructor
+public class ColumnarAnalyticsEngine {
+
+    private final TransactionRepository transactionRepository;
+
+    private final ProductRepository productRepository;
+
+    private final SupplierRepository supplierRepository;
+
+    private final PlatformTransactionManager transactionManager;
+
+    // Null until the first load completes; analytics use SQL until then
+    private volatile TransactionColumns columns;
+
+    // Events committed while a load is running, replayed onto the new columns before they are published
+    private final List<Object> pendingEvents = new ArrayList<>();
+
+    private boolean loading;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        Thread thread = new Thread(this::reload, "columnar-analytics");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void reload() {
+
+        synchronized (pendingEvents) {
+            loading = true;
+            pendingEvents.clear();
+        }
+
+        long start = System.currentTimeMillis();
+
+        TransactionColumns fresh = new TransactionColumns();
+
+        try {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(true);
+
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<TransactionColumnRow> rows = transactionRepository.streamColumnRows()) {
+                    rows.forEach(fresh::append);
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (pendingEvents) {
+                loading = false;
+                pendingEvents.clear();
+            }
+
+            log.error("Loading columnar analytics failed: {}", e.getMessage());
+            return;
+        }
+
+        synchronized (pendingEvents) {
+            pendingEvents.forEach(event -> apply(fresh, event));
+            pendingEvents.clear();
+            loading = false;
+            columns = fresh;
+        }
+
+        log.info("Columnar analytics loaded {} transactions in {} ms", fresh.size(), System.currentTimeMillis() - start);
+
+    }
+
+    // Same rows and order as TransactionAnalyticsRepository.aggregateSales over [from, to), or null while loading
+    public List<SalesAggregate> aggregateSales(AnalyticsDimension dimension, TransactionStatus status, LocalDate from,
+                                               LocalDate to) {
+
+        TransactionColumns current = columns;
+
+        if (current == null) {
+            return null;
+        }
+
+        SalesAccumulator groups = current.aggregate(dimension, status, from.toEpochDay(), to.toEpochDay(),
+                ForkJoinPool.commonPool());
+
+        // Only the groups that came out of the scan are looked up, in one query
+        return switch (dimension) {
+            case DAY -> toAggregates(groups, null);
+            case PRODUCT -> toAggregates(groups, productRepository.findAllById(groupIds(groups)).stream()
+                    .collect(Collectors.toMap(Product::getId, Product::getName)));
+            case CATEGORY -> rollUpToCategories(groups);
+            case SUPPLIER -> toAggregates(groups, supplierRepository.findAllById(groupIds(groups)).stream()
+                    .collect(Collectors.toMap(Supplier::getId, Supplier::getName)));
+        };
+    }
+
+    @TransactionalEventListener
+    public void onTransactionsRecorded(TransactionsRecordedEvent event) {
+        dispatch(event);
+    }
+
+    @TransactionalEventListener
+    public void onTransactionStatusChanged(TransactionStatusChangedEvent event) {
+        dispatch(event);
+    }
+
+    private void dispatch(Object event) {
+
+        synchronized (pendingEvents) {
+            if (loading) {
+                pendingEvents.add(event);
+            }
+        }
+
+        TransactionColumns current = columns;
+
+        if (current != null) {
+            apply(current, event);
+        }
+
+    }
+
+    private void apply(TransactionColumns target, Object event) {
+
+        if (event instanceof TransactionsRecordedEvent recorded) {
+
+            for (Transaction transaction : recorded.transactions()) {
+                // A replayed event may cover rows the load already streamed
+                if (!target.contains(transaction.getId())) {
+                    target.append(TransactionColumnRow.of(transaction));
+                }
+            }
+
+        } else if (event instanceof TransactionStatusChangedEvent changed) {
+            target.changeStatus(changed.transactionId(), changed.status());
+        }
+
+    }
+
+    // The scan groups by product; each product's current category decides where its totals go, as the SQL join does
+    private List<SalesAggregate> rollUpToCategories(SalesAccumulator byProduct) {
+
+        Map<Long, Category> categoryByProduct = new HashMap<>();
+
+        for (Product product : productRepository.findAllById(groupIds(byProduct))) {
+            if (product.getCategory() != null) {
+                categoryByProduct.put(product.getId(), product.getCategory());
+            }
+        }
+
+        SalesAccumulator byCategory = new SalesAccumulator();
+        Map<Long, String> names = new HashMap<>();
+
+        byProduct.forEach((key, count, units, minorUnits) -> {
+            Category category = categoryByProduct.get(SalesAccumulator.group(key));
+            long categoryId = category == null ? 0 : category.getId();
+
+            if (category != null) {
+                names.put(categoryId, category.getName());
+            }
+
+            byCategory.add(SalesAccumulator.key(categoryId, SalesAccumulator.type(key)), count, units, minorUnits);
+        });
+
+        return toAggregates(byCategory, names);
+    }
+
+    // Ordered by group, missing ids first, then transaction type name as the string column sorts.
+    // Without names the groups are epoch days.
+    private static List<SalesAggregate> toAggregates(SalesAccumulator groups, Map<Long, String> names) {
+
+        long[][] rows = new long[groups.size()][];
+        int[] next = {0};
+
+        groups.forEach((key, count, units, minorUnits) -> rows[next[0]++] = new long[]{key, count, units, minorUnits});
+
+        Arrays.sort(rows, Comparator.<long[]>comparingLong(row -> SalesAccumulator.group(row[0]))
+                .thenComparing(row -> TransactionColumns.type(SalesAccumulator.type(row[0])).name()));
+
+        List<SalesAggregate> aggregates = new ArrayList<>(rows.length);
+
+        for (long[] row : rows) {
+            long group = SalesAccumulator.group(row[0]);
+            BigDecimal revenue = BigDecimal.valueOf(row[3], 2);
+
+            TransactionType type = TransactionColumns.type(SalesAccumulator.type(row[0]));
+
+            aggregates.add(names == null
+                    ? new SalesAggregate(LocalDate.ofEpochDay(group), type, row[1], row[2], revenue)
+                    : new SalesAggregate(group == 0 ? null : group, names.get(group), type, row[1], row[2], revenue));
+        }
+
+        return aggregates;
+    }
+
+    private static Set<Long> groupIds(SalesAccumulator groups) {
+
+        Set<Long> ids = new HashSet<>();
+
+        groups.forEach((key, count, units, minorUnits) -> {
+            long id = SalesAccumulator.group(key);
+
+            if (id != 0) {
+                ids.add(id);
+            }
+        });
+
+        return ids;
+    }
+}
@@ -0,0 +1,127 @@
+package com.github.menglanyan.inventory_management.analytics;
+
+import java.util.Arrays;
+
+// Open-addressing hash of (group key, transaction type) to count, units and revenue in minor units.
+// One per scan task, so there is no sharing; tasks are combined with merge.
+final class SalesAccumulator {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+
+    private long[] counts;
+
+    private long[] units;
+
+    private long[] cents;
+
+    private int size;
+
+    SalesAccumulator() {
+        this(64);
+    }
+
+    private SalesAccumulator(int capacity) {
+        keys = new long[capacity];
+        counts = new long[capacity];
+        units = new long[capacity];
+        cents = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    // The key packs the group (an id or epoch day) with the type ordinal in the low two bits
+    static long key(long group, int type) {
+        return group << 2 | type;
+    }
+
+    static long group(long key) {
+        return key >> 2;
+    }
+
+    static int type(long key) {
+        return (int) (key & 3);
+    }
+
+    void add(long key, long count, long quantity, long minorUnits) {
+
+        int slot = slot(key);
+
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+
+            if (++size * 2 > keys.length) {
+                grow();
+                slot = slot(key);
+            }
+        }
+
+        counts[slot] += count;
+        units[slot] += quantity;
+        cents[slot] += minorUnits;
+    }
+
+    SalesAccumulator merge(SalesAccumulator other) {
+
+        SalesAccumulator into = size >= other.size ? this : other;
+        SalesAccumulator from = into == this ? other : this;
+
+        for (int i = 0; i < from.keys.length; i++) {
+            if (from.keys[i] != EMPTY) {
+                into.add(from.keys[i], from.counts[i], from.units[i], from.cents[i]);
+            }
+        }
+
+        return into;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void forEach(GroupConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                consumer.accept(keys[i], counts[i], units[i], cents[i]);
+            }
+        }
+    }
+
+    private int slot(long key) {
+
+        int mask = keys.length - 1;
+        int slot = (int) (mix(key) & mask);
+
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    private void grow() {
+
+        SalesAccumulator bigger = new SalesAccumulator(keys.length * 2);
+
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                bigger.add(keys[i], counts[i], units[i], cents[i]);
+            }
+        }
+
+        keys = bigger.keys;
+        counts = bigger.counts;
+        units = bigger.units;
+        cents = bigger.cents;
+    }
+
+    private static long mix(long key) {
+        key *= 0x9E3779B97F4A7C15L;
+        return key ^ (key >>> 32);
+    }
+
+    @FunctionalInterface
+    interface GroupConsumer {
+        void accept(long key, long count, long units, long minorUnits);
+    }
+}
@@ -0,0 +1,151 @@
+package com.github.menglanyan.inventory_management.analytics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Weighted Space-Saving (Metwally et al.) over product ids with a fixed number of counters.
+// A tracked product's count overestimates its true total by at most its error, and error <= total / capacity.
+// A product that is not tracked has a true total of at most minCount().
+// Counters sit in an indexed min-heap, so adding is O(log capacity). Not thread-safe.
+final class SpaceSavingSummary {
+
+    private final int capacity;
+
+    private final long[] ids;
+
+    private final long[] counts;
+
+    private final long[] errors;
+
+    private final Map<Long, Integer> positions;
+
+    private int size;
+
+    private long total;
+
+    SpaceSavingSummary(int capacity) {
+        this.capacity = capacity;
+        this.ids = new long[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+        this.positions = new HashMap<>(capacity * 2);
+    }
+
+    void add(long id, long weight) {
+
+        total += weight;
+
+        Integer position = positions.get(id);
+
+        if (position != null) {
+            counts[position] += weight;
+            siftDown(position);
+            return;
+        }
+
+        if (size < capacity) {
+            ids[size] = id;
+            counts[size] = weight;
+            errors[size] = 0;
+            positions.put(id, size);
+            siftUp(size++);
+            return;
+        }
+
+        // Replace the smallest counter; its count becomes the newcomer's possible overestimate
+        positions.remove(ids[0]);
+        long minimum = counts[0];
+
+        ids[0] = id;
+        counts[0] = minimum + weight;
+        errors[0] = minimum;
+        positions.put(id, 0);
+        siftDown(0);
+    }
+
+    void clear() {
+        positions.clear();
+        size = 0;
+        total = 0;
+    }
+
+    // Upper bound for any product that is not tracked
+    long minCount() {
+        return size < capacity ? 0 : counts[0];
+    }
+
+    long total() {
+        return total;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    void forEach(CounterConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            consumer.accept(ids[i], counts[i], errors[i]);
+        }
+    }
+
+    private void siftUp(int position) {
+
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+
+            if (counts[parent] <= counts[position]) {
+                return;
+            }
+
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+
+        while (true) {
+            int smallest = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+
+            if (left < size && counts[left] < counts[smallest]) {
+                smallest = left;
+            }
+
+            if (right < size && counts[right] < counts[smallest]) {
+                smallest = right;
+            }
+
+            if (smallest == position) {
+                return;
+            }
+
+            swap(position, smallest);
+            position = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+
+        long id = ids[a];
+        long count = counts[a];
+        long error = errors[a];
+
+        ids[a] = ids[b];
+        counts[a] = counts[b];
+        errors[a] = errors[b];
+
+        ids[b] = id;
+        counts[b] = count;
+        errors[b] = error;
+
+        positions.put(ids[a], a);
+        positions.put(ids[b], b);
+    }
+
+    @FunctionalInterface
+    interface CounterConsumer {
+        void accept(long id, long count, long error);
+    }
+}
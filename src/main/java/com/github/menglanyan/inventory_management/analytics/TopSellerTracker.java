@@ -0,0 +1,154 @@
+package com.github.menglanyan.inventory_management.analytics;
+
+import com.github.menglanyan.inventory_management.entities.Transaction;
+import com.github.menglanyan.inventory_management.enums.SalesWindow;
+import com.github.menglanyan.inventory_management.enums.TransactionType;
+import com.github.menglanyan.inventory_management.events.TransactionsRecordedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Units sold per product over sliding windows, in fixed memory: a ring of Space-Saving summaries per bucket length
+// (60 one-minute buckets, 168 one-hour buckets), each with the same number of counters.
+// A window merges its buckets. For a listed product the true units sold lie in [minUnitsSold, unitsSold]; a product
+// that sold more than maxError units is always among those ranked, and maxError <= totalUnits / counters.
+// Fed by committed sales; the counts start empty on every restart.
+@Component
+public class TopSellerTracker {
+
+    private final int countersPerBucket;
+
+    private final Map<Long, Ring> rings = new HashMap<>();
+
+    public TopSellerTracker(@Value("${top-sellers.counters-per-bucket:200}") int countersPerBucket) {
+
+        this.countersPerBucket = countersPerBucket;
+
+        for (SalesWindow window : SalesWindow.values()) {
+            rings.merge(window.getBucketMillis(), new Ring(window.getBucketMillis(), window.getBuckets()),
+                    (existing, ring) -> existing.buckets.length >= ring.buckets.length ? existing : ring);
+        }
+    }
+
+    public record TopSellers(long totalUnits, long maxError, List<Seller> sellers) {
+    }
+
+    public record Seller(long productId, long unitsSold, long minUnitsSold) {
+    }
+
+    @TransactionalEventListener
+    public void onTransactionsRecorded(TransactionsRecordedEvent event) {
+
+        long now = System.currentTimeMillis();
+
+        for (Transaction transaction : event.transactions()) {
+            if (transaction.getTransactionType() == TransactionType.SALE && transaction.getProduct() != null
+                    && transaction.getTotalProducts() != null && transaction.getTotalProducts() > 0) {
+                record(transaction.getProduct().getId(), transaction.getTotalProducts(), now);
+            }
+        }
+    }
+
+    public TopSellers top(SalesWindow window, int limit) {
+        return top(window, limit, System.currentTimeMillis());
+    }
+
+    synchronized void record(long productId, long units, long nowMillis) {
+        for (Ring ring : rings.values()) {
+            ring.bucket(nowMillis).add(productId, units);
+        }
+    }
+
+    synchronized TopSellers top(SalesWindow window, int limit, long nowMillis) {
+
+        Ring ring = rings.get(window.getBucketMillis());
+        long current = nowMillis / window.getBucketMillis();
+
+        // Per product: units from the buckets tracking it, the lower bound, and those buckets' minimum counts
+        Map<Long, long[]> candidates = new HashMap<>();
+        long totalUnits = 0;
+        long maxError = 0;
+
+        for (int age = 0; age < window.getBuckets(); age++) {
+            SpaceSavingSummary summary = ring.bucketAt(current - age);
+
+            if (summary == null) {
+                continue;
+            }
+
+            long minCount = summary.minCount();
+
+            totalUnits += summary.total();
+            maxError += minCount;
+
+            summary.forEach((id, count, error) -> {
+                long[] bounds = candidates.computeIfAbsent(id, key -> new long[3]);
+                bounds[0] += count;
+                bounds[1] += count - error;
+                bounds[2] += minCount;
+            });
+        }
+
+        // A bucket that does not track a product may still have hidden up to its minimum count of it
+        List<Seller> sellers = new ArrayList<>(candidates.size());
+        long hidden = maxError;
+
+        candidates.forEach((id, bounds) -> sellers.add(new Seller(id, bounds[0] + hidden - bounds[2], bounds[1])));
+
+        sellers.sort(Comparator.comparingLong(Seller::unitsSold).reversed().thenComparingLong(Seller::productId));
+
+        return new TopSellers(totalUnits, maxError, List.copyOf(sellers.subList(0, Math.min(limit, sellers.size()))));
+    }
+
+    // One summary per bucket of time, reused once its bucket falls out of the longest window
+    private final class Ring {
+
+        private final long bucketMillis;
+
+        private final SpaceSavingSummary[] buckets;
+
+        private final long[] bucketNumbers;
+
+        Ring(long bucketMillis, int size) {
+            this.bucketMillis = bucketMillis;
+            this.buckets = new SpaceSavingSummary[size];
+            this.bucketNumbers = new long[size];
+
+            for (int i = 0; i < size; i++) {
+                buckets[i] = new SpaceSavingSummary(countersPerBucket);
+                bucketNumbers[i] = -1;
+            }
+        }
+
+        SpaceSavingSummary bucket(long nowMillis) {
+
+            long number = nowMillis / bucketMillis;
+            int slot = (int) (number % buckets.length);
+
+            if (bucketNumbers[slot] != number) {
+                buckets[slot].clear();
+                bucketNumbers[slot] = number;
+            }
+
+            return buckets[slot];
+        }
+
+        // Null when nothing was recorded in that bucket
+        SpaceSavingSummary bucketAt(long number) {
+
+            if (number < 0) {
+                return null;
+            }
+
+            int slot = (int) (number % buckets.length);
+
+            return bucketNumbers[slot] == number ? buckets[slot] : null;
+        }
+    }
+}
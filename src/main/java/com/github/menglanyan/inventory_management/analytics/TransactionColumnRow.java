@@ -0,0 +1,27 @@
+package com.github.menglanyan.inventory_management.analytics;
+
+import com.github.menglanyan.inventory_management.entities.Transaction;
+import com.github.menglanyan.inventory_management.enums.TransactionStatus;
+import com.github.menglanyan.inventory_management.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// The columns of a transaction the columnar engine keeps, as selected from the database or taken from a new entity
+public record TransactionColumnRow(Long id, LocalDateTime createdAt, TransactionType transactionType,
+                                   TransactionStatus status, Long productId, Long userId, Long supplierId,
+                                   Integer totalProducts, BigDecimal totalPrice) {
+
+    public static TransactionColumnRow of(Transaction transaction) {
+        return new TransactionColumnRow(
+                transaction.getId(),
+                transaction.getCreatedAt(),
+                transaction.getTransactionType(),
+                transaction.getStatus(),
+                transaction.getProduct() == null ? null : transaction.getProduct().getId(),
+                transaction.getUser() == null ? null : transaction.getUser().getId(),
+                transaction.getSupplier() == null ? null : transaction.getSupplier().getId(),
+                transaction.getTotalProducts(),
+                transaction.getTotalPrice());
+    }
+}
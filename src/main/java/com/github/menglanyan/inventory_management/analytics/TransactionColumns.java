@@ -0,0 +1,247 @@
+package com.github.menglanyan.inventory_management.analytics;
+
+import com.github.menglanyan.inventory_management.enums.AnalyticsDimension;
+import com.github.menglanyan.inventory_management.enums.TransactionStatus;
+import com.github.menglanyan.inventory_management.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Transactions as primitive columns in fixed-size chunks: epoch days, ids, quantities, prices in minor units and
+// enum ordinals. A missing product, user or supplier is stored as id 0.
+// Appends are synchronized; scans run concurrently and only look at rows below the published size,
+// so they never see a half-written row.
+public final class TransactionColumns {
+
+    static final int CHUNK_SIZE = 1 << 16;
+
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private volatile Chunk[] chunks = new Chunk[0];
+
+    private volatile int size;
+
+    public int size() {
+        return size;
+    }
+
+    public synchronized void append(TransactionColumnRow row) {
+        append(row.id(), row.createdAt().toLocalDate().toEpochDay(), row.transactionType(), row.status(),
+                row.productId(), row.userId(), row.supplierId(), row.totalProducts(), row.totalPrice());
+    }
+
+    public synchronized void append(long id, long epochDay, TransactionType type, TransactionStatus status,
+                                    Long productId, Long userId, Long supplierId, Integer quantity, BigDecimal price) {
+
+        int row = size;
+        int offset = row & (CHUNK_SIZE - 1);
+
+        if (offset == 0) {
+            Chunk[] grown = Arrays.copyOf(chunks, chunks.length + 1);
+            grown[grown.length - 1] = new Chunk();
+            chunks = grown;
+        }
+
+        Chunk chunk = chunks[row >>> 16];
+
+        chunk.id[offset] = id;
+        chunk.epochDay[offset] = (int) epochDay;
+        chunk.type[offset] = (byte) type.ordinal();
+        chunk.status[offset] = (byte) status.ordinal();
+        chunk.productId[offset] = productId == null ? 0 : productId;
+        chunk.userId[offset] = userId == null ? 0 : userId;
+        chunk.supplierId[offset] = supplierId == null ? 0 : supplierId;
+        chunk.quantity[offset] = quantity == null ? 0 : quantity;
+        chunk.minorUnits[offset] = price == null ? 0 : price.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+
+        // Publishes the row to readers
+        size = row + 1;
+    }
+
+    public boolean contains(long id) {
+        return find(id) >= 0;
+    }
+
+    // Returns false when the id is not loaded
+    public boolean changeStatus(long id, TransactionStatus status) {
+
+        int row = find(id);
+
+        if (row < 0) {
+            return false;
+        }
+
+        chunks[row >>> 16].status[row & (CHUNK_SIZE - 1)] = (byte) status.ordinal();
+
+        return true;
+    }
+
+    // Rows with the status created on days [fromDay, toDay), grouped by the dimension and transaction type.
+    // CATEGORY is not a column; it is grouped by product and rolled up by the caller.
+    SalesAccumulator aggregate(AnalyticsDimension dimension, TransactionStatus status, long fromDay, long toDay,
+                               ForkJoinPool pool) {
+
+        // Size first: the chunks read after it hold at least that many rows
+        int rows = size;
+        Chunk[] snapshot = chunks;
+
+        if (rows == 0) {
+            return new SalesAccumulator();
+        }
+
+        int chunkCount = (rows + CHUNK_SIZE - 1) >>> 16;
+
+        // A few leaves per worker: enough to balance the load, few enough that merging group hashes stays cheap
+        int leafChunks = Math.max(1, chunkCount / (pool.getParallelism() * 4));
+
+        Scan scan = new Scan(snapshot, rows, dimension, (byte) status.ordinal(), (int) fromDay, (int) toDay,
+                leafChunks, 0, chunkCount);
+
+        return pool.invoke(scan);
+    }
+
+    static TransactionType type(int ordinal) {
+        return TYPES[ordinal];
+    }
+
+    // Ids are appended in commit order, which is almost always id order; fall back to a scan if not
+    private int find(long id) {
+
+        int rows = size;
+        Chunk[] snapshot = chunks;
+        int low = 0;
+        int high = rows - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long value = snapshot[middle >>> 16].id[middle & (CHUNK_SIZE - 1)];
+
+            if (value < id) {
+                low = middle + 1;
+            } else if (value > id) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+
+        for (int row = rows - 1; row >= 0; row--) {
+            if (snapshot[row >>> 16].id[row & (CHUNK_SIZE - 1)] == id) {
+                return row;
+            }
+        }
+
+        return -1;
+    }
+
+    private static final class Chunk {
+
+        final long[] id = new long[CHUNK_SIZE];
+
+        final int[] epochDay = new int[CHUNK_SIZE];
+
+        final byte[] type = new byte[CHUNK_SIZE];
+
+        final byte[] status = new byte[CHUNK_SIZE];
+
+        final long[] productId = new long[CHUNK_SIZE];
+
+        final long[] userId = new long[CHUNK_SIZE];
+
+        final long[] supplierId = new long[CHUNK_SIZE];
+
+        final int[] quantity = new int[CHUNK_SIZE];
+
+        final long[] minorUnits = new long[CHUNK_SIZE];
+    }
+
+    // Splits the chunk range in halves down to leafChunks chunks, scanned by one tight loop per chunk
+    private static final class Scan extends RecursiveTask<SalesAccumulator> {
+
+        private final Chunk[] chunks;
+
+        private final int rows;
+
+        private final AnalyticsDimension dimension;
+
+        private final byte status;
+
+        private final int fromDay;
+
+        private final int toDay;
+
+        private final int leafChunks;
+
+        private final int firstChunk;
+
+        private final int endChunk;
+
+        Scan(Chunk[] chunks, int rows, AnalyticsDimension dimension, byte status, int fromDay, int toDay,
+             int leafChunks, int firstChunk, int endChunk) {
+            this.chunks = chunks;
+            this.rows = rows;
+            this.dimension = dimension;
+            this.status = status;
+            this.fromDay = fromDay;
+            this.toDay = toDay;
+            this.leafChunks = leafChunks;
+            this.firstChunk = firstChunk;
+            this.endChunk = endChunk;
+        }
+
+        @Override
+        protected SalesAccumulator compute() {
+
+            if (endChunk - firstChunk <= leafChunks) {
+                SalesAccumulator accumulator = new SalesAccumulator();
+
+                for (int chunk = firstChunk; chunk < endChunk; chunk++) {
+                    scan(chunks[chunk], Math.min(CHUNK_SIZE, rows - chunk * CHUNK_SIZE), accumulator);
+                }
+
+                return accumulator;
+            }
+
+            int middle = (firstChunk + endChunk) >>> 1;
+
+            Scan left = new Scan(chunks, rows, dimension, status, fromDay, toDay, leafChunks, firstChunk, middle);
+            Scan right = new Scan(chunks, rows, dimension, status, fromDay, toDay, leafChunks, middle, endChunk);
+
+            left.fork();
+
+            SalesAccumulator rightResult = right.compute();
+
+            return left.join().merge(rightResult);
+        }
+
+        private void scan(Chunk chunk, int length, SalesAccumulator accumulator) {
+
+            int[] days = chunk.epochDay;
+            byte[] statuses = chunk.status;
+            byte[] types = chunk.type;
+            int[] quantities = chunk.quantity;
+            long[] minorUnits = chunk.minorUnits;
+
+            long[] groups = switch (dimension) {
+                case DAY -> null;
+                case PRODUCT, CATEGORY -> chunk.productId;
+                case SUPPLIER -> chunk.supplierId;
+            };
+
+            for (int i = 0; i < length; i++) {
+                int day = days[i];
+
+                if (statuses[i] != status || day < fromDay || day >= toDay) {
+                    continue;
+                }
+
+                long group = groups == null ? day : groups[i];
+
+                accumulator.add(SalesAccumulator.key(group, types[i]), 1, quantities[i], minorUnits[i]);
+            }
+        }
+    }
+}
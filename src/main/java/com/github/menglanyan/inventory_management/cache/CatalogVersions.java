@@ -0,0 +1,105 @@
+package com.github.menglanyan.inventory_management.cache;
+
+import com.github.menglanyan.inventory_management.enums.CatalogAggregate;
+import com.github.menglanyan.inventory_management.events.ProductDeletedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// One version counter per catalog aggregate, bumped by every write that changes what its read endpoints return,
+// plus one per product that has changed since startup. Anything cached under an older version is never served
+// again, and the versions double as ETags.
+@Component
+public class CatalogVersions {
+
+    // Counters restart at zero, so ETags carry the boot time to never match a tag from a previous run
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Map<CatalogAggregate, AtomicLong> versions = new EnumMap<>(CatalogAggregate.class);
+
+    // Products never changed since startup are implicitly at version 0; deleted products are dropped
+    private final Map<Long, Long> productVersions = new ConcurrentHashMap<>();
+
+    // Part of every product tag, bumped on deletes so a dropped id can never be back at a tag it had before
+    private final AtomicLong productGeneration = new AtomicLong();
+
+    public CatalogVersions() {
+        for (CatalogAggregate aggregate : CatalogAggregate.values()) {
+            versions.put(aggregate, new AtomicLong());
+        }
+    }
+
+    public long current(CatalogAggregate aggregate) {
+        return versions.get(aggregate).get();
+    }
+
+    public String eTag(CatalogAggregate aggregate, long version) {
+        return "\"" + epoch + "-" + aggregate.name().toLowerCase() + "-" + version + "\"";
+    }
+
+    public String productETag(Long productId) {
+        return "\"" + epoch + "-product-" + productId + "-" + productVersions.getOrDefault(productId, 0L) + "-"
+                + productGeneration.get() + "\"";
+    }
+
+    public void bump(CatalogAggregate... aggregates) {
+        afterCommit(() -> {
+            for (CatalogAggregate aggregate : aggregates) {
+                versions.get(aggregate).incrementAndGet();
+            }
+        });
+    }
+
+    // Also bumps PRODUCTS, since every product change shows up in the catalog lists
+    public void bumpProducts(Collection<Long> productIds) {
+        afterCommit(() -> {
+            for (Long productId : productIds) {
+                productVersions.merge(productId, 1L, Long::sum);
+            }
+            versions.get(CatalogAggregate.PRODUCTS).incrementAndGet();
+        });
+    }
+
+    public void bumpProduct(Long productId) {
+        bumpProducts(List.of(productId));
+    }
+
+    // Also covers products deleted by a category cascade, which publishes one event per product. Deletes are rare
+    // enough that moving every product tag on with the generation costs little.
+    @TransactionalEventListener
+    public void onProductDeleted(ProductDeletedEvent event) {
+        productVersions.remove(event.productId());
+        productGeneration.incrementAndGet();
+        versions.get(CatalogAggregate.PRODUCTS).incrementAndGet();
+    }
+
+    int trackedProductCount() {
+        return productVersions.size();
+    }
+
+    // Bumps once the surrounding transaction commits, so a reader can never cache uncommitted data under the
+    // new version; without a transaction the write has already committed and the bump is immediate
+    private void afterCommit(Runnable bump) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bump.run();
+            }
+        });
+
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.menglanyan.inventory_management.cache;
+
+import com.github.menglanyan.inventory_management.dtos.SecondLevelCacheStatsDTO;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Hit, miss and put counts of every Hibernate second-level and query cache region since startup
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheMonitor {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public List<SecondLevelCacheStatsDTO> stats() {
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        List<SecondLevelCacheStatsDTO> stats = new ArrayList<>();
+
+        if (!statistics.isStatisticsEnabled()) {
+            return stats;
+        }
+
+        String[] regions = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(regions);
+
+        for (String region : regions) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+
+            if (regionStatistics == null) {
+                continue;
+            }
+
+            long hits = regionStatistics.getHitCount();
+            long misses = regionStatistics.getMissCount();
+
+            stats.add(SecondLevelCacheStatsDTO.builder()
+                    .region(region)
+                    .hits(hits)
+                    .misses(misses)
+                    .puts(regionStatistics.getPutCount())
+                    .hitRate(hits + misses == 0 ? 0 : (double) hits / (hits + misses))
+                    .build());
+        }
+
+        return stats;
+
+    }
+}
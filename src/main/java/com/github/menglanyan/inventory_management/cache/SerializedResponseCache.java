@@ -0,0 +1,168 @@
+package com.github.menglanyan.inventory_management.cache;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.menglanyan.inventory_management.dtos.Response;
+import com.github.menglanyan.inventory_management.dtos.ResponseCacheStatsDTO;
+import com.github.menglanyan.inventory_management.enums.CatalogAggregate;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Caches catalog read responses as ready-to-write JSON bytes, keyed by endpoint, query variant and the
+// aggregate version at read time. A hit skips the query, the mapping and Jackson entirely. The cached bytes leave
+// out Response.timestamp, which is written fresh in front of them on every response.
+@Component
+public class SerializedResponseCache {
+
+    private static final long MAX_BYTES = 64L * 1024 * 1024;
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectMapper cachedBodyMapper;
+
+    private final CatalogVersions catalogVersions;
+
+    private final Cache<Key, byte[]> responses = Caffeine.newBuilder()
+            .maximumWeight(MAX_BYTES)
+            .weigher((Key key, byte[] body) -> body.length)
+            .build();
+
+    private final Map<CatalogAggregate, LongAdder> requests = new EnumMap<>(CatalogAggregate.class);
+
+    private final Map<CatalogAggregate, LongAdder> misses = new EnumMap<>(CatalogAggregate.class);
+
+    private record Key(CatalogAggregate aggregate, long version, String variant) {
+    }
+
+    @JsonIgnoreProperties("timestamp")
+    private abstract static class WithoutTimestamp {
+    }
+
+    public SerializedResponseCache(ObjectMapper objectMapper, CatalogVersions catalogVersions) {
+        this.objectMapper = objectMapper;
+        this.cachedBodyMapper = objectMapper.copy().addMixIn(Response.class, WithoutTimestamp.class);
+        this.catalogVersions = catalogVersions;
+
+        for (CatalogAggregate aggregate : CatalogAggregate.values()) {
+            requests.put(aggregate, new LongAdder());
+            misses.put(aggregate, new LongAdder());
+        }
+    }
+
+    // The cached body, without the timestamp. The variant must identify everything the response depends on besides
+    // the aggregate version (path and query parameters). The version is read before loading, so a write racing the
+    // load can only make the entry unreachable, never stale.
+    byte[] get(CatalogAggregate aggregate, String variant, Supplier<Response> loader) {
+        return get(aggregate, catalogVersions.current(aggregate), variant, loader);
+    }
+
+    // Answers If-None-Match with a 304 straight from the version counter, before any cache lookup or query;
+    // otherwise serves the bytes cached for that same version with its ETag
+    public ResponseEntity<byte[]> respond(CatalogAggregate aggregate, String variant, WebRequest request,
+                                          Supplier<Response> loader) {
+
+        long version = catalogVersions.current(aggregate);
+        String eTag = catalogVersions.eTag(aggregate, version);
+
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(withTimestamp(get(aggregate, version, variant, loader)));
+
+    }
+
+    public List<ResponseCacheStatsDTO> stats() {
+
+        Map<CatalogAggregate, long[]> usage = new EnumMap<>(CatalogAggregate.class);
+
+        responses.asMap().forEach((key, body) -> {
+            long[] entry = usage.computeIfAbsent(key.aggregate(), a -> new long[2]);
+            entry[0]++;
+            entry[1] += body.length;
+        });
+
+        List<ResponseCacheStatsDTO> stats = new ArrayList<>();
+
+        for (CatalogAggregate aggregate : CatalogAggregate.values()) {
+            long total = requests.get(aggregate).sum();
+            long missCount = Math.min(misses.get(aggregate).sum(), total);
+            long[] entry = usage.getOrDefault(aggregate, new long[2]);
+
+            stats.add(ResponseCacheStatsDTO.builder()
+                    .aggregate(aggregate)
+                    .version(catalogVersions.current(aggregate))
+                    .hits(total - missCount)
+                    .misses(missCount)
+                    .hitRate(total == 0 ? 0 : (double) (total - missCount) / total)
+                    .entries(entry[0])
+                    .bytes(entry[1])
+                    .build());
+        }
+
+        return stats;
+
+    }
+
+    private byte[] get(CatalogAggregate aggregate, long version, String variant, Supplier<Response> loader) {
+
+        requests.get(aggregate).increment();
+
+        return responses.get(new Key(aggregate, version, variant), k -> {
+            misses.get(aggregate).increment();
+            return serialize(loader.get());
+        });
+
+    }
+
+    private byte[] serialize(Response response) {
+        try {
+            return cachedBodyMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // {"timestamp":<now>, followed by the cached body after its opening brace; a Response always has a status code,
+    // so the body is never empty
+    private byte[] withTimestamp(byte[] body) {
+
+        byte[] prefix;
+
+        try {
+            prefix = ("{\"timestamp\":" + objectMapper.writeValueAsString(LocalDateTime.now()) + ",")
+                    .getBytes(StandardCharsets.UTF_8);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        byte[] stamped = new byte[prefix.length + body.length - 1];
+
+        System.arraycopy(prefix, 0, stamped, 0, prefix.length);
+        System.arraycopy(body, 1, stamped, prefix.length, body.length - 1);
+
+        return stamped;
+
+    }
+}
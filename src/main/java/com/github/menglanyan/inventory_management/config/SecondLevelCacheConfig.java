@@ -0,0 +1,78 @@
+package com.github.menglanyan.inventory_management.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Local Caffeine-backed JCache regions for the Hibernate second-level and query caches. Every region is declared
+// here with its bounds; Hibernate refuses to start if an entity asks for a region that is missing.
+@Configuration
+public class SecondLevelCacheConfig {
+
+    private static final long MAX_CATEGORIES = 10_000;
+
+    private static final long MAX_SUPPLIERS = 10_000;
+
+    private static final long MAX_PRODUCTS = 100_000;
+
+    private static final long MAX_QUERY_RESULTS = 1_000;
+
+    private static final long QUERY_RESULTS_TTL_MINUTES = 10;
+
+    // Its own manager per application context, so test contexts in one JVM never share cached rows
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager() {
+
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("second-level-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        cacheManager.createCache("categories", boundedRegion(MAX_CATEGORIES));
+        cacheManager.createCache("suppliers", boundedRegion(MAX_SUPPLIERS));
+        cacheManager.createCache("products", boundedRegion(MAX_PRODUCTS));
+
+        CaffeineConfiguration<Object, Object> queryResults = boundedRegion(MAX_QUERY_RESULTS);
+        queryResults.setExpireAfterWrite(OptionalLong.of(TimeUnit.MINUTES.toNanos(QUERY_RESULTS_TTL_MINUTES)));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, queryResults);
+
+        // One entry per table, and evicting one would wrongly let stale query results through, so it stays unbounded
+        CaffeineConfiguration<Object, Object> updateTimestamps = new CaffeineConfiguration<>();
+        updateTimestamps.setStatisticsEnabled(true);
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, updateTimestamps);
+
+        return cacheManager;
+
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheProperties(CacheManager secondLevelCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            // Hit, miss and load counts for /api/cache/stats, without the per-session metrics log lines
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            properties.put(AvailableSettings.LOG_SESSION_METRICS, false);
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> boundedRegion(long maximumSize) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.menglanyan.inventory_management.controller;
+
+import com.github.menglanyan.inventory_management.dtos.Response;
+import com.github.menglanyan.inventory_management.enums.AnalyticsDimension;
+import com.github.menglanyan.inventory_management.enums.SalesWindow;
+import com.github.menglanyan.inventory_management.enums.TransactionStatus;
+import com.github.menglanyan.inventory_management.services.AnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+
+    // Revenue and units per day, product, category or supplier, split by transaction type; from and to are inclusive
+    @GetMapping("/sales")
+    public ResponseEntity<Response> getSales(
+            @RequestParam(defaultValue = "DAY") AnalyticsDimension groupBy,
+            @RequestParam(defaultValue = "COMPLETED") TransactionStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ResponseEntity.ok(analyticsService.getSales(groupBy, status, from, to));
+    }
+
+    // Top sellers by units over the last hour, day or week, from an in-memory sketch; see TopSellersDTO for the bounds
+    @GetMapping("/top-sellers")
+    public ResponseEntity<Response> getTopSellers(
+            @RequestParam(defaultValue = "DAY") SalesWindow window,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        return ResponseEntity.ok(analyticsService.getTopSellers(window, limit));
+    }
+
+    // On-hand value per category from running totals
+    @GetMapping("/valuation")
+    public ResponseEntity<Response> getInventoryValuation() {
+        return ResponseEntity.ok(analyticsService.getInventoryValuation());
+    }
+
+    // Recomputes the valuation from every product and reports categories whose running total had drifted
+    @PostMapping("/valuation/reconcile")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response> reconcileInventoryValuation() {
+        Response response = analyticsService.reconcileInventoryValuation();
+
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+}
@@ -6,9 +6,11 @@ import com.github.menglanyan.inventory_management.dtos.Response;
 import com.github.menglanyan.inventory_management.services.AuthService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -28,4 +30,9 @@ public class AuthController {
     public ResponseEntity<Response> loginUser(@RequestBody @Valid LoginRequest loginRequest) {
         return ResponseEntity.ok(authService.loginUser(loginRequest));
     }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Response> logoutUser(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        return ResponseEntity.ok(authService.logoutUser(authorization));
+    }
 }
@@ -0,0 +1,33 @@
+package com.github.menglanyan.inventory_management.controller;
+
+import com.github.menglanyan.inventory_management.cache.SecondLevelCacheMonitor;
+import com.github.menglanyan.inventory_management.cache.SerializedResponseCache;
+import com.github.menglanyan.inventory_management.dtos.Response;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final SerializedResponseCache serializedResponseCache;
+
+    private final SecondLevelCacheMonitor secondLevelCacheMonitor;
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response> getCacheStats() {
+        return ResponseEntity.ok(Response.builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Cache Stats Retrieved Successfully")
+                .responseCacheStats(serializedResponseCache.stats())
+                .secondLevelCacheStats(secondLevelCacheMonitor.stats())
+                .build());
+    }
+}
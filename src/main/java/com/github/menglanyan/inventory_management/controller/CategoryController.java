@@ -1,13 +1,16 @@
 package com.github.menglanyan.inventory_management.controller;
 
+import com.github.menglanyan.inventory_management.cache.SerializedResponseCache;
 import com.github.menglanyan.inventory_management.dtos.CategoryDTO;
 import com.github.menglanyan.inventory_management.dtos.Response;
+import com.github.menglanyan.inventory_management.enums.CatalogAggregate;
 import com.github.menglanyan.inventory_management.services.CategoryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequiredArgsConstructor
@@ -16,6 +19,8 @@ public class CategoryController {
 
     private final CategoryService categoryService;
 
+    private final SerializedResponseCache serializedResponseCache;
+
     @PostMapping("/add")
     @PreAuthorize("hasAuthority('ADMIN')")
     public ResponseEntity<Response> createCategory(@RequestBody @Valid CategoryDTO categoryDTO) {
@@ -23,8 +28,9 @@ public class CategoryController {
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Response> getAllCategories() {
-        return ResponseEntity.ok(categoryService.getAllCategories());
+    public ResponseEntity<byte[]> getAllCategories(WebRequest request) {
+        return serializedResponseCache.respond(CatalogAggregate.CATEGORIES, "all", request,
+                categoryService::getAllCategories);
     }
 
     @GetMapping("/{id}")
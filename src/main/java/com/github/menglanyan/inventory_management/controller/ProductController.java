@@ -1,13 +1,25 @@
 package com.github.menglanyan.inventory_management.controller;
 
+import com.github.menglanyan.inventory_management.cache.CatalogVersions;
+import com.github.menglanyan.inventory_management.cache.SerializedResponseCache;
 import com.github.menglanyan.inventory_management.dtos.ProductDTO;
 import com.github.menglanyan.inventory_management.dtos.Response;
+import com.github.menglanyan.inventory_management.enums.CatalogAggregate;
+import com.github.menglanyan.inventory_management.enums.ProductSortField;
 import com.github.menglanyan.inventory_management.services.ProductService;
+import com.github.menglanyan.inventory_management.stream.LowStockAlertStream;
+import com.github.menglanyan.inventory_management.stream.StockChangeStream;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
 
@@ -18,6 +30,14 @@ public class ProductController {
 
     private final ProductService productService;
 
+    private final SerializedResponseCache serializedResponseCache;
+
+    private final CatalogVersions catalogVersions;
+
+    private final StockChangeStream stockChangeStream;
+
+    private final LowStockAlertStream lowStockAlertStream;
+
     @PostMapping("/add")
     @PreAuthorize("hasAuthority('ADMIN')")
     public ResponseEntity<Response> saveProduct(
@@ -27,7 +47,8 @@ public class ProductController {
             @RequestParam("price") BigDecimal price,
             @RequestParam("stockQuantity") Integer stockQuantity,
             @RequestParam("categoryId") Long categoryId,
-            @RequestParam(value = "description", required = false) String description
+            @RequestParam(value = "description", required = false) String description,
+            @RequestParam(value = "reorderThreshold", required = false) Integer reorderThreshold
     ) {
         ProductDTO productDTO = new ProductDTO();
         productDTO.setName(name);
@@ -36,6 +57,7 @@ public class ProductController {
         productDTO.setStockQuantity(stockQuantity);
         productDTO.setCategoryId(categoryId);
         productDTO.setDescription(description);
+        productDTO.setReorderThreshold(reorderThreshold);
 
         return ResponseEntity.ok(productService.saveProduct(productDTO, imageFile));
 
@@ -51,7 +73,8 @@ public class ProductController {
             @RequestParam(value = "price", required = false) BigDecimal price,
             @RequestParam(value = "stockQuantity", required = false) Integer stockQuantity,
             @RequestParam(value = "categoryId", required = false) Long categoryId,
-            @RequestParam(value = "description", required = false) String description
+            @RequestParam(value = "description", required = false) String description,
+            @RequestParam(value = "reorderThreshold", required = false) Integer reorderThreshold
     ) {
         ProductDTO productDTO = new ProductDTO();
         productDTO.setProductId(productId);
@@ -61,18 +84,77 @@ public class ProductController {
         productDTO.setStockQuantity(stockQuantity);
         productDTO.setCategoryId(categoryId);
         productDTO.setDescription(description);
+        productDTO.setReorderThreshold(reorderThreshold);
 
         return ResponseEntity.ok(productService.updateProduct(productDTO, imageFile));
     }
 
+    // Keyset paged: pass back nextCursor to get the following page with the same filters and sort.
+    // fields=id,name,stockQuantity returns only those properties and selects only those columns.
     @GetMapping("/all")
-    public ResponseEntity<Response> getAllProducts() {
-        return ResponseEntity.ok(productService.getAllProducts());
+    public ResponseEntity<byte[]> getAllProducts(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Integer minStock,
+            @RequestParam(required = false) Integer maxStock,
+            @RequestParam(defaultValue = "ID") ProductSortField sort,
+            @RequestParam(defaultValue = "DESC") Sort.Direction direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String fields,
+            WebRequest request
+    ) {
+        String variant = "all:" + categoryId + ":" + minStock + ":" + maxStock + ":" + sort + ":" + direction + ":"
+                + cursor + ":" + size + ":" + fields;
+
+        return serializedResponseCache.respond(CatalogAggregate.PRODUCTS, variant, request,
+                () -> productService.getAllProducts(categoryId, minStock, maxStock, sort, direction, cursor, size,
+                        fields));
+    }
+
+    // Delta sync: everything changed or deleted after the given sequence number; start from 0 for a full copy and
+    // keep passing back lastChangeSeq while hasMore is true
+    @GetMapping("/changes")
+    public ResponseEntity<byte[]> getProductChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "500") int size,
+            WebRequest request
+    ) {
+        return serializedResponseCache.respond(CatalogAggregate.PRODUCTS, "changes:" + since + ":" + size, request,
+                () -> productService.getProductChanges(since, size));
+    }
+
+    // Live stock levels as Server-Sent Events, at most one update per product per coalescing window
+    @GetMapping(value = "/stock-stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStockChanges() {
+        return stockChangeStream.subscribe();
+    }
+
+    // Products at or below their reorder threshold, furthest below first
+    @GetMapping("/low-stock")
+    public ResponseEntity<Response> getLowStockProducts() {
+        return ResponseEntity.ok(productService.getLowStockProducts());
+    }
+
+    // "low-stock" Server-Sent Events whenever a product drops to its reorder threshold or is restocked above it
+    @GetMapping(value = "/low-stock/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLowStockAlerts() {
+        return lowStockAlertStream.subscribe();
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Response> getProductById(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.getProductById(id));
+    public ResponseEntity<Response> getProductById(@PathVariable Long id, WebRequest request) {
+
+        // Read before the product, so a concurrent write can only make the tag older than the body, never newer
+        String eTag = catalogVersions.productETag(id);
+
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache())
+                .body(productService.getProductById(id));
     }
 
     @DeleteMapping("/delete/{id}")
@@ -82,7 +164,11 @@ public class ProductController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Response> searchProduct(@RequestParam String input) {
-        return ResponseEntity.ok(productService.searchProduct(input));
+    public ResponseEntity<Response> searchProduct(
+            @RequestParam String input,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(productService.searchProduct(input, page, size));
     }
 }
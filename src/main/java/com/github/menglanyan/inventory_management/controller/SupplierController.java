@@ -1,13 +1,16 @@
 package com.github.menglanyan.inventory_management.controller;
 
+import com.github.menglanyan.inventory_management.cache.SerializedResponseCache;
 import com.github.menglanyan.inventory_management.dtos.Response;
 import com.github.menglanyan.inventory_management.dtos.SupplierDTO;
+import com.github.menglanyan.inventory_management.enums.CatalogAggregate;
 import com.github.menglanyan.inventory_management.services.SupplierService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequiredArgsConstructor
@@ -16,6 +19,8 @@ public class SupplierController {
 
     private final SupplierService supplierService;
 
+    private final SerializedResponseCache serializedResponseCache;
+
     @PostMapping("/add")
     @PreAuthorize("hasAuthority('ADMIN')")
     public ResponseEntity<Response> addSupplier(@RequestBody @Valid SupplierDTO supplierDTO) {
@@ -29,8 +34,9 @@ public class SupplierController {
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Response> getAllSuppliers() {
-        return ResponseEntity.ok(supplierService.getAllSuppliers());
+    public ResponseEntity<byte[]> getAllSuppliers(WebRequest request) {
+        return serializedResponseCache.respond(CatalogAggregate.SUPPLIERS, "all", request,
+                supplierService::getAllSuppliers);
     }
 
     @GetMapping("/{id}")
@@ -2,12 +2,23 @@ package com.github.menglanyan.inventory_management.controller;
 
 import com.github.menglanyan.inventory_management.dtos.Response;
 import com.github.menglanyan.inventory_management.dtos.TransactionRequest;
+import com.github.menglanyan.inventory_management.enums.ExportFormat;
 import com.github.menglanyan.inventory_management.enums.TransactionStatus;
+import com.github.menglanyan.inventory_management.exceptions.NameValueRequiredException;
+import com.github.menglanyan.inventory_management.services.TransactionRollupService;
 import com.github.menglanyan.inventory_management.services.TransactionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/transactions")
@@ -16,6 +27,8 @@ public class TransactionController {
 
     private final TransactionService transactionService;
 
+    private final TransactionRollupService transactionRollupService;
+
 
     @PostMapping("/purchase")
     public ResponseEntity<Response> purchaseInventory(@RequestBody @Valid TransactionRequest transactionRequest) {
@@ -32,13 +45,28 @@ public class TransactionController {
         return ResponseEntity.ok(transactionService.returnToSupplier(transactionRequest));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Response> processBatch(@RequestBody List<TransactionRequest> transactionRequests) {
+        return ResponseEntity.ok(transactionService.processBatch(transactionRequests));
+    }
+
+    // Passing a cursor (empty for the first page) switches from offset to keyset pagination.
+    // fields=id,totalPrice,status returns only those properties and selects only those columns.
     @GetMapping("/all")
     public ResponseEntity<Response> getAllTransactions(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "100000") int size,
-            @RequestParam(required = false) String searchValue
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String searchValue,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withTotal,
+            @RequestParam(required = false) String fields
     ) {
-        return ResponseEntity.ok(transactionService.getAllTransactions(page, size, searchValue));
+        if (cursor != null) {
+            return ResponseEntity.ok(transactionService.getTransactionsByCursor(cursor, size, searchValue, withTotal,
+                    fields));
+        }
+
+        return ResponseEntity.ok(transactionService.getAllTransactions(page, size, searchValue, fields));
     }
 
     @GetMapping("/{id}")
@@ -54,6 +82,46 @@ public class TransactionController {
         return ResponseEntity.ok(transactionService.getTransactionsByMonthAndYear(month, year));
     }
 
+    @GetMapping("/monthly-summary")
+    public ResponseEntity<Response> getMonthlySummary(
+            @RequestParam int month,
+            @RequestParam int year
+    ) {
+        return ResponseEntity.ok(transactionRollupService.getMonthlySummary(month, year));
+    }
+
+    @PostMapping("/monthly-summary/rebuild")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response> rebuildMonthlySummary() {
+        return ResponseEntity.ok(transactionRollupService.rebuildRollups());
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        ExportFormat exportFormat;
+
+        try {
+            exportFormat = ExportFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new NameValueRequiredException("Export format must be ndjson or csv");
+        }
+
+        StreamingResponseBody body = outputStream ->
+                transactionService.exportTransactions(exportFormat, from, to, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat == ExportFormat.CSV
+                        ? new MediaType("text", "csv")
+                        : new MediaType("application", "x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"transactions." + exportFormat.name().toLowerCase() + "\"")
+                .body(body);
+    }
+
     @PutMapping("/{transactionId}")
     public ResponseEntity<Response> updateTransactionStatus(
             @PathVariable Long transactionId, @RequestBody TransactionStatus transactionStatus) {
@@ -5,10 +5,13 @@ import com.github.menglanyan.inventory_management.dtos.UserDTO;
 import com.github.menglanyan.inventory_management.entities.User;
 import com.github.menglanyan.inventory_management.services.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+
 @RestController
 @RequestMapping("/api/users")
 @RequiredArgsConstructor
@@ -39,8 +42,14 @@ public class UserController {
     }
 
     @GetMapping("/transactions/{userId}")
-    public ResponseEntity<Response> getUserTransactions(@PathVariable Long userId) {
-        return ResponseEntity.ok(userService.getUserTransactions(userId));
+    public ResponseEntity<Response> getUserTransactions(
+            @PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        return ResponseEntity.ok(userService.getUserTransactions(userId, from, to, page, size));
     }
 
     @GetMapping("/current")
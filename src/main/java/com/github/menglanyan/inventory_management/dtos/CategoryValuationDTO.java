@@ -0,0 +1,29 @@
+package com.github.menglanyan.inventory_management.dtos;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CategoryValuationDTO {
+
+    // Absent for products without a category
+    private Long categoryId;
+
+    private String categoryName;
+
+    // Σ price × stockQuantity of the category's products
+    private BigDecimal totalValue;
+
+    // Set by reconciliation where the running total differed from the recomputed one
+    private BigDecimal recomputedValue;
+
+}
@@ -32,6 +32,8 @@ public class ProductDTO {
 
     private Integer stockQuantity;
 
+    private Integer reorderThreshold;
+
     private String description;
 
     private LocalDateTime createdAt;
@@ -40,4 +42,6 @@ public class ProductDTO {
 
     private String imageUrl;
 
+    private Long changeSeq;
+
 }
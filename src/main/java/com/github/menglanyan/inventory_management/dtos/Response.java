@@ -5,6 +5,7 @@ import com.github.menglanyan.inventory_management.enums.UserRole;
 import lombok.Builder;
 import lombok.Data;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -30,6 +31,19 @@ public class Response {
 
     private Long totalElements;
 
+    // Opaque cursor for the next page in keyset pagination, absent on the last page
+    private String nextCursor;
+
+    // For catalog delta sync: the sequence number to pass as since next time, and whether more changes are waiting
+    private Long lastChangeSeq;
+
+    private Boolean hasMore;
+
+    private List<Long> deletedProductIds;
+
+    // For stock changes
+    private Integer stockQuantity;
+
     // Data output optional
     private UserDTO user;
     private List<UserDTO> users;
@@ -46,6 +60,24 @@ public class Response {
     private TransactionDTO transaction;
     private List<TransactionDTO> transactions;
 
+    private List<TransactionRollupDTO> monthlySummary;
+
+    private List<SalesAnalyticsDTO> salesAnalytics;
+
+    private TopSellersDTO topSellers;
+
+    private List<CategoryValuationDTO> categoryValuations;
+
+    private BigDecimal inventoryValue;
+
+    // For batch ingestion
+    private List<TransactionBatchResult> results;
+
+    // For response cache monitoring
+    private List<ResponseCacheStatsDTO> responseCacheStats;
+
+    private List<SecondLevelCacheStatsDTO> secondLevelCacheStats;
+
     private final LocalDateTime timestamp = LocalDateTime.now();
 
 }
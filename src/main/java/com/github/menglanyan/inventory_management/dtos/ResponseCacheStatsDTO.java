@@ -0,0 +1,33 @@
+package com.github.menglanyan.inventory_management.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.github.menglanyan.inventory_management.enums.CatalogAggregate;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ResponseCacheStatsDTO {
+
+    private CatalogAggregate aggregate;
+
+    // Current version of the aggregate, bumped by every committed write to it
+    private long version;
+
+    private long hits;
+
+    private long misses;
+
+    private double hitRate;
+
+    // Cached variants, including ones left over from older versions until they are evicted
+    private long entries;
+
+    private long bytes;
+
+}
@@ -0,0 +1,36 @@
+package com.github.menglanyan.inventory_management.dtos;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.github.menglanyan.inventory_management.enums.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SalesAnalyticsDTO {
+
+    // Set when grouped by day
+    private LocalDate day;
+
+    // Product, category or supplier; absent for transactions without one
+    private Long id;
+
+    private String name;
+
+    private TransactionType transactionType;
+
+    private long transactionCount;
+
+    private long units;
+
+    private BigDecimal revenue;
+
+}
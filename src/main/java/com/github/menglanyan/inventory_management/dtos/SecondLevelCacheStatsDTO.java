@@ -0,0 +1,27 @@
+package com.github.menglanyan.inventory_management.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SecondLevelCacheStatsDTO {
+
+    private String region;
+
+    // Every hit is a select the database did not have to run
+    private long hits;
+
+    private long misses;
+
+    private long puts;
+
+    private double hitRate;
+
+}
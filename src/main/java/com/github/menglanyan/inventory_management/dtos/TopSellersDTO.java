@@ -0,0 +1,45 @@
+package com.github.menglanyan.inventory_management.dtos;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.github.menglanyan.inventory_management.enums.SalesWindow;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class TopSellersDTO {
+
+    private SalesWindow window;
+
+    // Units sold in the window across all products
+    private long totalUnits;
+
+    // Any product that sold more than this is ranked; bounded by totalUnits / counters per bucket
+    private long maxError;
+
+    private List<Seller> sellers;
+
+    // True units sold are between minUnitsSold and unitsSold
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Data
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Seller {
+
+        private Long productId;
+
+        private String name;
+
+        private long unitsSold;
+
+        private long minUnitsSold;
+
+    }
+}
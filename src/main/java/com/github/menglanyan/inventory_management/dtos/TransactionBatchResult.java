@@ -0,0 +1,27 @@
+package com.github.menglanyan.inventory_management.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TransactionBatchResult {
+
+    // Position of the item in the submitted batch
+    private int index;
+
+    private int statusCode;
+
+    private String message;
+
+    private Long transactionId;
+
+    private Integer stockQuantity;
+
+}
@@ -1,6 +1,7 @@
 package com.github.menglanyan.inventory_management.dtos;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.github.menglanyan.inventory_management.enums.TransactionType;
 import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -24,4 +25,7 @@ public class TransactionRequest {
 
     private String note;
 
+    // Only used by batch ingestion, where one request mixes purchases, sales and returns
+    private TransactionType transactionType;
+
 }
@@ -0,0 +1,25 @@
+package com.github.menglanyan.inventory_management.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A named counter that used to hand out change sequence numbers under its row lock. Its last value is kept so
+// numbers from ProductChangeSet ids start above every number it handed out.
+@Entity
+@Table(name = "change_sequences")
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class ChangeSequence {
+
+    @Id
+    private String name;
+
+    @Column(name = "last_value", nullable = false)
+    private long lastValue;
+
+}
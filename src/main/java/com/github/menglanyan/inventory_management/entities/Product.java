@@ -8,12 +8,27 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "products")
+// Stock changes bypass the entity; ProductStockRepositoryImpl explains how they keep this cache correct
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "products")
+// Catalog keyset indexes, one per supported sort with and without the category filter. InnoDB appends the
+// primary key to every secondary index, which covers the id tie-breaker.
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_name", columnList = "name"),
+        @Index(name = "idx_products_price", columnList = "price"),
+        @Index(name = "idx_products_stock_quantity", columnList = "stock_quantity"),
+        @Index(name = "idx_products_category_name", columnList = "category_id, name"),
+        @Index(name = "idx_products_category_price", columnList = "category_id, price"),
+        @Index(name = "idx_products_category_stock_quantity", columnList = "category_id, stock_quantity"),
+        @Index(name = "idx_products_change_seq", columnList = "change_seq")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 @Data
@@ -38,6 +53,11 @@ public class Product {
     @Min(value = 0, message = "Stock quantity cannot be negative")
     private Integer stockQuantity;
 
+    // Stock level at or below which the product needs reordering; null when it is not watched
+    @Min(value = 0, message = "Reorder threshold cannot be negative")
+    @Column(name = "reorder_threshold")
+    private Integer reorderThreshold;
+
     private String description;
 
     private LocalDateTime expiryDate;
@@ -46,6 +66,10 @@ public class Product {
 
     private final LocalDateTime createdAt = LocalDateTime.now();
 
+    // Position of the latest change to this product in the catalog change sequence, assigned at commit
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+
     @ManyToOne
     @JoinColumn(name = "category_id")
     private Category category;
@@ -59,6 +83,7 @@ public class Product {
                 ", sku='" + sku + '\'' +
                 ", price=" + price +
                 ", stockQuantity=" + stockQuantity +
+                ", reorderThreshold=" + reorderThreshold +
                 ", description='" + description + '\'' +
                 ", expiryDate=" + expiryDate +
                 ", imageUrl='" + imageUrl + '\'' +
@@ -0,0 +1,29 @@
+package com.github.menglanyan.inventory_management.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// One row per committing transaction that changed products; its auto-increment id numbers the changes. Rows are
+// written just before commit and pruned once they can no longer hold back a sync.
+@Entity
+@Table(name = "product_change_sets", indexes = @Index(name = "idx_product_change_sets_created_at", columnList = "created_at"))
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class ProductChangeSet {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // UTC
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+}
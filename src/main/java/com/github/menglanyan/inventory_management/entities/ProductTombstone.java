@@ -0,0 +1,25 @@
+package com.github.menglanyan.inventory_management.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A deleted product, kept so syncing clients learn about the deletion at its place in the change sequence
+@Entity
+@Table(name = "product_tombstones", indexes = @Index(name = "idx_product_tombstones_change_seq", columnList = "change_seq"))
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class ProductTombstone {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+
+}
@@ -0,0 +1,34 @@
+package com.github.menglanyan.inventory_management.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// A logged-out or revoked token, stored as the 64-bit fingerprint of its id until the day it expires
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_expires_on", columnList = "expires_on"),
+        @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revoked_at")
+})
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class RevokedToken {
+
+    @Id
+    private Long fingerprint;
+
+    @Column(name = "expires_on", nullable = false)
+    private LocalDate expiresOn;
+
+    // UTC; read by the other instances' polls
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
+
+}
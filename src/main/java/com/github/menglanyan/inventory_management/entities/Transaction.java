@@ -12,7 +12,13 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_created_at", columnList = "created_at"),
+        @Index(name = "idx_transactions_user_created_at", columnList = "user_id, created_at"),
+        // Covers the sales analytics: status and date range seek, everything else is read from the index
+        @Index(name = "idx_transactions_status_created_at", columnList =
+                "status, created_at, transaction_type, product_id, supplier_id, total_products, total_price")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 @Data
@@ -0,0 +1,52 @@
+package com.github.menglanyan.inventory_management.entities;
+
+import com.github.menglanyan.inventory_management.enums.TransactionStatus;
+import com.github.menglanyan.inventory_management.enums.TransactionType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Pre-aggregated transaction totals per month, type, status and product, maintained by the transaction write paths
+@Entity
+@Table(name = "transaction_monthly_rollup", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_rollup_month_type_status_product",
+                columnNames = {"rollup_month", "transaction_type", "status", "product_id"})
+})
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class TransactionMonthlyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // First day of the month
+    @Column(name = "rollup_month", nullable = false)
+    private LocalDate rollupMonth;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transaction_type", nullable = false)
+    private TransactionType transactionType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransactionStatus status;
+
+    // 0 for transactions without a product: a NULL in the unique key never matches, so every upsert would add a row
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    private Long transactionCount;
+
+    private Long totalQuantity;
+
+    private BigDecimal totalValue;
+
+}
@@ -0,0 +1,6 @@
+package com.github.menglanyan.inventory_management.enums;
+
+// What sales analytics are grouped by, in addition to the transaction type
+public enum AnalyticsDimension {
+    DAY, PRODUCT, CATEGORY, SUPPLIER
+}
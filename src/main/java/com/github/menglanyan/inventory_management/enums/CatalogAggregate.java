@@ -0,0 +1,6 @@
+package com.github.menglanyan.inventory_management.enums;
+
+// Groups of catalog data that are versioned and cached together
+public enum CatalogAggregate {
+    CATEGORIES, SUPPLIERS, PRODUCTS
+}
@@ -0,0 +1,5 @@
+package com.github.menglanyan.inventory_management.enums;
+
+public enum ExportFormat {
+    NDJSON, CSV
+}
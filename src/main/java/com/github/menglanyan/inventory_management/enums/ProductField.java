@@ -0,0 +1,65 @@
+package com.github.menglanyan.inventory_management.enums;
+
+import com.github.menglanyan.inventory_management.exceptions.NameValueRequiredException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+// ProductDTO fields a list request can ask for with fields=, in ProductRow component order
+@Getter
+@RequiredArgsConstructor
+public enum ProductField {
+    ID("id", "id", Long.class),
+    CATEGORY_ID("categoryId", "category.id", Long.class),
+    NAME("name", "name", String.class),
+    SKU("sku", "sku", String.class),
+    PRICE("price", "price", BigDecimal.class),
+    STOCK_QUANTITY("stockQuantity", "stockQuantity", Integer.class),
+    REORDER_THRESHOLD("reorderThreshold", "reorderThreshold", Integer.class),
+    DESCRIPTION("description", "description", String.class),
+    CREATED_AT("createdAt", "createdAt", LocalDateTime.class),
+    EXPIRY_DATE("expiryDate", "expiryDate", LocalDateTime.class),
+    IMAGE_URL("imageUrl", "imageUrl", String.class),
+    CHANGE_SEQ("changeSeq", "changeSeq", Long.class);
+
+    public static final Set<ProductField> ALL = Collections.unmodifiableSet(EnumSet.allOf(ProductField.class));
+
+    // Name in ProductDTO and in the fields parameter
+    private final String property;
+
+    // Product attribute path the column is selected from
+    private final String attribute;
+
+    private final Class<?> type;
+
+    // Comma-separated DTO property names, or every field when absent; the id is always included
+    public static Set<ProductField> parse(String fields) {
+
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+
+        Set<ProductField> selected = EnumSet.of(ID);
+
+        for (String name : fields.split(",")) {
+            String property = name.trim();
+
+            if (property.isEmpty() || property.equals("productId")) {
+                continue;
+            }
+
+            selected.add(ALL.stream()
+                    .filter(field -> field.property.equals(property))
+                    .findFirst()
+                    .orElseThrow(() -> new NameValueRequiredException("Unknown product field: " + property)));
+        }
+
+        return selected;
+
+    }
+}
@@ -0,0 +1,13 @@
+package com.github.menglanyan.inventory_management.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum ProductSortField {
+    ID("id"), NAME("name"), PRICE("price"), STOCK("stockQuantity");
+
+    // Product attribute the catalog is ordered by, with id as the tie-breaker
+    private final String attribute;
+}
@@ -0,0 +1,16 @@
+package com.github.menglanyan.inventory_management.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// Sliding windows of the top sellers tracker: the current bucket plus the buckets before it, so a window covers
+// between (buckets - 1) and buckets whole bucket lengths
+@Getter
+@RequiredArgsConstructor
+public enum SalesWindow {
+    HOUR(60_000L, 60), DAY(3_600_000L, 24), WEEK(3_600_000L, 168);
+
+    private final long bucketMillis;
+
+    private final int buckets;
+}
@@ -0,0 +1,59 @@
+package com.github.menglanyan.inventory_management.enums;
+
+import com.github.menglanyan.inventory_management.exceptions.NameValueRequiredException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+// TransactionDTO fields a list request can ask for with fields=, in TransactionRow component order
+@Getter
+@RequiredArgsConstructor
+public enum TransactionField {
+    ID("id", Long.class),
+    TOTAL_PRODUCTS("totalProducts", Integer.class),
+    TOTAL_PRICE("totalPrice", BigDecimal.class),
+    TRANSACTION_TYPE("transactionType", TransactionType.class),
+    STATUS("status", TransactionStatus.class),
+    DESCRIPTION("description", String.class),
+    NOTE("note", String.class),
+    CREATED_AT("createdAt", LocalDateTime.class),
+    UPDATED_AT("updatedAt", LocalDateTime.class);
+
+    public static final Set<TransactionField> ALL = Collections.unmodifiableSet(EnumSet.allOf(TransactionField.class));
+
+    // Name in TransactionDTO, in the fields parameter and on the Transaction entity
+    private final String property;
+
+    private final Class<?> type;
+
+    // Comma-separated DTO property names, or every field when absent; the id is always included
+    public static Set<TransactionField> parse(String fields) {
+
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+
+        Set<TransactionField> selected = EnumSet.of(ID);
+
+        for (String name : fields.split(",")) {
+            String property = name.trim();
+
+            if (property.isEmpty()) {
+                continue;
+            }
+
+            selected.add(ALL.stream()
+                    .filter(field -> field.property.equals(property))
+                    .findFirst()
+                    .orElseThrow(() -> new NameValueRequiredException("Unknown transaction field: " + property)));
+        }
+
+        return selected;
+
+    }
+}
@@ -0,0 +1,5 @@
+package com.github.menglanyan.inventory_management.events;
+
+// Published inside the write transaction when a category is deleted
+public record CategoryDeletedEvent(Long categoryId) {
+}
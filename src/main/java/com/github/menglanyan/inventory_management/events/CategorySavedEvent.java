@@ -0,0 +1,7 @@
+package com.github.menglanyan.inventory_management.events;
+
+import com.github.menglanyan.inventory_management.entities.Category;
+
+// Published inside the write transaction when a category is updated
+public record CategorySavedEvent(Category category) {
+}
@@ -0,0 +1,8 @@
+package com.github.menglanyan.inventory_management.events;
+
+import com.github.menglanyan.inventory_management.stream.LowStockItem;
+
+// Published after commit when a product drops to its reorder threshold (low) or is restocked above it (not low).
+// Listen with @EventListener to hook up further notification channels.
+public record LowStockAlertEvent(LowStockItem product, boolean low) {
+}
@@ -0,0 +1,5 @@
+package com.github.menglanyan.inventory_management.events;
+
+// Published inside the write transaction when a product is deleted
+public record ProductDeletedEvent(Long productId) {
+}
@@ -0,0 +1,7 @@
+package com.github.menglanyan.inventory_management.events;
+
+import com.github.menglanyan.inventory_management.entities.Product;
+
+// Published inside the write transaction when a product is created or updated
+public record ProductSavedEvent(Product product) {
+}
@@ -0,0 +1,8 @@
+package com.github.menglanyan.inventory_management.events;
+
+import com.github.menglanyan.inventory_management.entities.Product;
+
+// Published inside the write transaction when a product's stock changes by delta. The product carries the
+// final quantity and change sequence number by the time after-commit listeners read it.
+public record StockChangedEvent(Product product, int delta) {
+}
@@ -0,0 +1,5 @@
+package com.github.menglanyan.inventory_management.events;
+
+// Published inside the write transaction when a supplier is deleted
+public record SupplierDeletedEvent(Long supplierId) {
+}
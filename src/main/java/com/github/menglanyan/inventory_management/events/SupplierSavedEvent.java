@@ -0,0 +1,7 @@
+package com.github.menglanyan.inventory_management.events;
+
+import com.github.menglanyan.inventory_management.entities.Supplier;
+
+// Published inside the write transaction when a supplier is updated
+public record SupplierSavedEvent(Supplier supplier) {
+}
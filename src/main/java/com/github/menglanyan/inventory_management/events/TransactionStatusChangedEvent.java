@@ -0,0 +1,7 @@
+package com.github.menglanyan.inventory_management.events;
+
+import com.github.menglanyan.inventory_management.enums.TransactionStatus;
+
+public record TransactionStatusChangedEvent(Long transactionId, TransactionStatus previousStatus,
+                                            TransactionStatus status) {
+}
@@ -0,0 +1,9 @@
+package com.github.menglanyan.inventory_management.events;
+
+import com.github.menglanyan.inventory_management.entities.Transaction;
+
+import java.util.List;
+
+// Published inside the write transaction once new transactions are saved; their product, user and supplier are loaded
+public record TransactionsRecordedEvent(List<Transaction> transactions) {
+}
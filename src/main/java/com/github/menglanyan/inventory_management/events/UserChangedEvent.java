@@ -0,0 +1,5 @@
+package com.github.menglanyan.inventory_management.events;
+
+// Published inside the write transaction when the user known by this email is updated or deleted
+public record UserChangedEvent(String email) {
+}
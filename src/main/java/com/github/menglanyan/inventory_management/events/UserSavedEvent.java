@@ -0,0 +1,8 @@
+package com.github.menglanyan.inventory_management.events;
+
+import com.github.menglanyan.inventory_management.entities.User;
+
+// Published inside the write transaction when a user is updated, with its new state; UserChangedEvent names the
+// email whose cached credentials are stale
+public record UserSavedEvent(User user) {
+}
@@ -48,4 +48,14 @@ public class GlobalExceptionHandler {
 
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
+
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<Response> handleInsufficientStockException(Exception ex) {
+        Response response = Response.builder()
+                .statusCode(HttpStatus.CONFLICT.value())    // 409
+                .message(ex.getMessage())
+                .build();
+
+        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
 }
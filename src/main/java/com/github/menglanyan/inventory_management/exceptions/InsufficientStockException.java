@@ -0,0 +1,7 @@
+package com.github.menglanyan.inventory_management.exceptions;
+
+public class InsufficientStockException extends RuntimeException{
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,46 @@
+package com.github.menglanyan.inventory_management.mappers;
+
+import com.github.menglanyan.inventory_management.dtos.CategoryDTO;
+import com.github.menglanyan.inventory_management.entities.Category;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class CategoryMapper {
+
+    private CategoryMapper() {
+    }
+
+    // Without products, so the lazy products collection is never loaded
+    public static CategoryDTO toShallowDTO(Category category) {
+        return new CategoryDTO(category.getId(), category.getName(), null);
+    }
+
+    public static List<CategoryDTO> toShallowDTOs(List<Category> categories) {
+
+        List<CategoryDTO> categoryDTOs = new ArrayList<>(categories.size());
+
+        for (Category category : categories) {
+            categoryDTOs.add(toShallowDTO(category));
+        }
+
+        return categoryDTOs;
+    }
+
+    public static CategoryDTO toDTOWithProducts(Category category) {
+
+        CategoryDTO categoryDTO = toShallowDTO(category);
+
+        if (category.getProducts() != null) {
+            categoryDTO.setProducts(ProductMapper.toDTOs(category.getProducts()));
+        }
+
+        return categoryDTO;
+    }
+
+    public static Category toEntity(CategoryDTO categoryDTO) {
+        return Category.builder()
+                .name(categoryDTO.getName())
+                .build();
+    }
+}
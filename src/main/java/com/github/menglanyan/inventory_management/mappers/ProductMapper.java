@@ -0,0 +1,110 @@
+package com.github.menglanyan.inventory_management.mappers;
+
+import com.github.menglanyan.inventory_management.dtos.ProductDTO;
+import com.github.menglanyan.inventory_management.entities.Product;
+import com.github.menglanyan.inventory_management.enums.ProductField;
+import com.github.menglanyan.inventory_management.repositories.ProductRow;
+import com.github.menglanyan.inventory_management.stream.LowStockItem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+public final class ProductMapper {
+
+    private ProductMapper() {
+    }
+
+    // Category is referenced by id only, so a lazy category proxy is never initialized
+    public static ProductDTO toDTO(Product product) {
+
+        ProductDTO productDTO = new ProductDTO();
+
+        productDTO.setId(product.getId());
+        productDTO.setProductId(product.getId());
+        productDTO.setCategoryId(product.getCategory() != null ? product.getCategory().getId() : null);
+        productDTO.setName(product.getName());
+        productDTO.setSku(product.getSku());
+        productDTO.setPrice(product.getPrice());
+        productDTO.setStockQuantity(product.getStockQuantity());
+        productDTO.setReorderThreshold(product.getReorderThreshold());
+        productDTO.setDescription(product.getDescription());
+        productDTO.setCreatedAt(product.getCreatedAt());
+        productDTO.setExpiryDate(product.getExpiryDate());
+        productDTO.setImageUrl(product.getImageUrl());
+        productDTO.setChangeSeq(product.getChangeSeq());
+
+        return productDTO;
+    }
+
+    public static List<ProductDTO> toDTOs(List<Product> products) {
+
+        List<ProductDTO> productDTOs = new ArrayList<>(products.size());
+
+        for (Product product : products) {
+            productDTOs.add(toDTO(product));
+        }
+
+        return productDTOs;
+    }
+
+    // Sparse view: only the requested fields, so everything else is left out of the JSON
+    public static ProductDTO toDTO(ProductRow row, Set<ProductField> fields) {
+
+        ProductDTO productDTO = new ProductDTO();
+
+        productDTO.setId(row.id());
+
+        for (ProductField field : fields) {
+            switch (field) {
+                case ID -> productDTO.setId(row.id());
+                case CATEGORY_ID -> productDTO.setCategoryId(row.categoryId());
+                case NAME -> productDTO.setName(row.name());
+                case SKU -> productDTO.setSku(row.sku());
+                case PRICE -> productDTO.setPrice(row.price());
+                case STOCK_QUANTITY -> productDTO.setStockQuantity(row.stockQuantity());
+                case REORDER_THRESHOLD -> productDTO.setReorderThreshold(row.reorderThreshold());
+                case DESCRIPTION -> productDTO.setDescription(row.description());
+                case CREATED_AT -> productDTO.setCreatedAt(row.createdAt());
+                case EXPIRY_DATE -> productDTO.setExpiryDate(row.expiryDate());
+                case IMAGE_URL -> productDTO.setImageUrl(row.imageUrl());
+                case CHANGE_SEQ -> productDTO.setChangeSeq(row.changeSeq());
+            }
+        }
+
+        return productDTO;
+    }
+
+    public static List<ProductDTO> toDTOs(List<ProductRow> rows, Set<ProductField> fields) {
+
+        List<ProductDTO> productDTOs = new ArrayList<>(rows.size());
+
+        for (ProductRow row : rows) {
+            productDTOs.add(toDTO(row, fields));
+        }
+
+        return productDTOs;
+    }
+
+    public static List<ProductDTO> toLowStockDTOs(List<LowStockItem> items) {
+
+        List<ProductDTO> productDTOs = new ArrayList<>(items.size());
+
+        for (LowStockItem item : items) {
+            ProductDTO productDTO = new ProductDTO();
+
+            productDTO.setId(item.productId());
+            productDTO.setProductId(item.productId());
+            productDTO.setCategoryId(item.categoryId());
+            productDTO.setName(item.name());
+            productDTO.setSku(item.sku());
+            productDTO.setStockQuantity(item.stockQuantity());
+            productDTO.setReorderThreshold(item.reorderThreshold());
+            productDTO.setChangeSeq(item.changeSeq());
+
+            productDTOs.add(productDTO);
+        }
+
+        return productDTOs;
+    }
+}
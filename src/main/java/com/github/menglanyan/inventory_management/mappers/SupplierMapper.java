@@ -0,0 +1,36 @@
+package com.github.menglanyan.inventory_management.mappers;
+
+import com.github.menglanyan.inventory_management.dtos.SupplierDTO;
+import com.github.menglanyan.inventory_management.entities.Supplier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class SupplierMapper {
+
+    private SupplierMapper() {
+    }
+
+    public static SupplierDTO toDTO(Supplier supplier) {
+        return new SupplierDTO(supplier.getId(), supplier.getName(), supplier.getContactInfo(), supplier.getAddress());
+    }
+
+    public static List<SupplierDTO> toDTOs(List<Supplier> suppliers) {
+
+        List<SupplierDTO> supplierDTOs = new ArrayList<>(suppliers.size());
+
+        for (Supplier supplier : suppliers) {
+            supplierDTOs.add(toDTO(supplier));
+        }
+
+        return supplierDTOs;
+    }
+
+    public static Supplier toEntity(SupplierDTO supplierDTO) {
+        return Supplier.builder()
+                .name(supplierDTO.getName())
+                .contactInfo(supplierDTO.getContactInfo())
+                .address(supplierDTO.getAddress())
+                .build();
+    }
+}
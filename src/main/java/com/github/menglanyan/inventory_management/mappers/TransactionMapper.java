@@ -0,0 +1,94 @@
+package com.github.menglanyan.inventory_management.mappers;
+
+import com.github.menglanyan.inventory_management.dtos.TransactionDTO;
+import com.github.menglanyan.inventory_management.entities.Transaction;
+import com.github.menglanyan.inventory_management.repositories.TransactionRow;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class TransactionMapper {
+
+    private TransactionMapper() {
+    }
+
+    // Own columns only; product, user and supplier are never touched, so no lazy association is loaded
+    public static TransactionDTO toShallowDTO(Transaction transaction) {
+
+        TransactionDTO transactionDTO = new TransactionDTO();
+
+        transactionDTO.setId(transaction.getId());
+        transactionDTO.setTotalProducts(transaction.getTotalProducts());
+        transactionDTO.setTotalPrice(transaction.getTotalPrice());
+        transactionDTO.setTransactionType(transaction.getTransactionType());
+        transactionDTO.setStatus(transaction.getStatus());
+        transactionDTO.setDescription(transaction.getDescription());
+        transactionDTO.setNote(transaction.getNote());
+        transactionDTO.setCreatedAt(transaction.getCreatedAt());
+        transactionDTO.setUpdatedAt(transaction.getUpdatedAt());
+
+        return transactionDTO;
+    }
+
+    public static List<TransactionDTO> toShallowDTOs(List<Transaction> transactions) {
+
+        List<TransactionDTO> transactionDTOs = new ArrayList<>(transactions.size());
+
+        for (Transaction transaction : transactions) {
+            transactionDTOs.add(toShallowDTO(transaction));
+        }
+
+        return transactionDTOs;
+    }
+
+    public static TransactionDTO toDTO(TransactionRow row) {
+
+        TransactionDTO transactionDTO = new TransactionDTO();
+
+        transactionDTO.setId(row.id());
+        transactionDTO.setTotalProducts(row.totalProducts());
+        transactionDTO.setTotalPrice(row.totalPrice());
+        transactionDTO.setTransactionType(row.transactionType());
+        transactionDTO.setStatus(row.status());
+        transactionDTO.setDescription(row.description());
+        transactionDTO.setNote(row.note());
+        transactionDTO.setCreatedAt(row.createdAt());
+        transactionDTO.setUpdatedAt(row.updatedAt());
+
+        return transactionDTO;
+    }
+
+    public static List<TransactionDTO> toDTOs(List<TransactionRow> rows) {
+
+        List<TransactionDTO> transactionDTOs = new ArrayList<>(rows.size());
+
+        for (TransactionRow row : rows) {
+            transactionDTOs.add(toDTO(row));
+        }
+
+        return transactionDTOs;
+    }
+
+    public static TransactionDTO toDTOWithProduct(Transaction transaction) {
+
+        TransactionDTO transactionDTO = toShallowDTO(transaction);
+
+        if (transaction.getProduct() != null) {
+            transactionDTO.setProduct(ProductMapper.toDTO(transaction.getProduct()));
+        }
+
+        return transactionDTO;
+    }
+
+    // Detail view: product and supplier, but not the user
+    public static TransactionDTO toDetailDTO(Transaction transaction) {
+
+        TransactionDTO transactionDTO = toDTOWithProduct(transaction);
+
+        if (transaction.getSupplier() != null) {
+            transactionDTO.setSupplier(SupplierMapper.toDTO(transaction.getSupplier()));
+        }
+
+        return transactionDTO;
+    }
+}
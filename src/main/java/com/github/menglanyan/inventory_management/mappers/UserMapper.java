@@ -0,0 +1,39 @@
+package com.github.menglanyan.inventory_management.mappers;
+
+import com.github.menglanyan.inventory_management.dtos.UserDTO;
+import com.github.menglanyan.inventory_management.entities.User;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class UserMapper {
+
+    private UserMapper() {
+    }
+
+    // Without transactions or the password hash
+    public static UserDTO toShallowDTO(User user) {
+
+        UserDTO userDTO = new UserDTO();
+
+        userDTO.setId(user.getId());
+        userDTO.setName(user.getName());
+        userDTO.setEmail(user.getEmail());
+        userDTO.setPhoneNumber(user.getPhoneNumber());
+        userDTO.setRole(user.getRole());
+        userDTO.setCreatedAt(user.getCreatedAt());
+
+        return userDTO;
+    }
+
+    public static List<UserDTO> toShallowDTOs(List<User> users) {
+
+        List<UserDTO> userDTOs = new ArrayList<>(users.size());
+
+        for (User user : users) {
+            userDTOs.add(toShallowDTO(user));
+        }
+
+        return userDTOs;
+    }
+}
@@ -0,0 +1,7 @@
+package com.github.menglanyan.inventory_management.repositories;
+
+import java.math.BigDecimal;
+
+// Σ price × stock of one category's products; the category id is null for products without one
+public record CategoryValue(Long categoryId, BigDecimal value) {
+}
@@ -0,0 +1,18 @@
+package com.github.menglanyan.inventory_management.repositories;
+
+import com.github.menglanyan.inventory_management.enums.ProductSortField;
+import org.springframework.data.domain.Sort;
+
+// One keyset page of the catalog: optional filters, the ordering, and the position of the last row already returned.
+// afterId is null on the first page; afterValue is that row's sort value and may itself be null.
+public record ProductCatalogQuery(
+        Long categoryId,
+        Integer minStock,
+        Integer maxStock,
+        ProductSortField sortField,
+        Sort.Direction direction,
+        Object afterValue,
+        Long afterId,
+        int limit
+) {
+}
@@ -0,0 +1,16 @@
+package com.github.menglanyan.inventory_management.repositories;
+
+import com.github.menglanyan.inventory_management.entities.Product;
+import com.github.menglanyan.inventory_management.enums.ProductField;
+
+import java.util.List;
+import java.util.Set;
+
+public interface ProductCatalogRepository {
+
+    // Products of one catalog page with their category fetched in the same select
+    List<Product> findCatalogPage(ProductCatalogQuery catalogQuery);
+
+    // The same page as scalar rows holding only the given fields, plus the id and the sort column for the cursor
+    List<ProductRow> findCatalogRows(ProductCatalogQuery catalogQuery, Set<ProductField> fields);
+}
@@ -0,0 +1,142 @@
+package com.github.menglanyan.inventory_management.repositories;
+
+import com.github.menglanyan.inventory_management.entities.Product;
+import com.github.menglanyan.inventory_management.enums.ProductField;
+import com.github.menglanyan.inventory_management.enums.ProductSortField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+@RequiredArgsConstructor
+class ProductCatalogRepositoryImpl implements ProductCatalogRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Product> findCatalogPage(ProductCatalogQuery catalogQuery) {
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Product> query = criteriaBuilder.createQuery(Product.class);
+        Root<Product> root = query.from(Product.class);
+
+        // Category is an eager association; fetching it here avoids a select per distinct category
+        root.fetch("category", JoinType.LEFT);
+
+        return page(catalogQuery, query, root, criteriaBuilder);
+    }
+
+    @Override
+    public List<ProductRow> findCatalogRows(ProductCatalogQuery catalogQuery, Set<ProductField> fields) {
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductRow> query = criteriaBuilder.createQuery(ProductRow.class);
+        Root<Product> root = query.from(Product.class);
+
+        String sortAttribute = catalogQuery.sortField().getAttribute();
+        List<Selection<?>> selections = new ArrayList<>();
+
+        // Unrequested columns are selected as NULL literals, so the database never sends them.
+        // category.id is the foreign key column and needs no join.
+        for (ProductField field : ProductField.values()) {
+            boolean selected = fields.contains(field) || field == ProductField.ID
+                    || field.getAttribute().equals(sortAttribute);
+
+            selections.add(selected ? path(root, field.getAttribute()) : criteriaBuilder.nullLiteral(field.getType()));
+        }
+
+        query.select(criteriaBuilder.construct(ProductRow.class, selections.toArray(new Selection<?>[0])));
+
+        return page(catalogQuery, query, root, criteriaBuilder);
+    }
+
+    private <T> List<T> page(ProductCatalogQuery catalogQuery, CriteriaQuery<T> query, Root<Product> root,
+                             CriteriaBuilder criteriaBuilder) {
+
+        List<Predicate> predicates = new ArrayList<>();
+
+        if (catalogQuery.categoryId() != null) {
+            predicates.add(criteriaBuilder.equal(root.get("category").get("id"), catalogQuery.categoryId()));
+        }
+
+        if (catalogQuery.minStock() != null) {
+            predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("stockQuantity"), catalogQuery.minStock()));
+        }
+
+        if (catalogQuery.maxStock() != null) {
+            predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("stockQuantity"), catalogQuery.maxStock()));
+        }
+
+        boolean ascending = catalogQuery.direction().isAscending();
+        Expression<Long> id = root.get("id");
+
+        if (catalogQuery.afterId() != null) {
+            predicates.add(catalogQuery.sortField() == ProductSortField.ID
+                    ? afterId(criteriaBuilder, id, catalogQuery.afterId(), ascending)
+                    : afterPosition(criteriaBuilder, root.get(catalogQuery.sortField().getAttribute()), id,
+                    catalogQuery.afterValue(), catalogQuery.afterId(), ascending));
+        }
+
+        query.where(predicates.toArray(new Predicate[0]));
+
+        if (catalogQuery.sortField() == ProductSortField.ID) {
+            query.orderBy(ascending ? criteriaBuilder.asc(id) : criteriaBuilder.desc(id));
+        } else {
+            Expression<?> sortValue = root.get(catalogQuery.sortField().getAttribute());
+            query.orderBy(ascending
+                    ? List.of(criteriaBuilder.asc(sortValue), criteriaBuilder.asc(id))
+                    : List.of(criteriaBuilder.desc(sortValue), criteriaBuilder.desc(id)));
+        }
+
+        return entityManager.createQuery(query)
+                .setMaxResults(catalogQuery.limit())
+                .getResultList();
+    }
+
+    private static Path<?> path(Root<Product> root, String attribute) {
+
+        Path<?> path = root;
+
+        for (String part : attribute.split("\\.")) {
+            path = path.get(part);
+        }
+
+        return path;
+    }
+
+    private Predicate afterId(CriteriaBuilder criteriaBuilder, Expression<Long> id, Long afterId, boolean ascending) {
+        return ascending ? criteriaBuilder.greaterThan(id, afterId) : criteriaBuilder.lessThan(id, afterId);
+    }
+
+    // Rows strictly after (value, id) in the page order. NULLs sort lowest, as in MySQL: first ascending, last descending.
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate afterPosition(CriteriaBuilder criteriaBuilder, Expression column, Expression<Long> id,
+                                    Object afterValue, Long afterId, boolean ascending) {
+
+        Predicate sameValueLaterId = afterValue == null
+                ? criteriaBuilder.and(criteriaBuilder.isNull(column), afterId(criteriaBuilder, id, afterId, ascending))
+                : criteriaBuilder.and(criteriaBuilder.equal(column, afterValue),
+                afterId(criteriaBuilder, id, afterId, ascending));
+
+        if (ascending) {
+            return afterValue == null
+                    ? criteriaBuilder.or(sameValueLaterId, criteriaBuilder.isNotNull(column))
+                    : criteriaBuilder.or(criteriaBuilder.greaterThan(column, (Comparable) afterValue), sameValueLaterId);
+        }
+
+        return afterValue == null
+                ? sameValueLaterId
+                : criteriaBuilder.or(criteriaBuilder.lessThan(column, (Comparable) afterValue), sameValueLaterId,
+                criteriaBuilder.isNull(column));
+    }
+}
@@ -0,0 +1,23 @@
+package com.github.menglanyan.inventory_management.repositories;
+
+import com.github.menglanyan.inventory_management.entities.ProductChangeSet;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ProductChangeSetRepository extends JpaRepository<ProductChangeSet, Long> {
+
+    @Query("SELECT MAX(s.id) FROM ProductChangeSet s WHERE s.createdAt <= :createdAt")
+    Long findMaxIdCreatedAtOrBefore(LocalDateTime createdAt);
+
+    @Query("SELECT s.id FROM ProductChangeSet s WHERE s.id > :id ORDER BY s.id")
+    List<Long> findIdsAfter(long id, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM ProductChangeSet s WHERE s.id < :id")
+    int deleteBelow(long id);
+}
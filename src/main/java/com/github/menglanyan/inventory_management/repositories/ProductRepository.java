@@ -1,10 +1,56 @@
 package com.github.menglanyan.inventory_management.repositories;
 
 import com.github.menglanyan.inventory_management.entities.Product;
+import com.github.menglanyan.inventory_management.search.ProductSearchRow;
+import com.github.menglanyan.inventory_management.stream.LowStockItem;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductCatalogRepository,
+        ProductStockRepository {
     List<Product> findByNameContainingOrDescriptionContaining(String name, String description);
+
+    // Locks the row until commit, for edits that read the current stock and then overwrite it, so a concurrent
+    // adjustStock waits instead of being lost
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> findByIdForUpdate(@Param("id") Long id);
+
+    // A category's products, locked until commit in id order, for removing them along with the category
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.category.id = :categoryId ORDER BY p.id")
+    List<Product> findByCategoryIdForUpdate(@Param("categoryId") Long categoryId);
+
+    // Searchable columns of every product, for building the in-memory search index
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.github.menglanyan.inventory_management.search.ProductSearchRow(p.id, p.name, p.sku, p.description) " +
+            "FROM Product p")
+    Stream<ProductSearchRow> streamSearchRows();
+
+    // Products changed after one sequence number up to another, oldest change first, with their category
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category " +
+            "WHERE p.changeSeq > :after AND p.changeSeq <= :upTo ORDER BY p.changeSeq")
+    List<Product> findChangedBetween(@Param("after") long after, @Param("upTo") long upTo, Limit limit);
+
+    // Full recomputation of the inventory valuation, for loading and reconciling the running totals
+    @Query("SELECT new com.github.menglanyan.inventory_management.repositories.CategoryValue(" +
+            "c.id, SUM(p.price * p.stockQuantity)) FROM Product p LEFT JOIN p.category c GROUP BY c.id")
+    List<CategoryValue> sumValueByCategory();
+
+    // Products at or below their reorder threshold, for loading the in-memory low-stock set
+    @Query("SELECT new com.github.menglanyan.inventory_management.stream.LowStockItem(p.id, p.name, p.sku, c.id, " +
+            "p.stockQuantity, p.reorderThreshold, p.changeSeq) FROM Product p LEFT JOIN p.category c " +
+            "WHERE p.reorderThreshold IS NOT NULL AND p.stockQuantity <= p.reorderThreshold")
+    List<LowStockItem> findLowStock();
 }
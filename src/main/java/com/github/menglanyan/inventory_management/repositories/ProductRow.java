@@ -0,0 +1,21 @@
+package com.github.menglanyan.inventory_management.repositories;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// The scalar columns of a product for sparse catalog lists; columns that were not selected are null
+public record ProductRow(
+        Long id,
+        Long categoryId,
+        String name,
+        String sku,
+        BigDecimal price,
+        Integer stockQuantity,
+        Integer reorderThreshold,
+        String description,
+        LocalDateTime createdAt,
+        LocalDateTime expiryDate,
+        String imageUrl,
+        Long changeSeq
+) {
+}
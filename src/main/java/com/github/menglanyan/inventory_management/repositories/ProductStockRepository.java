@@ -0,0 +1,11 @@
+package com.github.menglanyan.inventory_management.repositories;
+
+import org.springframework.transaction.annotation.Transactional;
+
+public interface ProductStockRepository {
+
+    // Apply a stock delta in a single conditional UPDATE, so concurrent writers never lose updates.
+    // Returns 0 when the product does not exist or the delta would take stock below zero.
+    @Transactional
+    int adjustStock(Long productId, int delta);
+}
@@ -0,0 +1,69 @@
+package com.github.menglanyan.inventory_management.repositories;
+
+import com.github.menglanyan.inventory_management.entities.Product;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// The conditional UPDATE is native and names a query space of its own: Hibernate answers an HQL bulk UPDATE, or a
+// native one without query spaces, by evicting the whole products cache region. Only this product's entry is
+// evicted instead.
+@RequiredArgsConstructor
+class ProductStockRepositoryImpl implements ProductStockRepository {
+
+    // Matches no entity or query cache region
+    private static final String STOCK_QUERY_SPACE = "product_stock";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public int adjustStock(Long productId, int delta) {
+
+        // Pending changes must reach the row first, the refresh below would discard them
+        entityManager.flush();
+
+        int updated = entityManager.createNativeQuery(
+                        "UPDATE products SET stock_quantity = stock_quantity + :delta " +
+                                "WHERE id = :productId AND stock_quantity + :delta >= 0")
+                .setParameter("delta", delta)
+                .setParameter("productId", productId)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(STOCK_QUERY_SPACE)
+                .executeUpdate();
+
+        if (updated == 0) {
+            return 0;
+        }
+
+        evict(productId);
+
+        // A loaded copy would otherwise be flushed back over the new quantity; an uninitialized proxy loads it fresh
+        Product product = entityManager.getReference(Product.class, productId);
+
+        if (Hibernate.isInitialized(product)) {
+            entityManager.refresh(product);
+        }
+
+        return 1;
+
+    }
+
+    // Evicted again once the transaction ends: until then other transactions still read, and may cache, the old row
+    private void evict(Long productId) {
+
+        entityManager.getEntityManagerFactory().getCache().evict(Product.class, productId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    entityManager.getEntityManagerFactory().getCache().evict(Product.class, productId);
+                }
+            });
+        }
+
+    }
+}
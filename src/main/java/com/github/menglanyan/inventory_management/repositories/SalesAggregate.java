@@ -0,0 +1,28 @@
+package com.github.menglanyan.inventory_management.repositories;
+
+import com.github.menglanyan.inventory_management.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// One GROUP BY row of the sales analytics: either a day or an id/name key, per transaction type
+public record SalesAggregate(
+        LocalDate day,
+        Long id,
+        String name,
+        TransactionType transactionType,
+        Long transactionCount,
+        Long units,
+        BigDecimal revenue
+) {
+
+    public SalesAggregate(LocalDate day, TransactionType transactionType, Long transactionCount, Long units,
+                          BigDecimal revenue) {
+        this(day, null, null, transactionType, transactionCount, units, revenue);
+    }
+
+    public SalesAggregate(Long id, String name, TransactionType transactionType, Long transactionCount, Long units,
+                          BigDecimal revenue) {
+        this(null, id, name, transactionType, transactionCount, units, revenue);
+    }
+}
@@ -1,7 +1,18 @@
 package com.github.menglanyan.inventory_management.repositories;
 
 import com.github.menglanyan.inventory_management.entities.Supplier;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
 
 public interface SupplierRepository extends JpaRepository<Supplier, Long> {
+
+    // Served from the query cache until a supplier is written
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Supplier> findAll(Sort sort);
 }
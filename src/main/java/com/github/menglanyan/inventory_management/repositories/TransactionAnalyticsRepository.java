@@ -0,0 +1,14 @@
+package com.github.menglanyan.inventory_management.repositories;
+
+import com.github.menglanyan.inventory_management.enums.AnalyticsDimension;
+import com.github.menglanyan.inventory_management.enums.TransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// GROUP BY aggregation of transactions created in [from, to) with the given status
+public interface TransactionAnalyticsRepository {
+
+    List<SalesAggregate> aggregateSales(AnalyticsDimension dimension, TransactionStatus status, LocalDateTime from,
+                                        LocalDateTime to);
+}
@@ -0,0 +1,47 @@
+package com.github.menglanyan.inventory_management.repositories;
+
+import com.github.menglanyan.inventory_management.enums.AnalyticsDimension;
+import com.github.menglanyan.inventory_management.enums.TransactionStatus;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+class TransactionAnalyticsRepositoryImpl implements TransactionAnalyticsRepository {
+
+    private static final String AGGREGATES = "t.transactionType, COUNT(t), SUM(t.totalProducts), SUM(t.totalPrice)) " +
+            "FROM Transaction t ";
+
+    // Served from idx_transactions_status_created_at; the product and category joins are primary key lookups
+    private static final String RANGE = "WHERE t.status = :status AND t.createdAt >= :from AND t.createdAt < :to ";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<SalesAggregate> aggregateSales(AnalyticsDimension dimension, TransactionStatus status,
+                                               LocalDateTime from, LocalDateTime to) {
+
+        String select = "SELECT new com.github.menglanyan.inventory_management.repositories.SalesAggregate(";
+
+        // Left joins keep transactions without a product, category or supplier as a null key
+        String jpql = switch (dimension) {
+            case DAY -> select + "cast(t.createdAt as LocalDate), " + AGGREGATES + RANGE +
+                    "GROUP BY cast(t.createdAt as LocalDate), t.transactionType " +
+                    "ORDER BY cast(t.createdAt as LocalDate), t.transactionType";
+            case PRODUCT -> select + "p.id, p.name, " + AGGREGATES + "LEFT JOIN t.product p " + RANGE +
+                    "GROUP BY p.id, p.name, t.transactionType ORDER BY p.id, t.transactionType";
+            case CATEGORY -> select + "c.id, c.name, " + AGGREGATES + "LEFT JOIN t.product p LEFT JOIN p.category c " +
+                    RANGE + "GROUP BY c.id, c.name, t.transactionType ORDER BY c.id, t.transactionType";
+            case SUPPLIER -> select + "s.id, s.name, " + AGGREGATES + "LEFT JOIN t.supplier s " + RANGE +
+                    "GROUP BY s.id, s.name, t.transactionType ORDER BY s.id, t.transactionType";
+        };
+
+        return entityManager.createQuery(jpql, SalesAggregate.class)
+                .setParameter("status", status)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultList();
+    }
+}
@@ -0,0 +1,78 @@
+package com.github.menglanyan.inventory_management.repositories;
+
+import com.github.menglanyan.inventory_management.entities.Transaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+
+// Writes transactions as one JDBC batch. Hibernate cannot batch inserts for IDENTITY ids,
+// so this path goes to JDBC directly and reads the generated ids back from the batch.
+@Repository
+@RequiredArgsConstructor
+public class TransactionBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO transactions " +
+            "(total_products, total_price, transaction_type, status, description, note, " +
+            "created_at, product_id, user_id, supplier_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Inserts all transactions in a single batch and assigns the generated ids back to them
+    public void insertAll(List<Transaction> transactions) {
+
+        if (transactions.isEmpty()) {
+            return;
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Transaction transaction = transactions.get(i);
+
+                        ps.setInt(1, transaction.getTotalProducts());
+                        ps.setBigDecimal(2, transaction.getTotalPrice());
+                        ps.setString(3, transaction.getTransactionType().name());
+                        ps.setString(4, transaction.getStatus().name());
+                        ps.setString(5, transaction.getDescription());
+                        ps.setString(6, transaction.getNote());
+                        ps.setTimestamp(7, Timestamp.valueOf(transaction.getCreatedAt()));
+                        ps.setLong(8, transaction.getProduct().getId());
+                        ps.setLong(9, transaction.getUser().getId());
+
+                        if (transaction.getSupplier() != null) {
+                            ps.setLong(10, transaction.getSupplier().getId());
+                        } else {
+                            ps.setNull(10, Types.BIGINT);
+                        }
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return transactions.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+
+        for (int i = 0; i < keys.size() && i < transactions.size(); i++) {
+            Number id = (Number) keys.get(i).values().iterator().next();
+            transactions.get(i).setId(id.longValue());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.menglanyan.inventory_management.repositories;
+
+import com.github.menglanyan.inventory_management.entities.TransactionMonthlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface TransactionMonthlyRollupRepository extends JpaRepository<TransactionMonthlyRollup, Long> {
+
+    List<TransactionMonthlyRollup> findByRollupMonthOrderByTransactionTypeAscStatusAscProductIdAsc(LocalDate rollupMonth);
+
+    // Adds the deltas to the matching rollup row, creating it on first use. MySQL syntax, which H2 also accepts in
+    // MySQL mode.
+    @Modifying
+    @Query(value = "INSERT INTO transaction_monthly_rollup " +
+            "(rollup_month, transaction_type, status, product_id, transaction_count, total_quantity, total_value) " +
+            "VALUES (:month, :type, :status, :productId, :count, :quantity, :value) " +
+            "ON DUPLICATE KEY UPDATE transaction_count = transaction_count + :count, " +
+            "total_quantity = total_quantity + :quantity, total_value = total_value + :value",
+            nativeQuery = true)
+    int upsert(@Param("month") LocalDate month, @Param("type") String type, @Param("status") String status,
+               @Param("productId") Long productId, @Param("count") long count, @Param("quantity") long quantity,
+               @Param("value") BigDecimal value);
+
+    @Modifying
+    @Query(value = "DELETE FROM transaction_monthly_rollup", nativeQuery = true)
+    int deleteAllRows();
+
+    // Recomputes every rollup row from the transactions table; HQL, so the month truncation is rendered per dialect
+    @Modifying
+    @Query("INSERT INTO TransactionMonthlyRollup " +
+            "(rollupMonth, transactionType, status, productId, transactionCount, totalQuantity, totalValue) " +
+            "SELECT cast(truncate(t.createdAt, month) as LocalDate), t.transactionType, t.status, " +
+            "coalesce(p.id, 0), count(t), coalesce(sum(t.totalProducts), 0), coalesce(sum(t.totalPrice), 0) " +
+            "FROM Transaction t LEFT JOIN t.product p " +
+            "GROUP BY cast(truncate(t.createdAt, month) as LocalDate), t.transactionType, t.status, coalesce(p.id, 0)")
+    int rebuildFromTransactions();
+}
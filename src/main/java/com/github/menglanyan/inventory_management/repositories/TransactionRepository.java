@@ -1,8 +1,60 @@
 package com.github.menglanyan.inventory_management.repositories;
 
+import com.github.menglanyan.inventory_management.analytics.TransactionColumnRow;
 import com.github.menglanyan.inventory_management.entities.Transaction;
+import com.github.menglanyan.inventory_management.search.TransactionSearchRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface TransactionRepository extends JpaRepository<Transaction, Long>, JpaSpecificationExecutor<Transaction> {
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, JpaSpecificationExecutor<Transaction>,
+        TransactionRowRepository, TransactionAnalyticsRepository {
+
+    // Streams rows through a database cursor for exports; must be consumed inside a transaction.
+    // MySQL only honours the fetch size when the JDBC URL sets useCursorFetch=true.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Transaction t WHERE t.createdAt >= :from AND t.createdAt < :to ORDER BY t.id")
+    Stream<Transaction> streamByCreatedAtRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Searchable columns of every transaction, for building the in-memory search index
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.github.menglanyan.inventory_management.search.TransactionSearchRow(" +
+            "t.id, t.description, t.note, t.status, t.transactionType, t.user.id, t.supplier.id, t.product.id) " +
+            "FROM Transaction t")
+    Stream<TransactionSearchRow> streamSearchRows();
+
+    // Analytics columns of every transaction in id order, for loading the columnar engine
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.github.menglanyan.inventory_management.analytics.TransactionColumnRow(" +
+            "t.id, t.createdAt, t.transactionType, t.status, t.product.id, t.user.id, t.supplier.id, " +
+            "t.totalProducts, t.totalPrice) FROM Transaction t ORDER BY t.id")
+    Stream<TransactionColumnRow> streamColumnRows();
+
+    // One page of a user's history with product and category fetched in the same select, so mapping
+    // the page never issues further queries
+    @Query(value = "SELECT t FROM Transaction t LEFT JOIN FETCH t.product p LEFT JOIN FETCH p.category " +
+            "WHERE t.user.id = :userId AND t.createdAt >= :from AND t.createdAt < :to",
+            countQuery = "SELECT COUNT(t) FROM Transaction t " +
+                    "WHERE t.user.id = :userId AND t.createdAt >= :from AND t.createdAt < :to")
+    Page<Transaction> findUserHistory(@Param("userId") Long userId, @Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to, Pageable pageable);
+
+    @Query("SELECT new com.github.menglanyan.inventory_management.repositories.TransactionRow(" +
+            "t.id, t.totalProducts, t.totalPrice, t.transactionType, t.status, t.description, t.note, " +
+            "t.createdAt, t.updatedAt) FROM Transaction t WHERE t.id IN :ids ORDER BY t.id DESC")
+    List<TransactionRow> findRowsByIdInOrderByIdDesc(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,21 @@
+package com.github.menglanyan.inventory_management.repositories;
+
+import com.github.menglanyan.inventory_management.enums.TransactionStatus;
+import com.github.menglanyan.inventory_management.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// The scalar columns of a transaction that list endpoints return, selected without loading the entity
+public record TransactionRow(
+        Long id,
+        Integer totalProducts,
+        BigDecimal totalPrice,
+        TransactionType transactionType,
+        TransactionStatus status,
+        String description,
+        String note,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+}
@@ -0,0 +1,26 @@
+package com.github.menglanyan.inventory_management.repositories;
+
+import com.github.menglanyan.inventory_management.entities.Transaction;
+import com.github.menglanyan.inventory_management.enums.TransactionField;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Set;
+
+// Specification queries that select TransactionRow projections instead of Transaction entities.
+// The variants taking fields select only those columns (and the id); the other row components are null.
+public interface TransactionRowRepository {
+
+    Page<TransactionRow> findRows(Specification<Transaction> spec, Pageable pageable);
+
+    Page<TransactionRow> findRows(Specification<Transaction> spec, Pageable pageable, Set<TransactionField> fields);
+
+    List<TransactionRow> findRows(Specification<Transaction> spec, Sort sort);
+
+    List<TransactionRow> findRows(Specification<Transaction> spec, Sort sort, int limit);
+
+    List<TransactionRow> findRows(Specification<Transaction> spec, Sort sort, int limit, Set<TransactionField> fields);
+}
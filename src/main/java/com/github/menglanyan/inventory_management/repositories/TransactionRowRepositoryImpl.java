@@ -0,0 +1,116 @@
+package com.github.menglanyan.inventory_management.repositories;
+
+import com.github.menglanyan.inventory_management.entities.Transaction;
+import com.github.menglanyan.inventory_management.enums.TransactionField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+@RequiredArgsConstructor
+class TransactionRowRepositoryImpl implements TransactionRowRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Page<TransactionRow> findRows(Specification<Transaction> spec, Pageable pageable) {
+        return findRows(spec, pageable, TransactionField.ALL);
+    }
+
+    @Override
+    public Page<TransactionRow> findRows(Specification<Transaction> spec, Pageable pageable,
+                                         Set<TransactionField> fields) {
+
+        TypedQuery<TransactionRow> query = rowQuery(spec, pageable.getSort(), fields);
+
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+
+        // Skips the COUNT when the page itself tells the total, e.g. a short first or last page
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<TransactionRow> findRows(Specification<Transaction> spec, Sort sort) {
+        return rowQuery(spec, sort, TransactionField.ALL).getResultList();
+    }
+
+    @Override
+    public List<TransactionRow> findRows(Specification<Transaction> spec, Sort sort, int limit) {
+        return findRows(spec, sort, limit, TransactionField.ALL);
+    }
+
+    @Override
+    public List<TransactionRow> findRows(Specification<Transaction> spec, Sort sort, int limit,
+                                         Set<TransactionField> fields) {
+        return rowQuery(spec, sort, fields).setMaxResults(limit).getResultList();
+    }
+
+    private TypedQuery<TransactionRow> rowQuery(Specification<Transaction> spec, Sort sort,
+                                                Set<TransactionField> fields) {
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TransactionRow> query = criteriaBuilder.createQuery(TransactionRow.class);
+        Root<Transaction> root = query.from(Transaction.class);
+
+        // Only scalar paths on the root, so no association is joined for the select list or initialized afterwards.
+        // Unrequested columns are NULL literals, so the database never sends them.
+        List<Selection<?>> selections = new ArrayList<>();
+
+        for (TransactionField field : TransactionField.values()) {
+            selections.add(fields.contains(field) || field == TransactionField.ID
+                    ? root.get(field.getProperty())
+                    : criteriaBuilder.nullLiteral(field.getType()));
+        }
+
+        query.select(criteriaBuilder.construct(TransactionRow.class, selections.toArray(new Selection<?>[0])));
+
+        applySpecification(spec, root, query, criteriaBuilder);
+
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+        }
+
+        return entityManager.createQuery(query);
+    }
+
+    private long count(Specification<Transaction> spec) {
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Transaction> root = query.from(Transaction.class);
+
+        query.select(criteriaBuilder.count(root));
+
+        applySpecification(spec, root, query, criteriaBuilder);
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private void applySpecification(Specification<Transaction> spec, Root<Transaction> root,
+                                    CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
+
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, criteriaBuilder);
+
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+    }
+}
@@ -0,0 +1,146 @@
+package com.github.menglanyan.inventory_management.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongConsumer;
+
+// Trigram index over short texts keyed by id; substring lookups intersect trigram postings, then verify the text.
+// Not thread-safe, callers synchronize.
+class NgramIndex {
+
+    static final int GRAM_LENGTH = 3;
+
+    // Joins the fields of one document, a search term can never match across it
+    static final char FIELD_SEPARATOR = '\u0000';
+
+    private final Map<Long, String> texts = new HashMap<>();
+
+    private final Map<Long, SortedIdSet> postings = new HashMap<>();
+
+    static String normalize(String... fields) {
+
+        StringBuilder builder = new StringBuilder();
+
+        for (String field : fields) {
+            if (field != null && !field.isEmpty()) {
+                if (!builder.isEmpty()) {
+                    builder.append(FIELD_SEPARATOR);
+                }
+                builder.append(field.toLowerCase(Locale.ROOT));
+            }
+        }
+
+        return builder.toString();
+    }
+
+    void put(long key, String normalizedText) {
+
+        String previous = texts.put(key, normalizedText);
+
+        if (normalizedText.equals(previous)) {
+            return;
+        }
+
+        if (previous != null) {
+            removePostings(key, previous);
+        }
+
+        for (long gram : grams(normalizedText)) {
+            postings.computeIfAbsent(gram, g -> new SortedIdSet()).add(key);
+        }
+
+    }
+
+    void remove(long key) {
+
+        String previous = texts.remove(key);
+
+        if (previous != null) {
+            removePostings(key, previous);
+        }
+
+    }
+
+    // Calls the consumer with every key whose text contains the normalized term (at least GRAM_LENGTH chars)
+    void search(String term, LongConsumer consumer) {
+
+        List<SortedIdSet> lists = new ArrayList<>();
+
+        for (long gram : grams(term)) {
+            SortedIdSet list = postings.get(gram);
+
+            if (list == null) {
+                return;
+            }
+
+            lists.add(list);
+        }
+
+        if (lists.isEmpty()) {
+            return;
+        }
+
+        // Drive the intersection from the shortest posting list
+        lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+        SortedIdSet shortest = lists.get(0);
+
+        shortest.forEach(key -> {
+            for (int i = 1; i < lists.size(); i++) {
+                if (!lists.get(i).contains(key)) {
+                    return;
+                }
+            }
+
+            // Trigrams can all occur without the whole term occurring
+            if (texts.get(key).contains(term)) {
+                consumer.accept(key);
+            }
+        });
+
+    }
+
+    int size() {
+        return texts.size();
+    }
+
+    private void removePostings(long key, String text) {
+
+        for (long gram : grams(text)) {
+            SortedIdSet list = postings.get(gram);
+
+            if (list != null) {
+                list.remove(key);
+
+                if (list.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+
+    }
+
+    private static Set<Long> grams(String text) {
+
+        Set<Long> grams = new HashSet<>();
+
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            char first = text.charAt(i);
+            char second = text.charAt(i + 1);
+            char third = text.charAt(i + 2);
+
+            if (first == FIELD_SEPARATOR || second == FIELD_SEPARATOR || third == FIELD_SEPARATOR) {
+                continue;
+            }
+
+            grams.add(((long) first << 32) | ((long) second << 16) | third);
+        }
+
+        return grams;
+    }
+}
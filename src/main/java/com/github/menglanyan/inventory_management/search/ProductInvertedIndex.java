@@ -0,0 +1,442 @@
+package com.github.menglanyan.inventory_management.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// BM25-ranked product index over name, SKU and description, with prefix matching on every query token.
+// Documents are append-only: an update adds a new document and retires the old one, and retired
+// documents are compacted away once they outnumber the live ones.
+public class ProductInvertedIndex {
+
+    // BM25 parameters
+    private static final float K1 = 1.2f;
+
+    private static final float B = 0.75f;
+
+    // Field weights applied to term frequencies and document length
+    private static final float NAME_WEIGHT = 3f;
+
+    private static final float SKU_WEIGHT = 5f;
+
+    private static final float DESCRIPTION_WEIGHT = 1f;
+
+    // Prefix expansions score lower than exact term matches
+    private static final float PREFIX_FACTOR = 0.7f;
+
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Term dictionary, sorted for prefix lookups
+    private final NavigableMap<String, Integer> termIds = new TreeMap<>();
+
+    private final List<Postings> postings = new ArrayList<>();
+
+    private final Map<Long, Integer> docByProduct = new HashMap<>();
+
+    private long[] productByDoc = new long[1024];
+
+    private float[] docLength = new float[1024];
+
+    private int[][] docTerms = new int[1024][];
+
+    private int docCount;
+
+    private int liveDocs;
+
+    private double totalLength;
+
+    // Score buffers are pooled, so memory scales with concurrent searches rather than with request threads
+    private final Queue<Scratch> scratchPool = new ConcurrentLinkedQueue<>();
+
+    public void put(ProductSearchRow row) {
+
+        lock.writeLock().lock();
+
+        try {
+            retire(row.id());
+
+            Map<String, Float> weights = new LinkedHashMap<>();
+            float length = addTokens(weights, row.name(), NAME_WEIGHT)
+                    + addTokens(weights, row.sku(), SKU_WEIGHT)
+                    + addTokens(weights, row.description(), DESCRIPTION_WEIGHT);
+
+            int doc = docCount++;
+            ensureDocCapacity(docCount);
+
+            int[] terms = new int[weights.size()];
+            int t = 0;
+
+            for (Map.Entry<String, Float> entry : weights.entrySet()) {
+                int termId = termIds.computeIfAbsent(entry.getKey(), term -> {
+                    postings.add(new Postings());
+                    return postings.size() - 1;
+                });
+
+                Postings list = postings.get(termId);
+                list.add(doc, entry.getValue());
+                list.documentFrequency++;
+                terms[t++] = termId;
+            }
+
+            productByDoc[doc] = row.id();
+            docLength[doc] = length;
+            docTerms[doc] = terms;
+            docByProduct.put(row.id(), doc);
+            liveDocs++;
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+    }
+
+    public void remove(long productId) {
+
+        lock.writeLock().lock();
+
+        try {
+            retire(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+    }
+
+    public int size() {
+        return liveDocs;
+    }
+
+    // Ranks every product matching at least one query token and returns hits [offset, offset + limit)
+    public ProductSearchResult search(String query, int offset, int limit) {
+
+        List<String> tokens = tokenize(query);
+
+        if (tokens.isEmpty() || limit <= 0) {
+            return new ProductSearchResult(List.of(), 0);
+        }
+
+        Scratch pooled = scratchPool.poll();
+        Scratch work = pooled != null ? pooled : new Scratch();
+
+        lock.readLock().lock();
+
+        try {
+            work.prepare(docCount);
+
+            float averageLength = liveDocs == 0 ? 1f : (float) (totalLength / liveDocs);
+
+            for (String token : tokens) {
+                scoreToken(token, averageLength, work);
+            }
+
+            // Keep the best offset + limit documents in a min-heap
+            int wanted = offset + limit;
+            PriorityQueue<ProductSearchHit> top = new PriorityQueue<>(wanted + 1,
+                    (a, b) -> a.score() != b.score()
+                            ? Float.compare(a.score(), b.score())
+                            : Long.compare(b.productId(), a.productId()));
+
+            for (int i = 0; i < work.matchedCount; i++) {
+                int doc = work.matched[i];
+                ProductSearchHit hit = new ProductSearchHit(productByDoc[doc], work.scores[doc]);
+
+                if (top.size() < wanted) {
+                    top.add(hit);
+                } else if (top.comparator().compare(hit, top.peek()) > 0) {
+                    top.poll();
+                    top.add(hit);
+                }
+            }
+
+            ProductSearchHit[] ranked = new ProductSearchHit[top.size()];
+
+            for (int i = ranked.length - 1; i >= 0; i--) {
+                ranked[i] = top.poll();
+            }
+
+            List<ProductSearchHit> page = offset >= ranked.length
+                    ? List.of()
+                    : Arrays.asList(ranked).subList(offset, ranked.length);
+
+            return new ProductSearchResult(page, work.matchedCount);
+        } finally {
+            lock.readLock().unlock();
+            scratchPool.offer(work);
+        }
+
+    }
+
+    static List<String> tokenize(String text) {
+
+        List<String> tokens = new ArrayList<>();
+
+        if (text == null) {
+            return tokens;
+        }
+
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+
+        return tokens;
+    }
+
+    // Adds the best score of this token's exact or prefix terms to each matching document
+    private void scoreToken(String token, float averageLength, Scratch work) {
+
+        work.resetToken();
+
+        Postings exact = null;
+        List<Postings> expansions = new ArrayList<>();
+        int expansionFrequency = 0;
+
+        for (Map.Entry<String, Integer> entry : termIds.tailMap(token, true).entrySet()) {
+            String term = entry.getKey();
+
+            if (!term.startsWith(token) || expansions.size() >= MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+
+            Postings list = postings.get(entry.getValue());
+
+            if (list.documentFrequency == 0) {
+                continue;
+            }
+
+            if (term.length() == token.length()) {
+                exact = list;
+            } else {
+                expansions.add(list);
+                expansionFrequency += list.documentFrequency;
+            }
+        }
+
+        if (exact != null) {
+            scorePostings(exact, idf(exact.documentFrequency), averageLength, work);
+        }
+
+        // Expansions share the IDF of the whole prefix group, so a rare completion cannot outrank an exact match
+        if (!expansions.isEmpty()) {
+            float factor = idf(Math.min(expansionFrequency + (exact == null ? 0 : exact.documentFrequency), liveDocs))
+                    * PREFIX_FACTOR;
+
+            for (Postings list : expansions) {
+                scorePostings(list, factor, averageLength, work);
+            }
+        }
+
+        work.commitToken();
+
+    }
+
+    private void scorePostings(Postings list, float factor, float averageLength, Scratch work) {
+
+        for (int i = 0; i < list.size; i++) {
+            int doc = list.docs[i];
+
+            if (docTerms[doc] == null) {
+                continue;
+            }
+
+            float tf = list.weights[i];
+            float norm = K1 * (1 - B + B * docLength[doc] / averageLength);
+            work.offerToken(doc, factor * tf * (K1 + 1) / (tf + norm));
+        }
+
+    }
+
+    private float idf(int documentFrequency) {
+        return (float) Math.log(1 + (liveDocs - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private float addTokens(Map<String, Float> weights, String field, float weight) {
+
+        List<String> tokens = tokenize(field);
+
+        for (String token : tokens) {
+            weights.merge(token, weight, Float::sum);
+        }
+
+        return tokens.size() * weight;
+    }
+
+    private void retire(long productId) {
+
+        Integer doc = docByProduct.remove(productId);
+
+        if (doc == null) {
+            return;
+        }
+
+        for (int termId : docTerms[doc]) {
+            postings.get(termId).documentFrequency--;
+        }
+
+        docTerms[doc] = null;
+        liveDocs--;
+        totalLength -= docLength[doc];
+
+        if (docCount - liveDocs > Math.max(liveDocs, 1024)) {
+            compact();
+        }
+
+    }
+
+    // Drops retired documents from the postings and renumbers the live ones densely
+    private void compact() {
+
+        int[] remap = new int[docCount];
+        int next = 0;
+
+        for (int doc = 0; doc < docCount; doc++) {
+            remap[doc] = docTerms[doc] == null ? -1 : next++;
+        }
+
+        for (Postings list : postings) {
+            list.compact(remap);
+        }
+
+        for (int doc = 0; doc < docCount; doc++) {
+            int target = remap[doc];
+
+            if (target >= 0) {
+                productByDoc[target] = productByDoc[doc];
+                docLength[target] = docLength[doc];
+                docTerms[target] = docTerms[doc];
+                docByProduct.put(productByDoc[target], target);
+            }
+        }
+
+        Arrays.fill(docTerms, next, docCount, null);
+        docCount = next;
+
+    }
+
+    private void ensureDocCapacity(int capacity) {
+        if (capacity > productByDoc.length) {
+            int newLength = Math.max(capacity, productByDoc.length * 2);
+            productByDoc = Arrays.copyOf(productByDoc, newLength);
+            docLength = Arrays.copyOf(docLength, newLength);
+            docTerms = Arrays.copyOf(docTerms, newLength);
+        }
+    }
+
+    private static class Postings {
+
+        private int[] docs = new int[2];
+
+        private float[] weights = new float[2];
+
+        private int size;
+
+        private int documentFrequency;
+
+        void add(int doc, float weight) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+
+            docs[size] = doc;
+            weights[size] = weight;
+            size++;
+        }
+
+        void compact(int[] remap) {
+            int kept = 0;
+
+            for (int i = 0; i < size; i++) {
+                int target = remap[docs[i]];
+
+                if (target >= 0) {
+                    docs[kept] = target;
+                    weights[kept] = weights[i];
+                    kept++;
+                }
+            }
+
+            size = kept;
+        }
+    }
+
+    // Score accumulators, reused across queries to avoid allocating per search
+    private static class Scratch {
+
+        private float[] scores = new float[0];
+
+        private float[] tokenScores = new float[0];
+
+        private int[] matched = new int[0];
+
+        private int matchedCount;
+
+        private int[] tokenMatched = new int[0];
+
+        private int tokenMatchedCount;
+
+        void prepare(int docCount) {
+            if (scores.length < docCount) {
+                int length = Math.max(docCount, scores.length * 2);
+                scores = new float[length];
+                tokenScores = new float[length];
+                matched = new int[length];
+                tokenMatched = new int[length];
+            } else {
+                for (int i = 0; i < matchedCount; i++) {
+                    scores[matched[i]] = 0f;
+                }
+            }
+
+            matchedCount = 0;
+        }
+
+        void resetToken() {
+            tokenMatchedCount = 0;
+        }
+
+        void offerToken(int doc, float score) {
+            if (tokenScores[doc] == 0f) {
+                tokenMatched[tokenMatchedCount++] = doc;
+                tokenScores[doc] = score;
+            } else if (score > tokenScores[doc]) {
+                tokenScores[doc] = score;
+            }
+        }
+
+        void commitToken() {
+            for (int i = 0; i < tokenMatchedCount; i++) {
+                int doc = tokenMatched[i];
+
+                if (scores[doc] == 0f) {
+                    matched[matchedCount++] = doc;
+                }
+
+                scores[doc] += tokenScores[doc];
+                tokenScores[doc] = 0f;
+            }
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.github.menglanyan.inventory_management.search;
+
+public record ProductSearchHit(long productId, float score) {
+}
@@ -0,0 +1,130 @@
+package com.github.menglanyan.inventory_management.search;
+
+import com.github.menglanyan.inventory_management.events.ProductDeletedEvent;
+import com.github.menglanyan.inventory_management.events.ProductSavedEvent;
+import com.github.menglanyan.inventory_management.repositories.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Keeps a ProductInvertedIndex in step with the products table: built in the background at startup,
+// then updated after every committed product save or delete.
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ProductSearchIndex {
+
+    private final ProductRepository productRepository;
+
+    private final PlatformTransactionManager transactionManager;
+
+    // Null until the first build completes; searches fall back to the database until then
+    private volatile ProductInvertedIndex index;
+
+    // Events committed while a build is running, replayed onto the new index before it is published
+    private final List<Object> pendingEvents = new ArrayList<>();
+
+    private boolean building;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        Thread thread = new Thread(this::rebuild, "product-search-index");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void rebuild() {
+
+        synchronized (pendingEvents) {
+            building = true;
+            pendingEvents.clear();
+        }
+
+        long start = System.currentTimeMillis();
+
+        ProductInvertedIndex fresh = new ProductInvertedIndex();
+
+        try {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(true);
+
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<ProductSearchRow> rows = productRepository.streamSearchRows()) {
+                    rows.forEach(fresh::put);
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (pendingEvents) {
+                building = false;
+                pendingEvents.clear();
+            }
+
+            log.error("Building product search index failed: {}", e.getMessage());
+            return;
+        }
+
+        synchronized (pendingEvents) {
+            pendingEvents.forEach(event -> apply(fresh, event));
+            pendingEvents.clear();
+            building = false;
+            index = fresh;
+        }
+
+        log.info("Product search index built with {} products in {} ms",
+                fresh.size(), System.currentTimeMillis() - start);
+
+    }
+
+    // Ranked page of hits, or null when the index is not built yet
+    public ProductSearchResult search(String query, int offset, int limit) {
+
+        ProductInvertedIndex current = index;
+
+        return current == null ? null : current.search(query, offset, limit);
+    }
+
+    @TransactionalEventListener
+    public void onProductSaved(ProductSavedEvent event) {
+        dispatch(event);
+    }
+
+    @TransactionalEventListener
+    public void onProductDeleted(ProductDeletedEvent event) {
+        dispatch(event);
+    }
+
+    private void dispatch(Object event) {
+
+        synchronized (pendingEvents) {
+            if (building) {
+                pendingEvents.add(event);
+            }
+        }
+
+        ProductInvertedIndex current = index;
+
+        if (current != null) {
+            apply(current, event);
+        }
+
+    }
+
+    private void apply(ProductInvertedIndex target, Object event) {
+
+        if (event instanceof ProductSavedEvent saved) {
+            target.put(ProductSearchRow.of(saved.product()));
+        } else if (event instanceof ProductDeletedEvent deleted) {
+            target.remove(deleted.productId());
+        }
+
+    }
+}
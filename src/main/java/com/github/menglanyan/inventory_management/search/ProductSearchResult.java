@@ -0,0 +1,7 @@
+package com.github.menglanyan.inventory_management.search;
+
+import java.util.List;
+
+// One page of ranked hits, plus the number of products matching at all
+public record ProductSearchResult(List<ProductSearchHit> hits, int totalHits) {
+}
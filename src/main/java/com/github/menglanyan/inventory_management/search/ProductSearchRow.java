@@ -0,0 +1,11 @@
+package com.github.menglanyan.inventory_management.search;
+
+import com.github.menglanyan.inventory_management.entities.Product;
+
+// The searchable columns of a product
+public record ProductSearchRow(Long id, String name, String sku, String description) {
+
+    public static ProductSearchRow of(Product product) {
+        return new ProductSearchRow(product.getId(), product.getName(), product.getSku(), product.getDescription());
+    }
+}
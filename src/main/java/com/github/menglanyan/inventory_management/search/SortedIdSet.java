@@ -0,0 +1,70 @@
+package com.github.menglanyan.inventory_management.search;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+// Ascending set of ids in a growable primitive array; ids usually arrive in increasing order, so adds are appends
+class SortedIdSet {
+
+    private long[] ids = new long[4];
+
+    private int size;
+
+    void add(long id) {
+
+        if (size == 0 || id > ids[size - 1]) {
+            ensureCapacity();
+            ids[size++] = id;
+            return;
+        }
+
+        int position = Arrays.binarySearch(ids, 0, size, id);
+
+        if (position >= 0) {
+            return;
+        }
+
+        int insertAt = -position - 1;
+
+        ensureCapacity();
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+
+    }
+
+    void remove(long id) {
+
+        int position = Arrays.binarySearch(ids, 0, size, id);
+
+        if (position >= 0) {
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+        }
+
+    }
+
+    boolean contains(long id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void forEach(LongConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            consumer.accept(ids[i]);
+        }
+    }
+
+    private void ensureCapacity() {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+        }
+    }
+}
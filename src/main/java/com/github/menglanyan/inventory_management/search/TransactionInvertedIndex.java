@@ -0,0 +1,305 @@
+package com.github.menglanyan.inventory_management.search;
+
+import com.github.menglanyan.inventory_management.entities.Category;
+import com.github.menglanyan.inventory_management.entities.Product;
+import com.github.menglanyan.inventory_management.entities.Supplier;
+import com.github.menglanyan.inventory_management.entities.User;
+import com.github.menglanyan.inventory_management.enums.TransactionStatus;
+import com.github.menglanyan.inventory_management.enums.TransactionType;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory equivalent of TransactionFilter.byFliter. User, supplier, product and category texts are indexed once
+// per row rather than once per transaction, then expanded to transaction ids through per-row id sets.
+public class TransactionInvertedIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Transaction description and note
+    private final NgramIndex transactionTexts = new NgramIndex();
+
+    // User name, email and phone number
+    private final NgramIndex userTexts = new NgramIndex();
+
+    // Supplier name and contact info
+    private final NgramIndex supplierTexts = new NgramIndex();
+
+    // Product name, SKU and description
+    private final NgramIndex productTexts = new NgramIndex();
+
+    // Category name
+    private final NgramIndex categoryTexts = new NgramIndex();
+
+    private final Map<Long, SortedIdSet> transactionsByUser = new HashMap<>();
+
+    private final Map<Long, SortedIdSet> transactionsBySupplier = new HashMap<>();
+
+    private final Map<Long, SortedIdSet> transactionsByProduct = new HashMap<>();
+
+    private final Map<Long, SortedIdSet> productsByCategory = new HashMap<>();
+
+    private final Map<Long, Long> categoryByProduct = new HashMap<>();
+
+    private final Map<TransactionStatus, SortedIdSet> transactionsByStatus = new EnumMap<>(TransactionStatus.class);
+
+    private final Map<TransactionType, SortedIdSet> transactionsByType = new EnumMap<>(TransactionType.class);
+
+    private long transactionCount;
+
+    public void addTransaction(TransactionSearchRow row) {
+
+        lock.writeLock().lock();
+
+        try {
+            long id = row.id();
+
+            transactionTexts.put(id, NgramIndex.normalize(row.description(), row.note()));
+
+            addTo(transactionsByUser, row.userId(), id);
+            addTo(transactionsBySupplier, row.supplierId(), id);
+            addTo(transactionsByProduct, row.productId(), id);
+
+            if (row.status() != null) {
+                transactionsByStatus.computeIfAbsent(row.status(), s -> new SortedIdSet()).add(id);
+            }
+
+            if (row.transactionType() != null) {
+                transactionsByType.computeIfAbsent(row.transactionType(), t -> new SortedIdSet()).add(id);
+            }
+
+            transactionCount = transactionTexts.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+    }
+
+    public void changeStatus(long transactionId, TransactionStatus previousStatus, TransactionStatus status) {
+
+        lock.writeLock().lock();
+
+        try {
+            if (previousStatus != null && transactionsByStatus.containsKey(previousStatus)) {
+                transactionsByStatus.get(previousStatus).remove(transactionId);
+            }
+
+            if (status != null) {
+                transactionsByStatus.computeIfAbsent(status, s -> new SortedIdSet()).add(transactionId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+    }
+
+    public void putUser(User user) {
+        put(userTexts, user.getId(), NgramIndex.normalize(user.getName(), user.getEmail(), user.getPhoneNumber()));
+    }
+
+    public void putSupplier(Supplier supplier) {
+        put(supplierTexts, supplier.getId(), NgramIndex.normalize(supplier.getName(), supplier.getContactInfo()));
+    }
+
+    public void putCategory(Category category) {
+        put(categoryTexts, category.getId(), NgramIndex.normalize(category.getName()));
+    }
+
+    public void removeUser(long userId) {
+        remove(userTexts, transactionsByUser, userId);
+    }
+
+    public void removeSupplier(long supplierId) {
+        remove(supplierTexts, transactionsBySupplier, supplierId);
+    }
+
+    public void removeCategory(long categoryId) {
+
+        lock.writeLock().lock();
+
+        try {
+            categoryTexts.remove(categoryId);
+
+            SortedIdSet products = productsByCategory.remove(categoryId);
+
+            if (products != null) {
+                products.forEach(categoryByProduct::remove);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+    }
+
+    public void removeProduct(long productId) {
+
+        lock.writeLock().lock();
+
+        try {
+            productTexts.remove(productId);
+            transactionsByProduct.remove(productId);
+
+            Long categoryId = categoryByProduct.remove(productId);
+
+            if (categoryId != null && productsByCategory.containsKey(categoryId)) {
+                productsByCategory.get(categoryId).remove(productId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+    }
+
+    public void putProduct(Product product) {
+
+        lock.writeLock().lock();
+
+        try {
+            productTexts.put(product.getId(),
+                    NgramIndex.normalize(product.getName(), product.getSku(), product.getDescription()));
+
+            Long categoryId = product.getCategory() == null ? null : product.getCategory().getId();
+
+            Long previousCategoryId = categoryId == null
+                    ? categoryByProduct.remove(product.getId())
+                    : categoryByProduct.put(product.getId(), categoryId);
+
+            if (previousCategoryId != null && productsByCategory.containsKey(previousCategoryId)) {
+                productsByCategory.get(previousCategoryId).remove(product.getId());
+            }
+
+            addTo(productsByCategory, categoryId, product.getId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+    }
+
+    // Ids of the matching transactions in descending order, or null when the term is too short for trigram lookup
+    public long[] search(String searchValue) {
+
+        String term = searchValue.toLowerCase(Locale.ROOT);
+
+        if (term.length() < NgramIndex.GRAM_LENGTH) {
+            return null;
+        }
+
+        Matches matches = new Matches();
+
+        lock.readLock().lock();
+
+        try {
+            transactionTexts.search(term, matches::add);
+
+            userTexts.search(term, userId -> orInto(matches, transactionsByUser.get(userId)));
+            supplierTexts.search(term, supplierId -> orInto(matches, transactionsBySupplier.get(supplierId)));
+            productTexts.search(term, productId -> orInto(matches, transactionsByProduct.get(productId)));
+
+            categoryTexts.search(term, categoryId -> {
+                SortedIdSet products = productsByCategory.get(categoryId);
+
+                if (products != null) {
+                    products.forEach(productId -> orInto(matches, transactionsByProduct.get(productId)));
+                }
+            });
+
+            // Status and type are matched on their lower-cased enum names, like lower(x) LIKE '%term%'
+            transactionsByStatus.forEach((status, ids) -> {
+                if (status.name().toLowerCase(Locale.ROOT).contains(term)) {
+                    orInto(matches, ids);
+                }
+            });
+
+            transactionsByType.forEach((type, ids) -> {
+                if (type.name().toLowerCase(Locale.ROOT).contains(term)) {
+                    orInto(matches, ids);
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return matches.toDescendingIds();
+
+    }
+
+    public long size() {
+        return transactionCount;
+    }
+
+    private void put(NgramIndex index, Long id, String text) {
+
+        lock.writeLock().lock();
+
+        try {
+            index.put(id, text);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+    }
+
+    // Drops a user or supplier text along with its transaction ids
+    private void remove(NgramIndex index, Map<Long, SortedIdSet> transactions, long id) {
+
+        lock.writeLock().lock();
+
+        try {
+            index.remove(id);
+            transactions.remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+    }
+
+    private static void addTo(Map<Long, SortedIdSet> sets, Long key, long id) {
+        if (key != null) {
+            sets.computeIfAbsent(key, k -> new SortedIdSet()).add(id);
+        }
+    }
+
+    private static void orInto(Matches matches, SortedIdSet ids) {
+        if (ids != null) {
+            ids.forEach(matches::add);
+        }
+    }
+
+    // Transaction ids gathered from several postings in no particular order, possibly repeated; sorted once at the
+    // end rather than kept sorted on every add, and long throughout so ids past Integer.MAX_VALUE still fit
+    private static final class Matches {
+
+        private long[] ids = new long[16];
+
+        private int size;
+
+        void add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+            ids[size++] = id;
+        }
+
+        long[] toDescendingIds() {
+
+            Arrays.sort(ids, 0, size);
+
+            long[] descending = new long[size];
+
+            int count = 0;
+
+            for (int i = size - 1; i >= 0; i--) {
+                if (count == 0 || ids[i] != descending[count - 1]) {
+                    descending[count++] = ids[i];
+                }
+            }
+
+            return Arrays.copyOf(descending, count);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.github.menglanyan.inventory_management.search;
+
+import com.github.menglanyan.inventory_management.entities.Product;
+import com.github.menglanyan.inventory_management.entities.Transaction;
+import com.github.menglanyan.inventory_management.events.CategoryDeletedEvent;
+import com.github.menglanyan.inventory_management.events.CategorySavedEvent;
+import com.github.menglanyan.inventory_management.events.ProductDeletedEvent;
+import com.github.menglanyan.inventory_management.events.ProductSavedEvent;
+import com.github.menglanyan.inventory_management.events.SupplierDeletedEvent;
+import com.github.menglanyan.inventory_management.events.SupplierSavedEvent;
+import com.github.menglanyan.inventory_management.events.TransactionStatusChangedEvent;
+import com.github.menglanyan.inventory_management.events.TransactionsRecordedEvent;
+import com.github.menglanyan.inventory_management.events.UserDeletedEvent;
+import com.github.menglanyan.inventory_management.events.UserSavedEvent;
+import com.github.menglanyan.inventory_management.repositories.CategoryRepository;
+import com.github.menglanyan.inventory_management.repositories.ProductRepository;
+import com.github.menglanyan.inventory_management.repositories.SupplierRepository;
+import com.github.menglanyan.inventory_management.repositories.TransactionRepository;
+import com.github.menglanyan.inventory_management.repositories.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Keeps a TransactionInvertedIndex in step with the database: built in the background at startup,
+// then updated after every committed transaction write or status change, and after every committed update or
+// delete of the users, suppliers, products and categories whose texts the transactions are searched by.
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class TransactionSearchIndex {
+
+    private final TransactionRepository transactionRepository;
+
+    private final UserRepository userRepository;
+
+    private final SupplierRepository supplierRepository;
+
+    private final ProductRepository productRepository;
+
+    private final CategoryRepository categoryRepository;
+
+    private final PlatformTransactionManager transactionManager;
+
+    // Null until the first build completes; searches fall back to the database until then
+    private volatile TransactionInvertedIndex index;
+
+    // Events committed while a build is running, replayed onto the new index before it is published
+    private final List<Object> pendingEvents = new ArrayList<>();
+
+    private boolean building;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        Thread thread = new Thread(this::rebuild, "transaction-search-index");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void rebuild() {
+
+        synchronized (pendingEvents) {
+            building = true;
+            pendingEvents.clear();
+        }
+
+        long start = System.currentTimeMillis();
+
+        TransactionInvertedIndex fresh = new TransactionInvertedIndex();
+
+        try {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(true);
+
+            transactionTemplate.executeWithoutResult(status -> {
+                // Categories first, so loading products resolves their eager category from the persistence context
+                categoryRepository.findAll().forEach(fresh::putCategory);
+                productRepository.findAll().forEach(fresh::putProduct);
+                supplierRepository.findAll().forEach(fresh::putSupplier);
+                userRepository.findAll().forEach(fresh::putUser);
+
+                try (Stream<TransactionSearchRow> rows = transactionRepository.streamSearchRows()) {
+                    rows.forEach(fresh::addTransaction);
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (pendingEvents) {
+                building = false;
+                pendingEvents.clear();
+            }
+
+            log.error("Building transaction search index failed: {}", e.getMessage());
+            return;
+        }
+
+        synchronized (pendingEvents) {
+            pendingEvents.forEach(event -> apply(fresh, event));
+            pendingEvents.clear();
+            building = false;
+            index = fresh;
+        }
+
+        log.info("Transaction search index built with {} transactions in {} ms",
+                fresh.size(), System.currentTimeMillis() - start);
+
+    }
+
+    // Matching transaction ids in descending order, or null when the index cannot answer and LIKE must be used
+    public long[] search(String searchValue) {
+
+        TransactionInvertedIndex current = index;
+
+        return current == null ? null : current.search(searchValue);
+    }
+
+    @TransactionalEventListener
+    public void onTransactionsRecorded(TransactionsRecordedEvent event) {
+        dispatch(event);
+    }
+
+    @TransactionalEventListener
+    public void onTransactionStatusChanged(TransactionStatusChangedEvent event) {
+        dispatch(event);
+    }
+
+    // The texts below are indexed once per row, so updating a row re-indexes every transaction that refers to it
+
+    @TransactionalEventListener
+    public void onProductSaved(ProductSavedEvent event) {
+        dispatch(event);
+    }
+
+    @TransactionalEventListener
+    public void onProductDeleted(ProductDeletedEvent event) {
+        dispatch(event);
+    }
+
+    @TransactionalEventListener
+    public void onSupplierSaved(SupplierSavedEvent event) {
+        dispatch(event);
+    }
+
+    @TransactionalEventListener
+    public void onSupplierDeleted(SupplierDeletedEvent event) {
+        dispatch(event);
+    }
+
+    @TransactionalEventListener
+    public void onCategorySaved(CategorySavedEvent event) {
+        dispatch(event);
+    }
+
+    @TransactionalEventListener
+    public void onCategoryDeleted(CategoryDeletedEvent event) {
+        dispatch(event);
+    }
+
+    @TransactionalEventListener
+    public void onUserSaved(UserSavedEvent event) {
+        dispatch(event);
+    }
+
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        dispatch(event);
+    }
+
+    private void dispatch(Object event) {
+
+        synchronized (pendingEvents) {
+            if (building) {
+                pendingEvents.add(event);
+            }
+        }
+
+        TransactionInvertedIndex current = index;
+
+        if (current != null) {
+            apply(current, event);
+        }
+
+    }
+
+    private void apply(TransactionInvertedIndex target, Object event) {
+
+        if (event instanceof TransactionsRecordedEvent recorded) {
+
+            for (Transaction transaction : recorded.transactions()) {
+                Product product = transaction.getProduct();
+
+                if (product != null) {
+                    if (product.getCategory() != null) {
+                        target.putCategory(product.getCategory());
+                    }
+                    target.putProduct(product);
+                }
+
+                if (transaction.getUser() != null) {
+                    target.putUser(transaction.getUser());
+                }
+
+                if (transaction.getSupplier() != null) {
+                    target.putSupplier(transaction.getSupplier());
+                }
+
+                target.addTransaction(TransactionSearchRow.of(transaction));
+            }
+
+        } else if (event instanceof TransactionStatusChangedEvent changed) {
+            target.changeStatus(changed.transactionId(), changed.previousStatus(), changed.status());
+
+        } else if (event instanceof ProductSavedEvent saved) {
+            if (saved.product().getCategory() != null) {
+                target.putCategory(saved.product().getCategory());
+            }
+            target.putProduct(saved.product());
+
+        } else if (event instanceof ProductDeletedEvent deleted) {
+            target.removeProduct(deleted.productId());
+
+        } else if (event instanceof SupplierSavedEvent saved) {
+            target.putSupplier(saved.supplier());
+
+        } else if (event instanceof SupplierDeletedEvent deleted) {
+            target.removeSupplier(deleted.supplierId());
+
+        } else if (event instanceof CategorySavedEvent saved) {
+            target.putCategory(saved.category());
+
+        } else if (event instanceof CategoryDeletedEvent deleted) {
+            target.removeCategory(deleted.categoryId());
+
+        } else if (event instanceof UserSavedEvent saved) {
+            target.putUser(saved.user());
+
+        } else if (event instanceof UserDeletedEvent deleted) {
+            target.removeUser(deleted.userId());
+        }
+
+    }
+}
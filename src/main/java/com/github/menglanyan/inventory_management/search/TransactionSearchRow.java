@@ -0,0 +1,22 @@
+package com.github.menglanyan.inventory_management.search;
+
+import com.github.menglanyan.inventory_management.entities.Transaction;
+import com.github.menglanyan.inventory_management.enums.TransactionStatus;
+import com.github.menglanyan.inventory_management.enums.TransactionType;
+
+// The searchable columns of a transaction itself, plus the ids of the rows it joins to
+public record TransactionSearchRow(Long id, String description, String note, TransactionStatus status,
+                                   TransactionType transactionType, Long userId, Long supplierId, Long productId) {
+
+    public static TransactionSearchRow of(Transaction transaction) {
+        return new TransactionSearchRow(
+                transaction.getId(),
+                transaction.getDescription(),
+                transaction.getNote(),
+                transaction.getStatus(),
+                transaction.getTransactionType(),
+                transaction.getUser() == null ? null : transaction.getUser().getId(),
+                transaction.getSupplier() == null ? null : transaction.getSupplier().getId(),
+                transaction.getProduct() == null ? null : transaction.getProduct().getId());
+    }
+}
@@ -25,18 +25,27 @@ public class AuthFilter extends OncePerRequestFilter {
 
     private final CustomUserDetailsService customUserDetailsService;
 
+    private final TokenDenyList tokenDenyList;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
 
         String token = getTokenFromRequest(request);
 
-        if (token != null) {
-            String email = jwtUtils.getUsernameFromToken(token);
+        VerifiedToken verifiedToken = token != null ? jwtUtils.verifyToken(token) : null;
+
+        if (verifiedToken != null && tokenDenyList.isRevoked(verifiedToken)) {
+            log.debug("Revoked token used: {}", verifiedToken.subject());
+            verifiedToken = null;
+        }
+
+        if (verifiedToken != null) {
+            String email = verifiedToken.subject();
             UserDetails userDetails = customUserDetailsService.loadUserByUsername(email);
 
-            if (StringUtils.hasText(email) && jwtUtils.isTokenValid(token, userDetails)) {
-                log.info("Valid token: {}", email);
+            if (StringUtils.hasText(email) && jwtUtils.isTokenValid(verifiedToken, userDetails)) {
+                log.debug("Valid token: {}", email);
 
                 UsernamePasswordAuthenticationToken authenticationToken
                         = new UsernamePasswordAuthenticationToken(
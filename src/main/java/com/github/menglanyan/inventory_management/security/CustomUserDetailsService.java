@@ -1,6 +1,9 @@
 package com.github.menglanyan.inventory_management.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.menglanyan.inventory_management.entities.User;
+import com.github.menglanyan.inventory_management.events.UserChangedEvent;
 import com.github.menglanyan.inventory_management.exceptions.NotFoundException;
 import com.github.menglanyan.inventory_management.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -8,20 +11,46 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
 
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
+    private static final int PRINCIPAL_CACHE_SIZE = 10_000;
+
+    // Upper bound on staleness for changes made outside UserService, e.g. directly in the database
+    private static final Duration PRINCIPAL_CACHE_TTL = Duration.ofMinutes(5);
+
     private final UserRepository userRepository;
 
+    // Email -> principal, so authenticated requests do not hit the users table
+    private final Cache<String, AuthUser> principals = Caffeine.newBuilder()
+            .maximumSize(PRINCIPAL_CACHE_SIZE)
+            .expireAfterWrite(PRINCIPAL_CACHE_TTL)
+            .build();
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(username)
-                .orElseThrow(() -> new NotFoundException("User Email Not Found"));
+        return principals.get(username, email -> {
+            User user = userRepository.findByEmail(email)
+                    .orElseThrow(() -> new NotFoundException("User Email Not Found"));
 
-        return AuthUser.builder()
-                .user(user)
-                .build();
+            // The cached user is a detached, shared snapshot; drop the lazy collection so it is never touched
+            user.setTransactions(null);
+
+            return AuthUser.builder()
+                    .user(user)
+                    .build();
+        });
+    }
+
+    // Evicted only after commit, so a concurrent request cannot re-cache the old row
+    @TransactionalEventListener
+    public void onUserChanged(UserChangedEvent event) {
+        principals.invalidate(event.email());
     }
+
 }
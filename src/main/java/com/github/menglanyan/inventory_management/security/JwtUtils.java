@@ -1,6 +1,10 @@
 package com.github.menglanyan.inventory_management.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
@@ -11,8 +15,12 @@ import org.springframework.stereotype.Service;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.UUID;
 
 @Service
 @Slf4j
@@ -21,8 +29,18 @@ public class JwtUtils {
     // Expires in 6 months in millisecond
     private static final long EXPIRATION_TIME_IN_MILLISEC = 1000L * 60L * 60L * 24L * 30L * 6L;
 
+    private static final int VERIFIED_TOKEN_CACHE_SIZE = 10_000;
+
+    // Verified tokens are re-checked at least this often even if they expire much later
+    private static final long VERIFIED_TOKEN_MAX_TTL_IN_MILLISEC = 1000L * 60L * 15L;
+
     private SecretKey key;
 
+    private JwtParser parser;
+
+    // Token digest -> claims, so repeat requests with the same token skip signature verification
+    private Cache<String, VerifiedToken> verifiedTokens;
+
     @Value("${jwtSecretString}")
     private String jwtSecretString;
 
@@ -30,10 +48,18 @@ public class JwtUtils {
     private void init() {
         byte[] keyByte = jwtSecretString.getBytes(StandardCharsets.UTF_8);
         this.key = new SecretKeySpec(keyByte, "HmacSHA256");
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(VERIFIED_TOKEN_CACHE_SIZE)
+                .expireAfter(Expiry.creating((String digest, VerifiedToken token) -> Duration.ofMillis(
+                        Math.max(0, Math.min(token.expiration().getTime() - System.currentTimeMillis(),
+                                VERIFIED_TOKEN_MAX_TTL_IN_MILLISEC)))))
+                .build();
     }
 
     public String generateToken(String email) {
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(email)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME_IN_MILLISEC))
@@ -41,27 +67,30 @@ public class JwtUtils {
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        return extractClaims(token, Claims::getSubject);
+    // Parses and verifies the token once; throws JwtException if the signature or format is invalid
+    public VerifiedToken verifyToken(String token) {
+        return verifiedTokens.get(digest(token), digest -> {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            String id = claims.getId() != null ? claims.getId() : "sha256:" + digest;
+            return new VerifiedToken(id, claims.getSubject(), claims.getExpiration());
+        });
     }
 
-    private <T> T extractClaims(String token, Function<Claims, T> claimsTFunction) {
-        return claimsTFunction.apply(
-                Jwts.parser()
-                        .verifyWith(key)
-                        .build()
-                        .parseSignedClaims(token)
-                        .getPayload()
-        );
+    public String getUsernameFromToken(String token) {
+        return verifyToken(token).subject();
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = getUsernameFromToken(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    public boolean isTokenValid(VerifiedToken token, UserDetails userDetails) {
+        return token.subject().equals(userDetails.getUsername()) && !token.isExpired();
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractClaims(token, Claims::getExpiration).before(new Date());
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
 }
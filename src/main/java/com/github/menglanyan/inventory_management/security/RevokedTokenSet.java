@@ -0,0 +1,237 @@
+package com.github.menglanyan.inventory_management.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Revoked token ids as 64-bit fingerprints: a Bloom filter answers the common "not revoked" case, and an exact set
+// of sorted fingerprints, bucketed by the day the token expires, confirms the rest. Expired days are dropped whole.
+// Costs about 8 bytes per token plus 10 Bloom filter bits.
+public class RevokedTokenSet {
+
+    private static final int BLOOM_HASHES = 7;
+
+    private static final int BLOOM_BITS_PER_ENTRY = 10;
+
+    private static final int INITIAL_CAPACITY = 1 << 16;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Expiry epoch day -> fingerprints of tokens expiring that day
+    private final NavigableMap<Long, Bucket> buckets = new TreeMap<>();
+
+    private long[] bloom;
+
+    private int bloomMask;
+
+    private int capacity;
+
+    private int size;
+
+    public RevokedTokenSet() {
+        resizeBloom(INITIAL_CAPACITY);
+    }
+
+    public static long fingerprint(String tokenId) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(tokenId.getBytes(StandardCharsets.UTF_8));
+            long fingerprint = 0;
+
+            for (int i = 0; i < Long.BYTES; i++) {
+                fingerprint = (fingerprint << 8) | (hash[i] & 0xFF);
+            }
+
+            return fingerprint;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Returns false if the fingerprint was already present for that day
+    public boolean add(long fingerprint, long expiryDay) {
+
+        lock.writeLock().lock();
+
+        try {
+            if (!buckets.computeIfAbsent(expiryDay, day -> new Bucket()).add(fingerprint)) {
+                return false;
+            }
+
+            size++;
+
+            if (size > capacity) {
+                resizeBloom(capacity * 2);
+            } else {
+                setBloomBits(fingerprint);
+            }
+
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+    }
+
+    public boolean contains(long fingerprint, long expiryDay) {
+
+        lock.readLock().lock();
+
+        try {
+            if (!mightContain(fingerprint)) {
+                return false;
+            }
+
+            Bucket bucket = buckets.get(expiryDay);
+
+            return bucket != null && bucket.contains(fingerprint);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+    }
+
+    // Drops every fingerprint expiring before the given day and returns how many were removed
+    public int pruneBefore(long day) {
+
+        lock.writeLock().lock();
+
+        try {
+            NavigableMap<Long, Bucket> expired = buckets.headMap(day, false);
+
+            if (expired.isEmpty()) {
+                return 0;
+            }
+
+            int removed = 0;
+
+            for (Bucket bucket : expired.values()) {
+                removed += bucket.size;
+            }
+
+            expired.clear();
+            size -= removed;
+
+            // Bloom filters cannot delete, so rebuild from the remaining days
+            resizeBloom(Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(size, 1)) * 2));
+
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+    }
+
+    public int size() {
+
+        lock.readLock().lock();
+
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+    }
+
+    public long footprintBytes() {
+
+        lock.readLock().lock();
+
+        try {
+            long bytes = (long) bloom.length * Long.BYTES;
+
+            for (Bucket bucket : buckets.values()) {
+                bytes += (long) bucket.fingerprints.length * Long.BYTES;
+            }
+
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+    }
+
+    private boolean mightContain(long fingerprint) {
+
+        int h1 = (int) fingerprint;
+        int h2 = (int) (fingerprint >>> 32);
+
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            int bit = (h1 + i * h2) & bloomMask;
+
+            if ((bloom[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void setBloomBits(long fingerprint) {
+
+        int h1 = (int) fingerprint;
+        int h2 = (int) (fingerprint >>> 32);
+
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            int bit = (h1 + i * h2) & bloomMask;
+            bloom[bit >>> 6] |= 1L << bit;
+        }
+
+    }
+
+    private void resizeBloom(int newCapacity) {
+
+        capacity = newCapacity;
+
+        // Power-of-two bit count so positions can be masked instead of divided
+        int bits = Integer.highestOneBit(newCapacity * BLOOM_BITS_PER_ENTRY - 1) << 1;
+        bloom = new long[Math.max(1, bits >>> 6)];
+        bloomMask = bits - 1;
+
+        for (Map.Entry<Long, Bucket> entry : buckets.entrySet()) {
+            Bucket bucket = entry.getValue();
+
+            for (int i = 0; i < bucket.size; i++) {
+                setBloomBits(bucket.fingerprints[i]);
+            }
+        }
+
+    }
+
+    private static class Bucket {
+
+        private long[] fingerprints = new long[4];
+
+        private int size;
+
+        boolean add(long fingerprint) {
+            int position = Arrays.binarySearch(fingerprints, 0, size, fingerprint);
+
+            if (position >= 0) {
+                return false;
+            }
+
+            int insertAt = -position - 1;
+
+            if (size == fingerprints.length) {
+                fingerprints = Arrays.copyOf(fingerprints, size + (size >> 1) + 1);
+            }
+
+            System.arraycopy(fingerprints, insertAt, fingerprints, insertAt + 1, size - insertAt);
+            fingerprints[insertAt] = fingerprint;
+            size++;
+
+            return true;
+        }
+
+        boolean contains(long fingerprint) {
+            return Arrays.binarySearch(fingerprints, 0, size, fingerprint) >= 0;
+        }
+    }
+}
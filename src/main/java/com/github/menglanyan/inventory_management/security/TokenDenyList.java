@@ -0,0 +1,196 @@
+package com.github.menglanyan.inventory_management.security;
+
+import com.github.menglanyan.inventory_management.entities.RevokedToken;
+import com.github.menglanyan.inventory_management.repositories.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Revoked tokens, checked in memory by AuthFilter and persisted so revocations survive a restart. Each instance
+// also polls the table for rows written by other instances, so with several nodes a revoked token is rejected
+// everywhere within one poll interval.
+@Component
+@Slf4j
+public class TokenDenyList {
+
+    // Polls re-read this far back, covering revocations that committed after a poll read past their timestamp
+    // and small clock differences between nodes
+    private static final long POLL_OVERLAP_SECONDS = 60;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    private final PlatformTransactionManager transactionManager;
+
+    private final long pollMillis;
+
+    private final RevokedTokenSet revokedTokens = new RevokedTokenSet();
+
+    private ScheduledExecutorService poller;
+
+    private volatile LocalDateTime polledAt;
+
+    private volatile long prunedBeforeDay;
+
+    private volatile long databasePrunedBeforeDay;
+
+    // A poll interval of 0 disables polling, for a single instance
+    public TokenDenyList(RevokedTokenRepository revokedTokenRepository, PlatformTransactionManager transactionManager,
+                         @Value("${revoked-tokens.poll-millis:5000}") long pollMillis) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.transactionManager = transactionManager;
+        this.pollMillis = pollMillis;
+    }
+
+    // Loaded before the application serves requests, so a revoked token is never accepted after a restart
+    @PostConstruct
+    void load() {
+
+        long start = System.currentTimeMillis();
+        LocalDate today = today();
+
+        polledAt = now();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            revokedTokenRepository.deleteExpiredBefore(today);
+
+            try (Stream<RevokedToken> rows = revokedTokenRepository.streamAll()) {
+                rows.forEach(row -> revokedTokens.add(row.getFingerprint(), row.getExpiresOn().toEpochDay()));
+            }
+        });
+
+        prunedBeforeDay = today.toEpochDay();
+        databasePrunedBeforeDay = today.toEpochDay();
+
+        log.info("Loaded {} revoked tokens in {} ms", revokedTokens.size(), System.currentTimeMillis() - start);
+
+        if (pollMillis > 0) {
+            poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "revoked-token-poller");
+                thread.setDaemon(true);
+                return thread;
+            });
+            poller.scheduleWithFixedDelay(this::pollSafely, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+        }
+
+    }
+
+    @PreDestroy
+    void stop() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+    }
+
+    // Picks up revocations written since the last poll, by this instance or any other
+    void poll() {
+
+        LocalDateTime pollStart = now();
+        LocalDateTime since = polledAt.minusSeconds(POLL_OVERLAP_SECONDS);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        transactionTemplate.executeWithoutResult(status -> revokedTokenRepository.findRevokedSince(since)
+                .forEach(row -> revokedTokens.add(row.getFingerprint(), row.getExpiresOn().toEpochDay())));
+
+        polledAt = pollStart;
+
+    }
+
+    public boolean isRevoked(VerifiedToken token) {
+
+        pruneIfDue();
+
+        return revokedTokens.contains(RevokedTokenSet.fingerprint(token.id()), expiryDay(token));
+    }
+
+    public void revoke(VerifiedToken token) {
+
+        long fingerprint = RevokedTokenSet.fingerprint(token.id());
+        long expiryDay = expiryDay(token);
+
+        if (revokedTokens.contains(fingerprint, expiryDay)) {
+            return;
+        }
+
+        revokedTokenRepository.save(RevokedToken.builder()
+                .fingerprint(fingerprint)
+                .expiresOn(LocalDate.ofEpochDay(expiryDay))
+                .revokedAt(now())
+                .build());
+
+        // Only once the row is committed; a rolled back logout leaves the token valid
+        afterCommit(() -> revokedTokens.add(fingerprint, expiryDay));
+
+        long today = today().toEpochDay();
+
+        if (today > databasePrunedBeforeDay) {
+            databasePrunedBeforeDay = today;
+            revokedTokenRepository.deleteExpiredBefore(LocalDate.ofEpochDay(today));
+        }
+
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            log.warn("Polling revoked tokens failed: {}", e.getMessage());
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+
+    }
+
+    // Drops days whose tokens have all expired, at most once a day
+    private void pruneIfDue() {
+
+        long today = today().toEpochDay();
+
+        if (today > prunedBeforeDay) {
+            prunedBeforeDay = today;
+            revokedTokens.pruneBefore(today);
+        }
+
+    }
+
+    private static long expiryDay(VerifiedToken token) {
+        return token.expiration().toInstant().atOffset(ZoneOffset.UTC).toLocalDate().toEpochDay();
+    }
+
+    private static LocalDate today() {
+        return LocalDate.now(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now(ZoneOffset.UTC);
+    }
+
+}
@@ -0,0 +1,12 @@
+package com.github.menglanyan.inventory_management.security;
+
+import java.util.Date;
+
+// Claims of a token whose signature has already been checked; id is the jti claim, or a digest of the whole token
+// for tokens issued before jti was added
+public record VerifiedToken(String id, String subject, Date expiration) {
+
+    public boolean isExpired() {
+        return expiration.before(new Date());
+    }
+}
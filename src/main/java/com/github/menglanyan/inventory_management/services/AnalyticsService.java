@@ -0,0 +1,20 @@
+package com.github.menglanyan.inventory_management.services;
+
+import com.github.menglanyan.inventory_management.dtos.Response;
+import com.github.menglanyan.inventory_management.enums.AnalyticsDimension;
+import com.github.menglanyan.inventory_management.enums.SalesWindow;
+import com.github.menglanyan.inventory_management.enums.TransactionStatus;
+
+import java.time.LocalDate;
+
+public interface AnalyticsService {
+
+    Response getSales(AnalyticsDimension dimension, TransactionStatus status, LocalDate from, LocalDate to);
+
+    Response getTopSellers(SalesWindow window, int limit);
+
+    Response getInventoryValuation();
+
+    Response reconcileInventoryValuation();
+
+}
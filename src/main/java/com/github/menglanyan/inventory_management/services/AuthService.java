@@ -10,4 +10,6 @@ public interface AuthService {
 
     Response loginUser(LoginRequest loginRequest);
 
+    Response logoutUser(String authorizationHeader);
+
 }
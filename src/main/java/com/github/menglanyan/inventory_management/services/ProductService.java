@@ -2,6 +2,8 @@ package com.github.menglanyan.inventory_management.services;
 
 import com.github.menglanyan.inventory_management.dtos.ProductDTO;
 import com.github.menglanyan.inventory_management.dtos.Response;
+import com.github.menglanyan.inventory_management.enums.ProductSortField;
+import org.springframework.data.domain.Sort;
 import org.springframework.web.multipart.MultipartFile;
 
 public interface ProductService {
@@ -10,12 +12,17 @@ public interface ProductService {
 
     Response updateProduct(ProductDTO productDTO, MultipartFile imageFile);
 
-    Response getAllProducts();
+    Response getAllProducts(Long categoryId, Integer minStock, Integer maxStock, ProductSortField sortField,
+                            Sort.Direction direction, String cursor, int size, String fields);
 
     Response getProductById(Long id);
 
     Response deleteProduct(Long id);
 
-    Response searchProduct(String input);
+    Response searchProduct(String input, int page, int size);
+
+    Response getProductChanges(long since, int size);
+
+    Response getLowStockProducts();
 
 }
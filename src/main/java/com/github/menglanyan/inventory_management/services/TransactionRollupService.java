@@ -0,0 +1,19 @@
+package com.github.menglanyan.inventory_management.services;
+
+import com.github.menglanyan.inventory_management.dtos.Response;
+import com.github.menglanyan.inventory_management.entities.Transaction;
+import com.github.menglanyan.inventory_management.enums.TransactionStatus;
+
+import java.util.List;
+
+public interface TransactionRollupService {
+
+    void recordTransactions(List<Transaction> transactions);
+
+    void recordStatusChange(Transaction transaction, TransactionStatus previousStatus);
+
+    Response getMonthlySummary(int month, int year);
+
+    Response rebuildRollups();
+
+}
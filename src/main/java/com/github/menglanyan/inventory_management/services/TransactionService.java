@@ -2,8 +2,13 @@ package com.github.menglanyan.inventory_management.services;
 
 import com.github.menglanyan.inventory_management.dtos.Response;
 import com.github.menglanyan.inventory_management.dtos.TransactionRequest;
+import com.github.menglanyan.inventory_management.enums.ExportFormat;
 import com.github.menglanyan.inventory_management.enums.TransactionStatus;
 
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.List;
+
 public interface TransactionService {
 
     Response purchase(TransactionRequest transactionRequest);
@@ -12,12 +17,18 @@ public interface TransactionService {
 
     Response returnToSupplier(TransactionRequest transactionRequest);
 
-    Response getAllTransactions(int page, int size, String searchValue);
+    Response processBatch(List<TransactionRequest> transactionRequests);
+
+    Response getAllTransactions(int page, int size, String searchValue, String fields);
+
+    Response getTransactionsByCursor(String cursor, int size, String searchValue, boolean withTotal, String fields);
 
     Response getTransactionById(Long id);
 
     Response getTransactionsByMonthAndYear(int month, int year);
 
+    void exportTransactions(ExportFormat format, LocalDate from, LocalDate to, OutputStream outputStream);
+
     Response updateTransactionStatus(Long transactionId, TransactionStatus transactionStatus);
 
 }
@@ -4,6 +4,8 @@ import com.github.menglanyan.inventory_management.dtos.Response;
 import com.github.menglanyan.inventory_management.dtos.UserDTO;
 import com.github.menglanyan.inventory_management.entities.User;
 
+import java.time.LocalDate;
+
 public interface UserService {
 
     Response getAllUsers();
@@ -16,6 +18,6 @@ public interface UserService {
 
     Response deleteUser(Long id);
 
-    Response getUserTransactions(Long id);
+    Response getUserTransactions(Long id, LocalDate from, LocalDate to, int page, int size);
 
 }
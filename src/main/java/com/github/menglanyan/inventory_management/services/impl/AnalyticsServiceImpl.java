@@ -0,0 +1,197 @@
+package com.github.menglanyan.inventory_management.services.impl;
+
+import com.github.menglanyan.inventory_management.analytics.ColumnarAnalyticsEngine;
+import com.github.menglanyan.inventory_management.analytics.CategoryValuationLedger;
+import com.github.menglanyan.inventory_management.analytics.TopSellerTracker;
+import com.github.menglanyan.inventory_management.dtos.CategoryValuationDTO;
+import com.github.menglanyan.inventory_management.dtos.Response;
+import com.github.menglanyan.inventory_management.dtos.SalesAnalyticsDTO;
+import com.github.menglanyan.inventory_management.dtos.TopSellersDTO;
+import com.github.menglanyan.inventory_management.entities.Category;
+import com.github.menglanyan.inventory_management.entities.Product;
+import com.github.menglanyan.inventory_management.enums.AnalyticsDimension;
+import com.github.menglanyan.inventory_management.enums.SalesWindow;
+import com.github.menglanyan.inventory_management.enums.TransactionStatus;
+import com.github.menglanyan.inventory_management.exceptions.NameValueRequiredException;
+import com.github.menglanyan.inventory_management.repositories.CategoryRepository;
+import com.github.menglanyan.inventory_management.repositories.CategoryValue;
+import com.github.menglanyan.inventory_management.repositories.ProductRepository;
+import com.github.menglanyan.inventory_management.repositories.SalesAggregate;
+import com.github.menglanyan.inventory_management.repositories.TransactionRepository;
+import com.github.menglanyan.inventory_management.services.AnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    // Default range when the dashboard does not pass one
+    private static final int DEFAULT_DAYS = 30;
+
+    // Well under the counters per bucket, where the ranking is reliable
+    private static final int MAX_TOP_SELLERS = 100;
+
+    private final TransactionRepository transactionRepository;
+
+    private final ProductRepository productRepository;
+
+    private final TopSellerTracker topSellerTracker;
+
+    private final CategoryValuationLedger categoryValuationLedger;
+
+    private final CategoryRepository categoryRepository;
+
+    // Present only with analytics.columnar.enabled=true
+    private final ObjectProvider<ColumnarAnalyticsEngine> columnarAnalyticsEngine;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Response getSales(AnalyticsDimension dimension, TransactionStatus status, LocalDate from, LocalDate to) {
+
+        LocalDate lastDay = to != null ? to : LocalDate.now();
+
+        LocalDate firstDay = from != null ? from : lastDay.minusDays(DEFAULT_DAYS - 1);
+
+        if (firstDay.isAfter(lastDay)) {
+            throw new NameValueRequiredException("from must not be after to");
+        }
+
+        ColumnarAnalyticsEngine engine = columnarAnalyticsEngine.getIfAvailable();
+
+        // Both days are inclusive, so the range ends at the start of the day after
+        List<SalesAggregate> aggregates = engine == null ? null
+                : engine.aggregateSales(dimension, status, firstDay, lastDay.plusDays(1));
+
+        // The database answers when the engine is disabled or still loading
+        if (aggregates == null) {
+            aggregates = transactionRepository.aggregateSales(dimension, status, firstDay.atStartOfDay(),
+                    lastDay.plusDays(1).atStartOfDay());
+        }
+
+        List<SalesAnalyticsDTO> series = aggregates.stream()
+                .map(this::toDTO)
+                .toList();
+
+        return Response.builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Sales Analytics Retrieved Successfully")
+                .salesAnalytics(series)
+                .build();
+
+    }
+
+    @Override
+    public Response getTopSellers(SalesWindow window, int limit) {
+
+        TopSellerTracker.TopSellers top = topSellerTracker.top(window, Math.max(1, Math.min(limit, MAX_TOP_SELLERS)));
+
+        Map<Long, String> names = productRepository.findAllById(top.sellers().stream()
+                        .map(TopSellerTracker.Seller::productId)
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Product::getName));
+
+        List<TopSellersDTO.Seller> sellers = top.sellers().stream()
+                .map(seller -> new TopSellersDTO.Seller(seller.productId(), names.get(seller.productId()),
+                        seller.unitsSold(), seller.minUnitsSold()))
+                .toList();
+
+        return Response.builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Top Sellers Retrieved Successfully")
+                .topSellers(new TopSellersDTO(window, top.totalUnits(), top.maxError(), sellers))
+                .build();
+
+    }
+
+    @Override
+    public Response getInventoryValuation() {
+
+        Map<Long, BigDecimal> totals = categoryValuationLedger.totals();
+
+        // Until the ledger has loaded, compute it the slow way
+        if (totals == null) {
+            totals = new HashMap<>();
+
+            for (CategoryValue categoryValue : productRepository.sumValueByCategory()) {
+                totals.put(categoryValue.categoryId(),
+                        categoryValue.value() == null ? BigDecimal.ZERO : categoryValue.value());
+            }
+        }
+
+        Map<Long, String> names = categoryNames();
+
+        List<CategoryValuationDTO> valuations = new ArrayList<>();
+
+        totals.forEach((categoryId, value) ->
+                valuations.add(new CategoryValuationDTO(categoryId, names.get(categoryId), value, null)));
+
+        valuations.sort(Comparator.comparing(CategoryValuationDTO::getCategoryId,
+                Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        return Response.builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Inventory Valuation Retrieved Successfully")
+                .categoryValuations(valuations)
+                .inventoryValue(totals.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add))
+                .build();
+
+    }
+
+    @Override
+    public Response reconcileInventoryValuation() {
+
+        List<CategoryValuationLedger.Discrepancy> discrepancies = categoryValuationLedger.reconcile();
+
+        if (discrepancies == null) {
+            return Response.builder()
+                    .statusCode(HttpStatus.CONFLICT.value())
+                    .message("Inventory Valuation Not Reconciled, Writes Kept Committing; Try Again")
+                    .build();
+        }
+
+        Map<Long, String> names = categoryNames();
+
+        List<CategoryValuationDTO> drifted = discrepancies.stream()
+                .map(discrepancy -> new CategoryValuationDTO(discrepancy.categoryId(),
+                        names.get(discrepancy.categoryId()), discrepancy.runningValue(),
+                        discrepancy.recomputedValue()))
+                .toList();
+
+        return Response.builder()
+                .statusCode(HttpStatus.OK.value())
+                .message(drifted.isEmpty()
+                        ? "Inventory Valuation Reconciled, No Drift"
+                        : "Inventory Valuation Reconciled, Drift Corrected")
+                .categoryValuations(drifted)
+                .build();
+
+    }
+
+    // Cached by the second-level query cache
+    private Map<Long, String> categoryNames() {
+        return categoryRepository.findAll(Sort.by("id")).stream()
+                .collect(Collectors.toMap(Category::getId, Category::getName));
+    }
+
+    private SalesAnalyticsDTO toDTO(SalesAggregate aggregate) {
+        return new SalesAnalyticsDTO(aggregate.day(), aggregate.id(), aggregate.name(), aggregate.transactionType(),
+                aggregate.transactionCount(),
+                aggregate.units() == null ? 0 : aggregate.units(),
+                aggregate.revenue() == null ? BigDecimal.ZERO : aggregate.revenue());
+    }
+}
@@ -9,12 +9,14 @@ import com.github.menglanyan.inventory_management.exceptions.InvalidCredentialsE
 import com.github.menglanyan.inventory_management.exceptions.NotFoundException;
 import com.github.menglanyan.inventory_management.repositories.UserRepository;
 import com.github.menglanyan.inventory_management.security.JwtUtils;
+import com.github.menglanyan.inventory_management.security.TokenDenyList;
 import com.github.menglanyan.inventory_management.services.AuthService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
@@ -27,6 +29,8 @@ public class AuthServiceImpl implements AuthService {
 
     private final JwtUtils jwtUtils;
 
+    private final TokenDenyList tokenDenyList;
+
     @Override
     public Response registerUser(RegisterRequest registerRequest) {
 
@@ -71,4 +75,21 @@ public class AuthServiceImpl implements AuthService {
                 .expirationTime("6 months")
                 .build();
     }
+
+    @Override
+    @Transactional
+    public Response logoutUser(String authorizationHeader) {
+
+        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            throw new InvalidCredentialsException("Bearer Token Required");
+        }
+
+        // Strip "Bearer " which is 7 characters to get raw token
+        tokenDenyList.revoke(jwtUtils.verifyToken(authorizationHeader.substring(7)));
+
+        return Response.builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Logout Successful")
+                .build();
+    }
 }
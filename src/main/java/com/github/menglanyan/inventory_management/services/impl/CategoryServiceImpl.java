@@ -1,18 +1,27 @@
 package com.github.menglanyan.inventory_management.services.impl;
 
+import com.github.menglanyan.inventory_management.analytics.CategoryValuationLedger;
+import com.github.menglanyan.inventory_management.cache.CatalogVersions;
 import com.github.menglanyan.inventory_management.dtos.CategoryDTO;
 import com.github.menglanyan.inventory_management.dtos.Response;
 import com.github.menglanyan.inventory_management.entities.Category;
+import com.github.menglanyan.inventory_management.enums.CatalogAggregate;
+import com.github.menglanyan.inventory_management.events.CategoryDeletedEvent;
+import com.github.menglanyan.inventory_management.events.CategorySavedEvent;
+import com.github.menglanyan.inventory_management.events.ProductDeletedEvent;
 import com.github.menglanyan.inventory_management.exceptions.NotFoundException;
+import com.github.menglanyan.inventory_management.mappers.CategoryMapper;
 import com.github.menglanyan.inventory_management.repositories.CategoryRepository;
+import com.github.menglanyan.inventory_management.repositories.ProductRepository;
 import com.github.menglanyan.inventory_management.services.CategoryService;
+import com.github.menglanyan.inventory_management.sync.ProductChangeLog;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -23,15 +32,25 @@ public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
 
-    private final ModelMapper modelMapper;
+    private final ProductRepository productRepository;
+
+    private final CatalogVersions catalogVersions;
+
+    private final ProductChangeLog productChangeLog;
+
+    private final CategoryValuationLedger categoryValuationLedger;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     @Override
     public Response createCategory(CategoryDTO categoryDTO) {
 
-        Category categoryToSave = modelMapper.map(categoryDTO, Category.class);
+        Category categoryToSave = CategoryMapper.toEntity(categoryDTO);
 
         categoryRepository.save(categoryToSave);
 
+        catalogVersions.bump(CatalogAggregate.CATEGORIES);
+
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Category Created Successfully")
@@ -44,9 +63,7 @@ public class CategoryServiceImpl implements CategoryService {
 
         List<Category> categories = categoryRepository.findAll(Sort.by(Sort.Direction.DESC, "id"));
 
-        categories.forEach(category -> category.setProducts(null));
-
-        List<CategoryDTO> categoryDTOList = modelMapper.map(categories, new TypeToken<List<CategoryDTO>>() {}.getType());
+        List<CategoryDTO> categoryDTOList = CategoryMapper.toShallowDTOs(categories);
 
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
@@ -62,7 +79,7 @@ public class CategoryServiceImpl implements CategoryService {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Category Not Found"));
 
-        CategoryDTO categoryDTO = modelMapper.map(category, CategoryDTO.class);
+        CategoryDTO categoryDTO = CategoryMapper.toDTOWithProducts(category);
 
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
@@ -73,6 +90,7 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
+    @Transactional
     public Response updateCategory(Long id, CategoryDTO categoryDTO) {
 
         Category existingCategory = categoryRepository.findById(id)
@@ -82,6 +100,10 @@ public class CategoryServiceImpl implements CategoryService {
 
         categoryRepository.save(existingCategory);
 
+        applicationEventPublisher.publishEvent(new CategorySavedEvent(existingCategory));
+
+        catalogVersions.bump(CatalogAggregate.CATEGORIES);
+
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Category Updated Successfully")
@@ -90,13 +112,27 @@ public class CategoryServiceImpl implements CategoryService {
     }
 
     @Override
+    @Transactional
     public Response deleteCategory(Long id) {
 
         Category existingCategory = categoryRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Category Not Found"));
 
+        // Its products are deleted with it by cascade. Locked so the values removed from the ledger are the ones
+        // deleted, not ones a concurrent update replaced.
+        productRepository.findByCategoryIdForUpdate(id).forEach(product -> {
+            productChangeLog.recordDeleted(product.getId());
+            applicationEventPublisher.publishEvent(new ProductDeletedEvent(product.getId()));
+            categoryValuationLedger.recordRemoved(product);
+        });
+
         categoryRepository.deleteById(id);
 
+        applicationEventPublisher.publishEvent(new CategoryDeletedEvent(id));
+
+        // The cascaded products' versions move on with their ProductDeletedEvents
+        catalogVersions.bump(CatalogAggregate.CATEGORIES);
+
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Category Deleted Successfully")
@@ -1,26 +1,54 @@
 package com.github.menglanyan.inventory_management.services.impl;
 
+import com.github.menglanyan.inventory_management.analytics.CategoryValuationLedger;
+import com.github.menglanyan.inventory_management.cache.CatalogVersions;
 import com.github.menglanyan.inventory_management.dtos.ProductDTO;
 import com.github.menglanyan.inventory_management.dtos.Response;
 import com.github.menglanyan.inventory_management.entities.Category;
 import com.github.menglanyan.inventory_management.entities.Product;
+import com.github.menglanyan.inventory_management.entities.ProductTombstone;
+import com.github.menglanyan.inventory_management.enums.ProductField;
+import com.github.menglanyan.inventory_management.enums.ProductSortField;
+import com.github.menglanyan.inventory_management.events.ProductDeletedEvent;
+import com.github.menglanyan.inventory_management.events.ProductSavedEvent;
+import com.github.menglanyan.inventory_management.events.StockChangedEvent;
+import com.github.menglanyan.inventory_management.exceptions.NameValueRequiredException;
 import com.github.menglanyan.inventory_management.exceptions.NotFoundException;
+import com.github.menglanyan.inventory_management.mappers.ProductMapper;
 import com.github.menglanyan.inventory_management.repositories.CategoryRepository;
+import com.github.menglanyan.inventory_management.repositories.ProductCatalogQuery;
 import com.github.menglanyan.inventory_management.repositories.ProductRepository;
+import com.github.menglanyan.inventory_management.repositories.ProductRow;
+import com.github.menglanyan.inventory_management.repositories.ProductTombstoneRepository;
+import com.github.menglanyan.inventory_management.search.ProductSearchHit;
+import com.github.menglanyan.inventory_management.search.ProductSearchIndex;
+import com.github.menglanyan.inventory_management.search.ProductSearchResult;
 import com.github.menglanyan.inventory_management.services.ProductService;
+import com.github.menglanyan.inventory_management.stream.LowStockItem;
+import com.github.menglanyan.inventory_management.stream.LowStockMonitor;
+import com.github.menglanyan.inventory_management.sync.ProductChangeLog;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -31,12 +59,32 @@ public class ProductServiceImpl implements ProductService {
 
     private final CategoryRepository categoryRepository;
 
-    private final ModelMapper modelMapper;
+    private final ProductSearchIndex productSearchIndex;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final CatalogVersions catalogVersions;
+
+    private final ProductTombstoneRepository productTombstoneRepository;
+
+    private final ProductChangeLog productChangeLog;
+
+    private final CategoryValuationLedger categoryValuationLedger;
+
+    private final LowStockMonitor lowStockMonitor;
+
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+
+    private static final int MAX_CATALOG_PAGE_SIZE = 500;
+
+    // Marks a null sort value in a catalog cursor
+    private static final String NULL_SORT_VALUE = "~";
 
     private static final String IMAGE_DIRECTORY = System.getProperty("user.dir") + "/product-images/";
 
 
     @Override
+    @Transactional
     public Response saveProduct(ProductDTO productDTO, MultipartFile imageFile) {
 
         Category category = categoryRepository.findById(productDTO.getCategoryId())
@@ -47,6 +95,7 @@ public class ProductServiceImpl implements ProductService {
                 .sku(productDTO.getSku())
                 .price(productDTO.getPrice())
                 .stockQuantity(productDTO.getStockQuantity())
+                .reorderThreshold(productDTO.getReorderThreshold())
                 .description(productDTO.getDescription())
                 .category(category)
                 .build();
@@ -58,6 +107,14 @@ public class ProductServiceImpl implements ProductService {
 
         productRepository.save(productToSave);
 
+        applicationEventPublisher.publishEvent(new ProductSavedEvent(productToSave));
+
+        categoryValuationLedger.recordAdded(productToSave);
+
+        productChangeLog.recordChanged(productToSave.getId());
+
+        catalogVersions.bumpProduct(productToSave.getId());
+
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Product Saved Successfully")
@@ -66,11 +123,17 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    @Transactional
     public Response updateProduct(ProductDTO productDTO, MultipartFile imageFile) {
 
-        Product existingProduct = productRepository.findById(productDTO.getProductId())
+        // Locked so the stock read here stays the base of the ledger and the stock event until commit
+        Product existingProduct = productRepository.findByIdForUpdate(productDTO.getProductId())
                 .orElseThrow(() -> new NotFoundException("Product Not Found"));
 
+        Long previousCategoryId = CategoryValuationLedger.categoryIdOf(existingProduct);
+
+        BigDecimal previousValue = CategoryValuationLedger.valueOf(existingProduct);
+
         if (imageFile != null && !imageFile.isEmpty()) {
             String imagePath = saveImage(imageFile);
             existingProduct.setImageUrl(imagePath);
@@ -98,12 +161,35 @@ public class ProductServiceImpl implements ProductService {
             existingProduct.setPrice(productDTO.getPrice());
         }
 
+        // A product saved without a stock count holds none
+        int previousStock = Objects.requireNonNullElse(existingProduct.getStockQuantity(), 0);
+
         if (productDTO.getStockQuantity() != null && productDTO.getStockQuantity() >= 0) {
             existingProduct.setStockQuantity(productDTO.getStockQuantity());
         }
 
+        // A negative threshold stops watching the product
+        if (productDTO.getReorderThreshold() != null) {
+            existingProduct.setReorderThreshold(productDTO.getReorderThreshold() >= 0
+                    ? productDTO.getReorderThreshold() : null);
+        }
+
         productRepository.save(existingProduct);
 
+        applicationEventPublisher.publishEvent(new ProductSavedEvent(existingProduct));
+
+        int stock = Objects.requireNonNullElse(existingProduct.getStockQuantity(), 0);
+
+        if (stock != previousStock) {
+            applicationEventPublisher.publishEvent(new StockChangedEvent(existingProduct, stock - previousStock));
+        }
+
+        categoryValuationLedger.recordChange(previousCategoryId, previousValue, existingProduct);
+
+        productChangeLog.recordChanged(existingProduct.getId());
+
+        catalogVersions.bumpProduct(existingProduct.getId());
+
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Product Updated Successfully")
@@ -112,16 +198,118 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    public Response getAllProducts() {
+    public Response getAllProducts(Long categoryId, Integer minStock, Integer maxStock, ProductSortField sortField,
+                                   Sort.Direction direction, String cursor, int size, String fields) {
+
+        int pageSize = Math.max(1, Math.min(size, MAX_CATALOG_PAGE_SIZE));
+
+        Set<ProductField> selectedFields = ProductField.parse(fields);
+
+        String[] position = decodeCatalogCursor(cursor, sortField);
+
+        // Fetch one extra row to know whether another page exists, without a COUNT
+        ProductCatalogQuery catalogQuery = new ProductCatalogQuery(
+                categoryId, minStock, maxStock, sortField, direction,
+                position == null ? null : parseSortValue(sortField, position[2]),
+                position == null ? null : Long.valueOf(position[1]),
+                pageSize + 1);
 
-        List<Product> products = productRepository.findAll(Sort.by(Sort.Direction.DESC, "id"));
+        List<ProductDTO> productDTOs;
+        String nextCursor = null;
 
-        List<ProductDTO> productDTOList = modelMapper.map(products, new TypeToken<List<ProductDTO>>() {}.getType());
+        if (selectedFields == ProductField.ALL) {
+            List<Product> products = productRepository.findCatalogPage(catalogQuery);
+
+            if (products.size() > pageSize) {
+                products = products.subList(0, pageSize);
+                Product last = products.get(pageSize - 1);
+                nextCursor = encodeCatalogCursor(sortField, last.getId(), sortValue(sortField, last));
+            }
+
+            productDTOs = ProductMapper.toDTOs(products);
+        } else {
+            // Sparse view: only the requested columns (plus id and the sort column) are selected
+            List<ProductRow> rows = productRepository.findCatalogRows(catalogQuery, selectedFields);
+
+            if (rows.size() > pageSize) {
+                rows = rows.subList(0, pageSize);
+                ProductRow last = rows.get(pageSize - 1);
+                nextCursor = encodeCatalogCursor(sortField, last.id(), sortValue(sortField, last));
+            }
+
+            productDTOs = ProductMapper.toDTOs(rows, selectedFields);
+        }
 
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Products Retrieved Successfully")
-                .products(productDTOList)
+                .products(productDTOs)
+                .nextCursor(nextCursor)
+                .build();
+
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Response getProductChanges(long since, int size) {
+
+        int pageSize = Math.max(1, Math.min(size, MAX_CATALOG_PAGE_SIZE));
+
+        // Nothing past the horizon, where a change still in flight could later appear below what was returned.
+        // All reads in one transaction, so upserts and tombstones come from the same snapshot.
+        long horizon = productChangeLog.horizon(since);
+
+        List<Product> changed = productRepository.findChangedBetween(since, horizon, Limit.of(pageSize + 1));
+        List<ProductTombstone> deleted = productTombstoneRepository
+                .findByChangeSeqGreaterThanAndChangeSeqLessThanEqualOrderByChangeSeqAsc(
+                        since, horizon, Limit.of(pageSize + 1));
+
+        // Merge the two by sequence number and keep the first pageSize changes
+        List<Product> products = new ArrayList<>();
+        List<Long> deletedProductIds = new ArrayList<>();
+        long lastChangeSeq = since;
+        int p = 0;
+        int d = 0;
+
+        while (p + d < pageSize && (p < changed.size() || d < deleted.size())) {
+            if (d == deleted.size()
+                    || (p < changed.size() && changed.get(p).getChangeSeq() < deleted.get(d).getChangeSeq())) {
+                lastChangeSeq = changed.get(p).getChangeSeq();
+                products.add(changed.get(p++));
+            } else {
+                lastChangeSeq = deleted.get(d).getChangeSeq();
+                deletedProductIds.add(deleted.get(d++).getProductId());
+            }
+        }
+
+        boolean hasMore = p < changed.size() || d < deleted.size();
+
+        // Once everything up to the horizon is returned, the client can continue from there
+        return Response.builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Product Changes Retrieved Successfully")
+                .products(ProductMapper.toDTOs(products))
+                .deletedProductIds(deletedProductIds)
+                .lastChangeSeq(hasMore ? lastChangeSeq : horizon)
+                .hasMore(hasMore)
+                .build();
+
+    }
+
+    @Override
+    public Response getLowStockProducts() {
+
+        List<LowStockItem> items = lowStockMonitor.lowStockItems();
+
+        // Until the monitor has loaded, ask the database
+        if (items == null) {
+            items = LowStockMonitor.sorted(productRepository.findLowStock());
+        }
+
+        return Response.builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Low Stock Products Retrieved Successfully")
+                .products(ProductMapper.toLowStockDTOs(items))
                 .build();
 
     }
@@ -132,7 +320,7 @@ public class ProductServiceImpl implements ProductService {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Product Not Found"));
 
-        ProductDTO productDTO = modelMapper.map(product, ProductDTO.class);
+        ProductDTO productDTO = ProductMapper.toDTO(product);
 
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
@@ -143,13 +331,22 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    @Transactional
     public Response deleteProduct(Long id) {
 
-        Product existingProduct = productRepository.findById(id)
+        // Locked so the value removed from the ledger is the one deleted, not one a concurrent update replaced
+        Product existingProduct = productRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new NotFoundException("Product Not Found"));
 
         productRepository.deleteById(id);
 
+        // Also moves its catalog versions on
+        applicationEventPublisher.publishEvent(new ProductDeletedEvent(id));
+
+        categoryValuationLedger.recordRemoved(existingProduct);
+
+        productChangeLog.recordDeleted(id);
+
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Product Deleted Successfully")
@@ -158,24 +355,120 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    public Response searchProduct(String input) {
+    public Response searchProduct(String input, int page, int size) {
+
+        int pageSize = Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+
+        ProductSearchResult result = productSearchIndex.search(input, Math.max(page, 0) * pageSize, pageSize);
 
-        List<Product> products = productRepository.findByNameContainingOrDescriptionContaining(input, input);
+        // Until the search index is built, fall back to the unranked database match
+        if (result == null) {
+            List<Product> products = productRepository.findByNameContainingOrDescriptionContaining(input, input);
 
-        if (products.isEmpty()) {
-            throw new NotFoundException("Products Not Found");
+            int from = Math.min(Math.max(page, 0) * pageSize, products.size());
+
+            return Response.builder()
+                    .statusCode(HttpStatus.OK.value())
+                    .message("Products Retrieved Successfully")
+                    .products(ProductMapper.toDTOs(products.subList(from, Math.min(from + pageSize, products.size()))))
+                    .totalElements((long) products.size())
+                    .totalPages((products.size() + pageSize - 1) / pageSize)
+                    .build();
         }
 
-        List<ProductDTO> productDTOList = modelMapper.map(products, new TypeToken<List<ProductDTO>>() {}.getType());
+        Map<Long, Product> products = productRepository.findAllById(
+                        result.hits().stream().map(ProductSearchHit::productId).toList())
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        // Keep the ranking order of the hits
+        List<ProductDTO> productDTOList = result.hits().stream()
+                .map(hit -> products.get(hit.productId()))
+                .filter(Objects::nonNull)
+                .map(ProductMapper::toDTO)
+                .toList();
 
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Products Retrieved Successfully")
                 .products(productDTOList)
+                .totalElements((long) result.totalHits())
+                .totalPages((result.totalHits() + pageSize - 1) / pageSize)
                 .build();
 
     }
 
+    // The cursor is "sortField:id:value" of the last returned product, base64 encoded so clients treat it as opaque
+    private String encodeCatalogCursor(ProductSortField sortField, Long lastId, Object value) {
+
+        String position = sortField.name() + ":" + lastId + ":"
+                + (value == null ? NULL_SORT_VALUE : "=" + value);
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Object sortValue(ProductSortField sortField, Product product) {
+        return switch (sortField) {
+            case ID -> product.getId();
+            case NAME -> product.getName();
+            case PRICE -> product.getPrice();
+            case STOCK -> product.getStockQuantity();
+        };
+    }
+
+    private Object sortValue(ProductSortField sortField, ProductRow row) {
+        return switch (sortField) {
+            case ID -> row.id();
+            case NAME -> row.name();
+            case PRICE -> row.price();
+            case STOCK -> row.stockQuantity();
+        };
+    }
+
+    private String[] decodeCatalogCursor(String cursor, ProductSortField sortField) {
+
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split(":", 3);
+
+            if (position.length != 3 || !position[0].equals(sortField.name())) {
+                throw new NameValueRequiredException("Invalid cursor");
+            }
+
+            Long.parseLong(position[1]);
+
+            return position;
+        } catch (IllegalArgumentException e) {
+            throw new NameValueRequiredException("Invalid cursor");
+        }
+
+    }
+
+    private Object parseSortValue(ProductSortField sortField, String encoded) {
+
+        if (encoded.equals(NULL_SORT_VALUE)) {
+            return null;
+        }
+
+        String value = encoded.substring(1);
+
+        try {
+            return switch (sortField) {
+                case ID -> Long.valueOf(value);
+                case NAME -> value;
+                case PRICE -> new BigDecimal(value);
+                case STOCK -> Integer.valueOf(value);
+            };
+        } catch (NumberFormatException e) {
+            throw new NameValueRequiredException("Invalid cursor");
+        }
+
+    }
+
     private String saveImage(MultipartFile imageFile) {
 
         // Validate if it is image file and greater than 1GB
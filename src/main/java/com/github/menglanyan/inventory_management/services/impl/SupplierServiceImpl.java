@@ -1,18 +1,23 @@
 package com.github.menglanyan.inventory_management.services.impl;
 
+import com.github.menglanyan.inventory_management.cache.CatalogVersions;
 import com.github.menglanyan.inventory_management.dtos.Response;
 import com.github.menglanyan.inventory_management.dtos.SupplierDTO;
 import com.github.menglanyan.inventory_management.entities.Supplier;
+import com.github.menglanyan.inventory_management.enums.CatalogAggregate;
+import com.github.menglanyan.inventory_management.events.SupplierDeletedEvent;
+import com.github.menglanyan.inventory_management.events.SupplierSavedEvent;
 import com.github.menglanyan.inventory_management.exceptions.NotFoundException;
+import com.github.menglanyan.inventory_management.mappers.SupplierMapper;
 import com.github.menglanyan.inventory_management.repositories.SupplierRepository;
 import com.github.menglanyan.inventory_management.services.SupplierService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -23,15 +28,19 @@ public class SupplierServiceImpl implements SupplierService {
 
     private final SupplierRepository supplierRepository;
 
-    private final ModelMapper modelMapper;
+    private final CatalogVersions catalogVersions;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     @Override
     public Response addSupplier(SupplierDTO supplierDTO) {
 
-        Supplier supplierToSave = modelMapper.map(supplierDTO, Supplier.class);
+        Supplier supplierToSave = SupplierMapper.toEntity(supplierDTO);
 
         supplierRepository.save(supplierToSave);
 
+        catalogVersions.bump(CatalogAggregate.SUPPLIERS);
+
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Supplier Added Successfully")
@@ -40,6 +49,7 @@ public class SupplierServiceImpl implements SupplierService {
     }
 
     @Override
+    @Transactional
     public Response updateSupplier(Long id, SupplierDTO supplierDTO) {
 
         Supplier existingSupplier = supplierRepository.findById(id)
@@ -59,6 +69,10 @@ public class SupplierServiceImpl implements SupplierService {
 
         supplierRepository.save(existingSupplier);
 
+        applicationEventPublisher.publishEvent(new SupplierSavedEvent(existingSupplier));
+
+        catalogVersions.bump(CatalogAggregate.SUPPLIERS);
+
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Supplier Updated Successfully")
@@ -70,7 +84,7 @@ public class SupplierServiceImpl implements SupplierService {
 
         List<Supplier> suppliers = supplierRepository.findAll(Sort.by(Sort.Direction.DESC, "id"));
 
-        List<SupplierDTO> supplierDTOList = modelMapper.map(suppliers, new TypeToken<List<SupplierDTO>>() {}.getType());
+        List<SupplierDTO> supplierDTOList = SupplierMapper.toDTOs(suppliers);
 
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
@@ -86,7 +100,7 @@ public class SupplierServiceImpl implements SupplierService {
         Supplier supplier = supplierRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Supplier Not Found"));
 
-        SupplierDTO supplierDTO = modelMapper.map(supplier, SupplierDTO.class);
+        SupplierDTO supplierDTO = SupplierMapper.toDTO(supplier);
 
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
@@ -96,6 +110,7 @@ public class SupplierServiceImpl implements SupplierService {
     }
 
     @Override
+    @Transactional
     public Response deleteSupplier(Long id) {
 
         Supplier existingSupplier = supplierRepository.findById(id)
@@ -103,6 +118,10 @@ public class SupplierServiceImpl implements SupplierService {
 
         supplierRepository.deleteById(id);
 
+        applicationEventPublisher.publishEvent(new SupplierDeletedEvent(id));
+
+        catalogVersions.bump(CatalogAggregate.SUPPLIERS);
+
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Supplier Deleted Successfully")
@@ -0,0 +1,168 @@
+package com.github.menglanyan.inventory_management.services.impl;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.github.menglanyan.inventory_management.entities.Transaction;
+import com.github.menglanyan.inventory_management.enums.ExportFormat;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Writes transactions one row at a time, so an export never holds more than the current row in memory
+public class TransactionExportWriter {
+
+    private static final String CSV_HEADER = "id,transactionType,status,totalProducts,totalPrice,description,note," +
+            "createdAt,updatedAt,productId,userId,supplierId\n";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final ExportFormat format;
+
+    private final OutputStream outputStream;
+
+    public TransactionExportWriter(ExportFormat format, OutputStream outputStream) {
+        this.format = format;
+        this.outputStream = outputStream;
+    }
+
+    // Writes every row of the stream and runs onChunk after each chunkSize rows, returning the row count
+    public long writeAll(Stream<Transaction> transactions, int chunkSize, Runnable onChunk) throws IOException {
+
+        long count = 0;
+
+        Iterator<Transaction> iterator = transactions.iterator();
+
+        if (format == ExportFormat.CSV) {
+
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+
+            writer.write(CSV_HEADER);
+
+            while (iterator.hasNext()) {
+                writeCsvRow(writer, iterator.next());
+
+                if (++count % chunkSize == 0) {
+                    writer.flush();
+                    onChunk.run();
+                }
+            }
+
+            writer.flush();
+
+        } else {
+
+            JsonGenerator generator = JSON_FACTORY.createGenerator(outputStream, JsonEncoding.UTF8);
+
+            // One JSON object per line
+            generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+
+            while (iterator.hasNext()) {
+                writeJsonRow(generator, iterator.next());
+
+                if (++count % chunkSize == 0) {
+                    generator.flush();
+                    onChunk.run();
+                }
+            }
+
+            if (count > 0) {
+                generator.writeRaw('\n');
+            }
+
+            generator.flush();
+        }
+
+        return count;
+
+    }
+
+    private void writeJsonRow(JsonGenerator generator, Transaction transaction) throws IOException {
+
+        generator.writeStartObject();
+        generator.writeNumberField("id", transaction.getId());
+        writeJsonString(generator, "transactionType", transaction.getTransactionType());
+        writeJsonString(generator, "status", transaction.getStatus());
+
+        if (transaction.getTotalProducts() != null) {
+            generator.writeNumberField("totalProducts", transaction.getTotalProducts());
+        }
+
+        if (transaction.getTotalPrice() != null) {
+            generator.writeNumberField("totalPrice", transaction.getTotalPrice());
+        }
+
+        writeJsonString(generator, "description", transaction.getDescription());
+        writeJsonString(generator, "note", transaction.getNote());
+        writeJsonString(generator, "createdAt", transaction.getCreatedAt());
+        writeJsonString(generator, "updatedAt", transaction.getUpdatedAt());
+
+        // Reading the id of a lazy association does not initialize it
+        if (transaction.getProduct() != null) {
+            generator.writeNumberField("productId", transaction.getProduct().getId());
+        }
+
+        if (transaction.getUser() != null) {
+            generator.writeNumberField("userId", transaction.getUser().getId());
+        }
+
+        if (transaction.getSupplier() != null) {
+            generator.writeNumberField("supplierId", transaction.getSupplier().getId());
+        }
+
+        generator.writeEndObject();
+
+    }
+
+    private void writeJsonString(JsonGenerator generator, String name, Object value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(name, value.toString());
+        }
+    }
+
+    private void writeCsvRow(Writer writer, Transaction transaction) throws IOException {
+
+        writer.write(String.valueOf(transaction.getId()));
+        writeCsvField(writer, transaction.getTransactionType());
+        writeCsvField(writer, transaction.getStatus());
+        writeCsvField(writer, transaction.getTotalProducts());
+        writeCsvField(writer, transaction.getTotalPrice() == null ? null : transaction.getTotalPrice().toPlainString());
+        writeCsvField(writer, transaction.getDescription());
+        writeCsvField(writer, transaction.getNote());
+        writeCsvField(writer, transaction.getCreatedAt());
+        writeCsvField(writer, transaction.getUpdatedAt());
+        writeCsvField(writer, transaction.getProduct() == null ? null : transaction.getProduct().getId());
+        writeCsvField(writer, transaction.getUser() == null ? null : transaction.getUser().getId());
+        writeCsvField(writer, transaction.getSupplier() == null ? null : transaction.getSupplier().getId());
+        writer.write('\n');
+
+    }
+
+    private void writeCsvField(Writer writer, Object value) throws IOException {
+
+        writer.write(',');
+
+        if (value == null) {
+            return;
+        }
+
+        String text = value.toString();
+
+        // Quote fields containing separators, quotes or line breaks (RFC 4180)
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        } else {
+            writer.write(text);
+        }
+
+    }
+}
@@ -0,0 +1,142 @@
+package com.github.menglanyan.inventory_management.services.impl;
+
+import com.github.menglanyan.inventory_management.dtos.Response;
+import com.github.menglanyan.inventory_management.dtos.TransactionRollupDTO;
+import com.github.menglanyan.inventory_management.entities.Transaction;
+import com.github.menglanyan.inventory_management.entities.TransactionMonthlyRollup;
+import com.github.menglanyan.inventory_management.enums.TransactionStatus;
+import com.github.menglanyan.inventory_management.enums.TransactionType;
+import com.github.menglanyan.inventory_management.repositories.TransactionMonthlyRollupRepository;
+import com.github.menglanyan.inventory_management.services.TransactionRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class TransactionRollupServiceImpl implements TransactionRollupService {
+
+    // Rollup product id of transactions without a product
+    private static final long NO_PRODUCT = 0L;
+
+    private final TransactionMonthlyRollupRepository rollupRepository;
+
+    // Called inside the write transaction, so rollups commit or roll back together with the transactions
+    @Override
+    @Transactional
+    public void recordTransactions(List<Transaction> transactions) {
+
+        // Collapse the batch to one upsert per rollup row
+        Map<RollupKey, RollupDelta> deltas = new LinkedHashMap<>();
+
+        for (Transaction transaction : transactions) {
+            deltas.computeIfAbsent(RollupKey.of(transaction, transaction.getStatus()), key -> new RollupDelta())
+                    .add(transaction, 1);
+        }
+
+        deltas.forEach(this::upsert);
+
+    }
+
+    @Override
+    @Transactional
+    public void recordStatusChange(Transaction transaction, TransactionStatus previousStatus) {
+
+        if (previousStatus == transaction.getStatus()) {
+            return;
+        }
+
+        // Move the transaction from its old status row to its new one
+        upsert(RollupKey.of(transaction, previousStatus), new RollupDelta().add(transaction, -1));
+        upsert(RollupKey.of(transaction, transaction.getStatus()), new RollupDelta().add(transaction, 1));
+
+    }
+
+    @Override
+    public Response getMonthlySummary(int month, int year) {
+
+        List<TransactionRollupDTO> summary = rollupRepository
+                .findByRollupMonthOrderByTransactionTypeAscStatusAscProductIdAsc(LocalDate.of(year, month, 1))
+                .stream()
+                .map(this::toDTO)
+                .toList();
+
+        return Response.builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Monthly Summary Retrieved Successfully")
+                .monthlySummary(summary)
+                .build();
+
+    }
+
+    @Override
+    @Transactional
+    public Response rebuildRollups() {
+
+        rollupRepository.deleteAllRows();
+
+        int rows = rollupRepository.rebuildFromTransactions();
+
+        log.info("Rebuilt {} monthly rollup rows", rows);
+
+        return Response.builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Monthly Rollups Rebuilt Successfully")
+                .build();
+
+    }
+
+    private void upsert(RollupKey key, RollupDelta delta) {
+        rollupRepository.upsert(key.month(), key.type().name(), key.status().name(), key.productId(),
+                delta.count, delta.quantity, delta.value);
+    }
+
+    private TransactionRollupDTO toDTO(TransactionMonthlyRollup rollup) {
+        Long productId = Long.valueOf(NO_PRODUCT).equals(rollup.getProductId()) ? null : rollup.getProductId();
+        return new TransactionRollupDTO(rollup.getRollupMonth(), rollup.getTransactionType(), rollup.getStatus(),
+                productId, rollup.getTransactionCount(), rollup.getTotalQuantity(), rollup.getTotalValue());
+    }
+
+    private record RollupKey(LocalDate month, TransactionType type, TransactionStatus status, Long productId) {
+
+        static RollupKey of(Transaction transaction, TransactionStatus status) {
+            return new RollupKey(
+                    transaction.getCreatedAt().toLocalDate().withDayOfMonth(1),
+                    transaction.getTransactionType(),
+                    status,
+                    transaction.getProduct() == null ? NO_PRODUCT : transaction.getProduct().getId());
+        }
+    }
+
+    private static class RollupDelta {
+
+        private long count;
+
+        private long quantity;
+
+        private BigDecimal value = BigDecimal.ZERO;
+
+        RollupDelta add(Transaction transaction, int sign) {
+            count += sign;
+
+            if (transaction.getTotalProducts() != null) {
+                quantity += (long) sign * transaction.getTotalProducts();
+            }
+
+            if (transaction.getTotalPrice() != null) {
+                value = value.add(transaction.getTotalPrice().multiply(BigDecimal.valueOf(sign)));
+            }
+
+            return this;
+        }
+    }
+}
@@ -1,26 +1,41 @@
 package com.github.menglanyan.inventory_management.services.impl;
 
+import com.github.menglanyan.inventory_management.analytics.CategoryValuationLedger;
+import com.github.menglanyan.inventory_management.cache.CatalogVersions;
 import com.github.menglanyan.inventory_management.dtos.Response;
+import com.github.menglanyan.inventory_management.dtos.TransactionBatchResult;
 import com.github.menglanyan.inventory_management.dtos.TransactionDTO;
 import com.github.menglanyan.inventory_management.dtos.TransactionRequest;
 import com.github.menglanyan.inventory_management.entities.Product;
 import com.github.menglanyan.inventory_management.entities.Supplier;
 import com.github.menglanyan.inventory_management.entities.Transaction;
 import com.github.menglanyan.inventory_management.entities.User;
+import com.github.menglanyan.inventory_management.enums.ExportFormat;
+import com.github.menglanyan.inventory_management.enums.TransactionField;
 import com.github.menglanyan.inventory_management.enums.TransactionStatus;
 import com.github.menglanyan.inventory_management.enums.TransactionType;
+import com.github.menglanyan.inventory_management.events.StockChangedEvent;
+import com.github.menglanyan.inventory_management.events.TransactionStatusChangedEvent;
+import com.github.menglanyan.inventory_management.events.TransactionsRecordedEvent;
+import com.github.menglanyan.inventory_management.exceptions.InsufficientStockException;
 import com.github.menglanyan.inventory_management.exceptions.NameValueRequiredException;
 import com.github.menglanyan.inventory_management.exceptions.NotFoundException;
+import com.github.menglanyan.inventory_management.mappers.TransactionMapper;
 import com.github.menglanyan.inventory_management.repositories.ProductRepository;
 import com.github.menglanyan.inventory_management.repositories.SupplierRepository;
+import com.github.menglanyan.inventory_management.repositories.TransactionBatchRepository;
 import com.github.menglanyan.inventory_management.repositories.TransactionRepository;
+import com.github.menglanyan.inventory_management.repositories.TransactionRow;
+import com.github.menglanyan.inventory_management.search.TransactionSearchIndex;
+import com.github.menglanyan.inventory_management.services.TransactionRollupService;
 import com.github.menglanyan.inventory_management.services.TransactionService;
 import com.github.menglanyan.inventory_management.services.UserService;
 import com.github.menglanyan.inventory_management.specification.TransactionFilter;
+import com.github.menglanyan.inventory_management.sync.ProductChangeLog;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -28,28 +43,68 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class TransactionServiceImpl implements TransactionService {
 
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    // Rows written between persistence context clears during an export
+    private static final int EXPORT_CHUNK_SIZE = 1000;
+
     private final TransactionRepository transactionRepository;
 
+    private final TransactionBatchRepository transactionBatchRepository;
+
     private final ProductRepository productRepository;
 
     private final SupplierRepository supplierRepository;
 
     private final UserService userService;
 
-    private final ModelMapper modelMapper;
+    private final TransactionRollupService transactionRollupService;
+
+    private final TransactionSearchIndex transactionSearchIndex;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final EntityManager entityManager;
+
+    private final CatalogVersions catalogVersions;
+
+    private final ProductChangeLog productChangeLog;
+
+    private final CategoryValuationLedger categoryValuationLedger;
 
 
     @Override
+    @Transactional
     public Response purchase(TransactionRequest transactionRequest) {
 
         Long productId = transactionRequest.getProductId();
@@ -62,18 +117,13 @@ public class TransactionServiceImpl implements TransactionService {
             throw new NameValueRequiredException("Supplier id is required");
         }
 
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new NotFoundException("Product Not Found"));
-
         Supplier supplier = supplierRepository.findById(supplierId)
                 .orElseThrow(() -> new NotFoundException("Supplier Not Found"));
 
         User user = userService.getCurrentLoggedInUser();
 
-        // Update product stock quantity and save it
-        product.setStockQuantity(product.getStockQuantity() + quantity);
-
-        productRepository.save(product);
+        // Add to product stock quantity atomically
+        Product product = applyStockDelta(productId, quantity);
 
         // Create a transaction
         Transaction transaction = Transaction.builder()
@@ -90,29 +140,28 @@ public class TransactionServiceImpl implements TransactionService {
 
         transactionRepository.save(transaction);
 
+        recordTransactions(List.of(transaction));
+
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Purchase Made Successfully")
+                .stockQuantity(product.getStockQuantity())
                 .build();
 
     }
 
     @Override
+    @Transactional
     public Response sell(TransactionRequest transactionRequest) {
 
         Long productId = transactionRequest.getProductId();
 
         Integer quantity = transactionRequest.getQuantity();
 
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new NotFoundException("Product Not Found"));
-
         User user = userService.getCurrentLoggedInUser();
 
-        // Update product stock quantity and save it
-        product.setStockQuantity(product.getStockQuantity() - quantity);
-
-        productRepository.save(product);
+        // Subtract from product stock quantity atomically, refusing to go below zero
+        Product product = applyStockDelta(productId, -quantity);
 
         // Create a transaction
         Transaction transaction = Transaction.builder()
@@ -128,14 +177,18 @@ public class TransactionServiceImpl implements TransactionService {
 
         transactionRepository.save(transaction);
 
+        recordTransactions(List.of(transaction));
+
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Product Sale Made Successfully")
+                .stockQuantity(product.getStockQuantity())
                 .build();
 
     }
 
     @Override
+    @Transactional
     public Response returnToSupplier(TransactionRequest transactionRequest) {
 
         Long productId = transactionRequest.getProductId();
@@ -148,18 +201,13 @@ public class TransactionServiceImpl implements TransactionService {
             throw new NameValueRequiredException("Supplier id is required");
         }
 
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new NotFoundException("Product Not Found"));
-
         Supplier supplier = supplierRepository.findById(supplierId)
                 .orElseThrow(() -> new NotFoundException("Supplier Not Found"));
 
         User user = userService.getCurrentLoggedInUser();
 
-        // Update product stock quantity and save it
-        product.setStockQuantity(product.getStockQuantity() - quantity);
-
-        productRepository.save(product);
+        // Subtract from product stock quantity atomically, refusing to go below zero
+        Product product = applyStockDelta(productId, -quantity);
 
         // Create a transaction
         Transaction transaction = Transaction.builder()
@@ -175,30 +223,140 @@ public class TransactionServiceImpl implements TransactionService {
 
         transactionRepository.save(transaction);
 
+        recordTransactions(List.of(transaction));
+
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Product Returned In Progress")
+                .stockQuantity(product.getStockQuantity())
                 .build();
 
     }
 
     @Override
-    public Response getAllTransactions(int page, int size, String searchValue) {
+    @Transactional
+    public Response processBatch(List<TransactionRequest> transactionRequests) {
+
+        if (transactionRequests == null || transactionRequests.isEmpty() || transactionRequests.size() > MAX_BATCH_SIZE) {
+            throw new NameValueRequiredException("Batch must contain between 1 and " + MAX_BATCH_SIZE + " transactions");
+        }
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "id"));
+        TransactionBatchResult[] results = new TransactionBatchResult[transactionRequests.size()];
 
-        Specification<Transaction> spec = TransactionFilter.byFliter(searchValue);
+        User user = userService.getCurrentLoggedInUser();
+
+        // Load every referenced product and supplier up front, one query each
+        Set<Long> productIds = new HashSet<>();
+        Set<Long> supplierIds = new HashSet<>();
+
+        for (TransactionRequest request : transactionRequests) {
+            if (request.getProductId() != null) {
+                productIds.add(request.getProductId());
+            }
+            if (request.getSupplierId() != null) {
+                supplierIds.add(request.getSupplierId());
+            }
+        }
+
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        Map<Long, Supplier> suppliers = supplierRepository.findAllById(supplierIds).stream()
+                .collect(Collectors.toMap(Supplier::getId, Function.identity()));
+
+        // Validate each item and group the valid ones by product. Sorted by id, so every batch takes its product
+        // row locks in the same order and two batches naming the same products can never deadlock.
+        Map<Long, List<Integer>> itemsByProduct = new TreeMap<>();
+
+        for (int i = 0; i < transactionRequests.size(); i++) {
+            results[i] = validateBatchItem(i, transactionRequests.get(i), products, suppliers);
+
+            if (results[i] == null) {
+                itemsByProduct.computeIfAbsent(transactionRequests.get(i).getProductId(), id -> new ArrayList<>()).add(i);
+            }
+        }
+
+        // Apply one aggregated stock delta per product, falling back to item by item when stock is insufficient
+        List<Integer> accepted = new ArrayList<>();
+
+        itemsByProduct.forEach((productId, indexes) -> {
+            int totalDelta = indexes.stream()
+                    .mapToInt(i -> stockDelta(transactionRequests.get(i)))
+                    .sum();
+
+            if (productRepository.adjustStock(productId, totalDelta) == 1) {
+                accepted.addAll(indexes);
+                return;
+            }
+
+            for (int i : indexes) {
+                if (productRepository.adjustStock(productId, stockDelta(transactionRequests.get(i))) == 1) {
+                    accepted.add(i);
+                } else {
+                    results[i] = batchFailure(i, HttpStatus.CONFLICT, "Insufficient Stock For Product");
+                }
+            }
+        });
+
+        accepted.sort(Integer::compare);
+
+        // Write all accepted transactions as a single JDBC batch
+        List<Transaction> transactions = new ArrayList<>(accepted.size());
+
+        for (int i : accepted) {
+            TransactionRequest request = transactionRequests.get(i);
+            transactions.add(buildBatchTransaction(request, products.get(request.getProductId()),
+                    suppliers.get(request.getSupplierId()), user));
+        }
+
+        transactionBatchRepository.insertAll(transactions);
+
+        recordTransactions(transactions);
+
+        // Report the stock level each product ended up with
+        Map<Long, Integer> stockQuantities = productRepository.findAllById(itemsByProduct.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Product::getStockQuantity));
+
+        for (int k = 0; k < accepted.size(); k++) {
+            int i = accepted.get(k);
+            Transaction transaction = transactions.get(k);
+
+            results[i] = TransactionBatchResult.builder()
+                    .index(i)
+                    .statusCode(HttpStatus.OK.value())
+                    .message("Transaction Recorded Successfully")
+                    .transactionId(transaction.getId())
+                    .stockQuantity(stockQuantities.get(transaction.getProduct().getId()))
+                    .build();
+        }
+
+        return Response.builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Batch Processed: " + accepted.size() + " Succeeded, "
+                        + (results.length - accepted.size()) + " Failed")
+                .results(List.of(results))
+                .build();
+
+    }
+
+    @Override
+    public Response getAllTransactions(int page, int size, String searchValue, String fields) {
 
-        Page<Transaction> transactionPage = transactionRepository.findAll(spec, pageable);
+        Set<TransactionField> selectedFields = TransactionField.parse(fields);
 
-        List<TransactionDTO> transactionDTOList = modelMapper.map(transactionPage.getContent(),
-                new TypeToken<List<TransactionDTO>>() {}.getType());
+        long[] matchingIds = searchIndex(searchValue);
 
-        transactionDTOList.forEach(transactionDTO -> {
-                    transactionDTO.setSupplier(null);
-                    transactionDTO.setUser(null);
-                    transactionDTO.setProduct(null);
-                });
+        if (matchingIds != null) {
+            return getTransactionsPageByIds(matchingIds, page, boundedPageSize(size), selectedFields);
+        }
+
+        Pageable pageable = PageRequest.of(page, boundedPageSize(size), Sort.by(Sort.Direction.DESC, "id"));
+
+        Specification<Transaction> spec = TransactionFilter.byFliter(searchValue);
+
+        Page<TransactionRow> transactionPage = transactionRepository.findRows(spec, pageable, selectedFields);
+
+        List<TransactionDTO> transactionDTOList = TransactionMapper.toDTOs(transactionPage.getContent());
 
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
@@ -210,15 +368,59 @@ public class TransactionServiceImpl implements TransactionService {
 
     }
 
+    @Override
+    public Response getTransactionsByCursor(String cursor, int size, String searchValue, boolean withTotal,
+                                            String fields) {
+
+        int pageSize = boundedPageSize(size);
+
+        Set<TransactionField> selectedFields = TransactionField.parse(fields);
+
+        long[] matchingIds = searchIndex(searchValue);
+
+        if (matchingIds != null) {
+            return getTransactionsByCursorAndIds(matchingIds, decodeCursor(cursor), pageSize, withTotal,
+                    selectedFields);
+        }
+
+        Specification<Transaction> filter = TransactionFilter.byFliter(searchValue);
+
+        Specification<Transaction> spec = filter;
+
+        Long lastId = decodeCursor(cursor);
+
+        if (lastId != null) {
+            spec = spec.and(TransactionFilter.idLessThan(lastId));
+        }
+
+        // Seek past the last seen id and fetch one extra row to know whether another page exists, without a COUNT
+        List<TransactionRow> transactions = transactionRepository.findRows(spec,
+                Sort.by(Sort.Direction.DESC, "id"), pageSize + 1, selectedFields);
+
+        String nextCursor = null;
+
+        if (transactions.size() > pageSize) {
+            transactions = transactions.subList(0, pageSize);
+            nextCursor = encodeCursor(transactions.get(pageSize - 1).id());
+        }
+
+        return Response.builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Transactions Retrieved Successfully")
+                .transactions(TransactionMapper.toDTOs(transactions))
+                .nextCursor(nextCursor)
+                .totalElements(withTotal ? transactionRepository.count(filter) : null)
+                .build();
+
+    }
+
     @Override
     public Response getTransactionById(Long id) {
 
         Transaction transaction = transactionRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Transaction Not Found"));
 
-        TransactionDTO transactionDTO = modelMapper.map(transaction, TransactionDTO.class);
-
-        transactionDTO.setUser(null);
+        TransactionDTO transactionDTO = TransactionMapper.toDetailDTO(transaction);
 
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
@@ -230,15 +432,10 @@ public class TransactionServiceImpl implements TransactionService {
     @Override
     public Response getTransactionsByMonthAndYear(int month, int year) {
 
-        List<Transaction> transactions = transactionRepository.findAll(TransactionFilter.byMonthAndYear(month, year));
+        List<TransactionRow> transactions = transactionRepository.findRows(TransactionFilter.byMonthAndYear(month, year),
+                Sort.unsorted());
 
-        List<TransactionDTO> transactionDTOList = modelMapper.map(transactions, new TypeToken<List<TransactionDTO>>() {}.getType());
-
-        transactionDTOList.forEach(transactionDTO -> {
-            transactionDTO.setSupplier(null);
-            transactionDTO.setUser(null);
-            transactionDTO.setProduct(null);
-        });
+        List<TransactionDTO> transactionDTOList = TransactionMapper.toDTOs(transactions);
 
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
@@ -249,17 +446,48 @@ public class TransactionServiceImpl implements TransactionService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public void exportTransactions(ExportFormat format, LocalDate from, LocalDate to, OutputStream outputStream) {
+
+        LocalDateTime start = (from != null ? from : LocalDate.of(1970, 1, 1)).atStartOfDay();
+
+        LocalDateTime end = (to != null ? to : LocalDate.now()).plusDays(1).atStartOfDay();
+
+        TransactionExportWriter writer = new TransactionExportWriter(format, outputStream);
+
+        try (Stream<Transaction> transactions = transactionRepository.streamByCreatedAtRange(start, end)) {
+
+            // Clearing the persistence context after each chunk keeps memory flat whatever the row count
+            long count = writer.writeAll(transactions, EXPORT_CHUNK_SIZE, entityManager::clear);
+
+            log.info("Exported {} transactions as {}", count, format);
+
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error exporting transactions", e);
+        }
+
+    }
+
+    @Override
+    @Transactional
     public Response updateTransactionStatus(Long transactionId, TransactionStatus transactionStatus) {
 
         Transaction existingTransaction = transactionRepository.findById(transactionId)
                 .orElseThrow(() -> new NotFoundException("Transaction Not Found"));
 
+        TransactionStatus previousStatus = existingTransaction.getStatus();
+
         existingTransaction.setStatus(transactionStatus);
 
         existingTransaction.setUpdatedAt(LocalDateTime.now());
 
         transactionRepository.save(existingTransaction);
 
+        transactionRollupService.recordStatusChange(existingTransaction, previousStatus);
+
+        applicationEventPublisher.publishEvent(
+                new TransactionStatusChangedEvent(transactionId, previousStatus, transactionStatus));
+
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Transaction Status Updated Successfully")
@@ -267,4 +495,229 @@ public class TransactionServiceImpl implements TransactionService {
 
     }
 
+    // Apply the stock change as one conditional UPDATE, then read the product back with its new quantity
+    private Product applyStockDelta(Long productId, int delta) {
+
+        if (productRepository.adjustStock(productId, delta) == 0) {
+
+            if (!productRepository.existsById(productId)) {
+                throw new NotFoundException("Product Not Found");
+            }
+
+            throw new InsufficientStockException("Insufficient Stock For Product");
+        }
+
+        return productRepository.findById(productId)
+                .orElseThrow(() -> new NotFoundException("Product Not Found"));
+
+    }
+
+    // Returns the failure result for an invalid item, or null when the item can be applied
+    private TransactionBatchResult validateBatchItem(int index, TransactionRequest request,
+                                                     Map<Long, Product> products, Map<Long, Supplier> suppliers) {
+
+        if (request.getTransactionType() == null) {
+            return batchFailure(index, HttpStatus.BAD_REQUEST, "Transaction type is required");
+        }
+
+        if (request.getProductId() == null || request.getProductId() <= 0) {
+            return batchFailure(index, HttpStatus.BAD_REQUEST, "Product id is required");
+        }
+
+        if (request.getQuantity() == null || request.getQuantity() <= 0) {
+            return batchFailure(index, HttpStatus.BAD_REQUEST, "Quantity is required");
+        }
+
+        if (request.getTransactionType() != TransactionType.SALE) {
+            if (request.getSupplierId() == null) {
+                return batchFailure(index, HttpStatus.BAD_REQUEST, "Supplier id is required");
+            }
+            if (!suppliers.containsKey(request.getSupplierId())) {
+                return batchFailure(index, HttpStatus.NOT_FOUND, "Supplier Not Found");
+            }
+        }
+
+        if (!products.containsKey(request.getProductId())) {
+            return batchFailure(index, HttpStatus.NOT_FOUND, "Product Not Found");
+        }
+
+        return null;
+
+    }
+
+    private int stockDelta(TransactionRequest request) {
+        return request.getTransactionType() == TransactionType.PURCHASE ? request.getQuantity() : -request.getQuantity();
+    }
+
+    private int stockDelta(Transaction transaction) {
+        return transaction.getTransactionType() == TransactionType.PURCHASE
+                ? transaction.getTotalProducts()
+                : -transaction.getTotalProducts();
+    }
+
+    private Transaction buildBatchTransaction(TransactionRequest request, Product product, Supplier supplier, User user) {
+
+        TransactionType type = request.getTransactionType();
+
+        Integer quantity = request.getQuantity();
+
+        return Transaction.builder()
+                .transactionType(type)
+                // The status of a return is COMPLETED when supplier confirms
+                .status(type == TransactionType.RETURN_TO_SUPPLIER ? TransactionStatus.PROCESSING : TransactionStatus.COMPLETED)
+                .product(product)
+                .user(user)
+                .supplier(type == TransactionType.SALE ? null : supplier)
+                .totalProducts(quantity)
+                .totalPrice(type == TransactionType.RETURN_TO_SUPPLIER
+                        ? BigDecimal.ZERO
+                        : product.getPrice().multiply(BigDecimal.valueOf(quantity)))
+                .description(request.getDescription())
+                .note(request.getNote())
+                .build();
+
+    }
+
+    private TransactionBatchResult batchFailure(int index, HttpStatus status, String message) {
+        return TransactionBatchResult.builder()
+                .index(index)
+                .statusCode(status.value())
+                .message(message)
+                .build();
+    }
+
+    private int boundedPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    // The cursor is the last returned id, base64 encoded so clients treat it as opaque
+    private String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Long decodeCursor(String cursor) {
+
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            return Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new NameValueRequiredException("Invalid cursor");
+        }
+
+    }
+
+    private void recordTransactions(List<Transaction> transactions) {
+
+        transactionRollupService.recordTransactions(transactions);
+
+        applicationEventPublisher.publishEvent(new TransactionsRecordedEvent(transactions));
+
+        // Net stock change per product; the managed products already hold their new quantities
+        Map<Long, Product> changedProducts = new LinkedHashMap<>();
+        Map<Long, Integer> stockDeltas = new HashMap<>();
+
+        for (Transaction transaction : transactions) {
+            Product product = transaction.getProduct();
+            changedProducts.putIfAbsent(product.getId(), product);
+            stockDeltas.merge(product.getId(), stockDelta(transaction), Integer::sum);
+        }
+
+        changedProducts.forEach((productId, product) -> {
+            int stockDelta = stockDeltas.get(productId);
+
+            productChangeLog.recordChanged(productId);
+            applicationEventPublisher.publishEvent(new StockChangedEvent(product, stockDelta));
+
+            // Only the stock moved, so the previous value is the current price times the previous quantity
+            BigDecimal previousValue = product.getPrice() == null ? BigDecimal.ZERO
+                    : product.getPrice().multiply(BigDecimal.valueOf(product.getStockQuantity() - stockDelta));
+            categoryValuationLedger.recordChange(CategoryValuationLedger.categoryIdOf(product), previousValue, product);
+        });
+
+        // Stock quantities are part of the product responses
+        catalogVersions.bumpProducts(changedProducts.keySet());
+
+    }
+
+    // Ids matching the search from the in-memory index, or null when the database LIKE filter has to be used
+    private long[] searchIndex(String searchValue) {
+
+        if (searchValue == null || searchValue.isEmpty()) {
+            return null;
+        }
+
+        return transactionSearchIndex.search(searchValue);
+
+    }
+
+    private Response getTransactionsPageByIds(long[] matchingIds, int page, int pageSize,
+                                              Set<TransactionField> fields) {
+
+        int from = (int) Math.min((long) page * pageSize, matchingIds.length);
+
+        int to = Math.min(from + pageSize, matchingIds.length);
+
+        return Response.builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Transactions Retrieved Successfully")
+                .transactions(TransactionMapper.toDTOs(
+                        findRowsByIdsDescending(Arrays.copyOfRange(matchingIds, from, to), fields)))
+                .totalElements((long) matchingIds.length)
+                .totalPages((matchingIds.length + pageSize - 1) / pageSize)
+                .build();
+
+    }
+
+    private Response getTransactionsByCursorAndIds(long[] matchingIds, Long lastId, int pageSize, boolean withTotal,
+                                                   Set<TransactionField> fields) {
+
+        // Ids are descending, so seek to the first one below the cursor
+        int low = 0;
+        int high = matchingIds.length;
+
+        while (lastId != null && low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (matchingIds[middle] >= lastId) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        int to = Math.min(low + pageSize, matchingIds.length);
+
+        List<TransactionRow> transactions = findRowsByIdsDescending(Arrays.copyOfRange(matchingIds, low, to), fields);
+
+        return Response.builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Transactions Retrieved Successfully")
+                .transactions(TransactionMapper.toDTOs(transactions))
+                .nextCursor(to < matchingIds.length ? encodeCursor(matchingIds[to - 1]) : null)
+                .totalElements(withTotal ? (long) matchingIds.length : null)
+                .build();
+
+    }
+
+    private List<TransactionRow> findRowsByIdsDescending(long[] ids, Set<TransactionField> fields) {
+
+        if (ids.length == 0) {
+            return List.of();
+        }
+
+        List<Long> idList = Arrays.stream(ids).boxed().toList();
+
+        if (fields == TransactionField.ALL) {
+            return transactionRepository.findRowsByIdInOrderByIdDesc(idList);
+        }
+
+        return transactionRepository.findRows(TransactionFilter.idIn(idList), Sort.by(Sort.Direction.DESC, "id"),
+                ids.length, fields);
+
+    }
+
 }
@@ -1,22 +1,37 @@
 package com.github.menglanyan.inventory_management.services.impl;
 
 import com.github.menglanyan.inventory_management.dtos.Response;
+import com.github.menglanyan.inventory_management.dtos.TransactionDTO;
 import com.github.menglanyan.inventory_management.dtos.UserDTO;
+import com.github.menglanyan.inventory_management.entities.Transaction;
 import com.github.menglanyan.inventory_management.entities.User;
+import com.github.menglanyan.inventory_management.events.UserChangedEvent;
+import com.github.menglanyan.inventory_management.events.UserDeletedEvent;
+import com.github.menglanyan.inventory_management.events.UserSavedEvent;
 import com.github.menglanyan.inventory_management.exceptions.NotFoundException;
+import com.github.menglanyan.inventory_management.mappers.TransactionMapper;
+import com.github.menglanyan.inventory_management.mappers.UserMapper;
+import com.github.menglanyan.inventory_management.repositories.TransactionRepository;
 import com.github.menglanyan.inventory_management.repositories.UserRepository;
+import com.github.menglanyan.inventory_management.security.AuthUser;
 import com.github.menglanyan.inventory_management.services.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -26,19 +41,22 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
 
+    private final TransactionRepository transactionRepository;
+
     private final PasswordEncoder passwordEncoder;
 
-    private final ModelMapper modelMapper;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private static final LocalDateTime HISTORY_START = LocalDate.of(1970, 1, 1).atStartOfDay();
 
     @Override
     public Response getAllUsers() {
 
         List<User> users = userRepository.findAll(Sort.by(Sort.Direction.DESC, "id"));
 
-        // Break the bidirectional relationship to avoid recursive loop during serialization:
-        users.forEach(user -> user.setTransactions(null));
-
-        List<UserDTO> userDTOs = modelMapper.map(users, new TypeToken<List<UserDTO>>() {}.getType());
+        List<UserDTO> userDTOs = UserMapper.toShallowDTOs(users);
 
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
@@ -52,6 +70,11 @@ public class UserServiceImpl implements UserService {
 
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
+        // AuthFilter already loaded the user for this request
+        if (authentication.getPrincipal() instanceof AuthUser authUser) {
+            return authUser.getUser();
+        }
+
         String email = authentication.getName();
 
         User user = userRepository.findByEmail(email)
@@ -69,10 +92,7 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("User Not Found"));
 
-        UserDTO userDTO = modelMapper.map(user, UserDTO.class);
-
-        // Break the bidirectional relationship to avoid recursive loop during serialization:
-        userDTO.setTransactions(null);
+        UserDTO userDTO = UserMapper.toShallowDTO(user);
 
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
@@ -83,11 +103,14 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public Response updateUser(Long id, UserDTO userDTO) {
 
         User existingUser = userRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("User Not Found"));
 
+        applicationEventPublisher.publishEvent(new UserChangedEvent(existingUser.getEmail()));
+
         if (userDTO.getEmail() != null && !userDTO.getEmail().isBlank()) {
             existingUser.setEmail(userDTO.getEmail());
         }
@@ -110,6 +133,8 @@ public class UserServiceImpl implements UserService {
 
         userRepository.save(existingUser);
 
+        applicationEventPublisher.publishEvent(new UserSavedEvent(existingUser));
+
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("User Updated Successfully")
@@ -117,6 +142,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public Response deleteUser(Long id) {
 
         User existingUser = userRepository.findById(id)
@@ -124,6 +150,10 @@ public class UserServiceImpl implements UserService {
 
         userRepository.deleteById(id);
 
+        applicationEventPublisher.publishEvent(new UserChangedEvent(existingUser.getEmail()));
+
+        applicationEventPublisher.publishEvent(new UserDeletedEvent(id));
+
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("User Deleted Successfully")
@@ -131,23 +161,37 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public Response getUserTransactions(Long id) {
+    public Response getUserTransactions(Long id, LocalDate from, LocalDate to, int page, int size) {
 
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("User Not Found"));
 
-        UserDTO userDTO = modelMapper.map(user, UserDTO.class);
+        // Dates are inclusive; without bounds the whole history is paged through
+        LocalDateTime start = from != null ? from.atStartOfDay() : HISTORY_START;
+        LocalDateTime end = to != null ? to.plusDays(1).atStartOfDay() : LocalDate.now().plusDays(1).atStartOfDay();
+
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_PAGE_SIZE)),
+                Sort.by(Sort.Direction.DESC, "createdAt", "id"));
+
+        Page<Transaction> transactionPage = transactionRepository.findUserHistory(id, start, end, pageable);
+
+        UserDTO userDTO = UserMapper.toShallowDTO(user);
+
+        List<TransactionDTO> transactionDTOs = new ArrayList<>(transactionPage.getNumberOfElements());
+
+        // Product and category were fetched with the page; user and supplier are left out
+        for (Transaction transaction : transactionPage.getContent()) {
+            transactionDTOs.add(TransactionMapper.toDTOWithProduct(transaction));
+        }
 
-        userDTO.getTransactions().forEach(transactionDTO -> {
-            // Break the bidirectional relationship to avoid recursive loop during serialization:
-            transactionDTO.setUser(null);
-            transactionDTO.setSupplier(null);
-        });
+        userDTO.setTransactions(transactionDTOs);
 
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("User's Transactions Retrieved Successfully")
                 .user(userDTO)
+                .totalElements(transactionPage.getTotalElements())
+                .totalPages(transactionPage.getTotalPages())
                 .build();
     }
 }
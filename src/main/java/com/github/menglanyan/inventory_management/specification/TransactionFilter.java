@@ -1,12 +1,14 @@
 package com.github.menglanyan.inventory_management.specification;
 
 import com.github.menglanyan.inventory_management.entities.Transaction;
-import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Predicate;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 public class TransactionFilter {
@@ -101,18 +103,32 @@ public class TransactionFilter {
         };
     }
 
-    // Filtering transactions by month and year
+    // Filtering transactions by month and year as a half-open createdAt range, so the created_at index can be used
     public static Specification<Transaction> byMonthAndYear(int month, int year) {
 
-        return (root, query, criteriaBuilder) -> {
-            Expression<Integer> monthExpression = criteriaBuilder.function("month", Integer.class, root.get("createdAt"));
-            Expression<Integer> yearExpression = criteriaBuilder.function("year", Integer.class, root.get("createdAt"));
+        LocalDateTime start = LocalDate.of(year, month, 1).atStartOfDay();
 
-            Predicate monthPredicate = criteriaBuilder.equal(monthExpression, month);
-            Predicate yearPredicate = criteriaBuilder.equal(yearExpression, year);
+        return createdBetween(start, start.plusMonths(1));
+    }
 
-            return criteriaBuilder.and(monthPredicate, yearPredicate);
+    // Transactions created in [start, end)
+    public static Specification<Transaction> createdBetween(LocalDateTime start, LocalDateTime end) {
 
-        };
+        return (root, query, criteriaBuilder) -> criteriaBuilder.and(
+                criteriaBuilder.greaterThanOrEqualTo(root.get("createdAt"), start),
+                criteriaBuilder.lessThan(root.get("createdAt"), end)
+        );
+    }
+
+    // Keyset pagination: transactions older than the last one already returned
+    public static Specification<Transaction> idLessThan(Long id) {
+
+        return (root, query, criteriaBuilder) -> criteriaBuilder.lessThan(root.get("id"), id);
+    }
+
+    // Transactions with one of the given ids, e.g. the matches from the in-memory search index
+    public static Specification<Transaction> idIn(Collection<Long> ids) {
+
+        return (root, query, criteriaBuilder) -> root.get("id").in(ids);
     }
 }
@@ -0,0 +1,96 @@
+package com.github.menglanyan.inventory_management.stream;
+
+import com.github.menglanyan.inventory_management.events.LowStockAlertEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Pushes low-stock alerts to Server-Sent Events subscribers as "low-stock" events whose id is the change sequence
+// number that crossed the threshold. Alerts only fire on crossings, so there is no coalescing; they are sent in
+// order on one sender thread, never on the committing thread.
+@Component
+@Slf4j
+public class LowStockAlertStream {
+
+    private static final long EMITTER_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    private final Set<SseEmitter> subscribers = ConcurrentHashMap.newKeySet();
+
+    private ExecutorService sender;
+
+    @PostConstruct
+    void start() {
+        sender = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "low-stock-alert-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+
+        sender.shutdownNow();
+
+        subscribers.forEach(SseEmitter::complete);
+        subscribers.clear();
+
+    }
+
+    @EventListener
+    public void onLowStockAlert(LowStockAlertEvent event) {
+
+        if (!subscribers.isEmpty()) {
+            sender.execute(() -> send(event));
+        }
+
+    }
+
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(EMITTER_TIMEOUT_MILLIS));
+    }
+
+    SseEmitter subscribe(SseEmitter emitter) {
+
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(error -> subscribers.remove(emitter));
+
+        subscribers.add(emitter);
+
+        return emitter;
+
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private void send(LowStockAlertEvent event) {
+
+        for (SseEmitter emitter : subscribers) {
+            try {
+                emitter.send(SseEmitter.event()
+                        .name("low-stock")
+                        .id(Long.toString(event.product().changeSeq()))
+                        .data(event, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Low-stock alert subscriber went away: {}", e.getMessage());
+                subscribers.remove(emitter);
+                emitter.completeWithError(e);
+            }
+        }
+
+    }
+}
@@ -0,0 +1,26 @@
+package com.github.menglanyan.inventory_management.stream;
+
+import com.github.menglanyan.inventory_management.entities.Product;
+
+// A product's stock against its reorder threshold, as of the change with the given sequence number
+public record LowStockItem(
+        Long productId,
+        String name,
+        String sku,
+        Long categoryId,
+        int stockQuantity,
+        Integer reorderThreshold,
+        long changeSeq
+) {
+
+    public static LowStockItem of(Product product) {
+        return new LowStockItem(product.getId(), product.getName(), product.getSku(),
+                product.getCategory() == null ? null : product.getCategory().getId(),
+                product.getStockQuantity() == null ? 0 : product.getStockQuantity(),
+                product.getReorderThreshold(), product.getChangeSeq());
+    }
+
+    public boolean isLow() {
+        return reorderThreshold != null && stockQuantity <= reorderThreshold;
+    }
+}
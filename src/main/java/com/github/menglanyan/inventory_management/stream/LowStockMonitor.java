@@ -0,0 +1,183 @@
+package com.github.menglanyan.inventory_management.stream;
+
+import com.github.menglanyan.inventory_management.events.LowStockAlertEvent;
+import com.github.menglanyan.inventory_management.events.ProductDeletedEvent;
+import com.github.menglanyan.inventory_management.events.ProductSavedEvent;
+import com.github.menglanyan.inventory_management.events.StockChangedEvent;
+import com.github.menglanyan.inventory_management.repositories.ProductRepository;
+import com.github.menglanyan.inventory_management.sync.ProductChangeLog;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// The set of products at or below their reorder threshold: loaded with one query at startup, then updated in O(1)
+// after every committed stock change, product save or delete, so low items are listed without reading the catalog.
+// Each state carries the product's change sequence number and never replaces a newer one, so after-commit
+// listeners running out of order, or events replayed over the load, cannot bring back a stale level.
+// Crossing the threshold in either direction is published as a LowStockAlertEvent.
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class LowStockMonitor {
+
+    // Change sequence number of a deleted product's state, newer than any real change
+    private static final long DELETED = Long.MAX_VALUE;
+
+    // Furthest below the threshold first
+    private static final Comparator<LowStockItem> SHORTFALL_ORDER =
+            Comparator.comparingInt((LowStockItem item) -> item.stockQuantity() - item.reorderThreshold())
+                    .thenComparing(LowStockItem::productId);
+
+    private final ProductRepository productRepository;
+
+    private final ProductChangeLog productChangeLog;
+
+    private final PlatformTransactionManager transactionManager;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final Map<Long, LowStockItem> lowStock = new ConcurrentHashMap<>();
+
+    // Latest change applied per product written since the load; any other product is as of loadedSeq
+    private final Map<Long, Long> appliedSeq = new ConcurrentHashMap<>();
+
+    private volatile long loadedSeq;
+
+    private volatile boolean loaded;
+
+    // States committed while a load is running, replayed once it is installed
+    private final List<LowStockItem> pendingStates = new ArrayList<>();
+
+    private boolean loading;
+
+    private record Snapshot(long changeSeq, List<LowStockItem> lowStock) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        load();
+    }
+
+    public void load() {
+
+        synchronized (pendingStates) {
+            loading = true;
+            pendingStates.clear();
+        }
+
+        Snapshot snapshot;
+
+        try {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(true);
+
+            // The horizon first: every change up to it has committed, so the products can only be newer than it
+            snapshot = transactionTemplate.execute(status ->
+                    new Snapshot(productChangeLog.horizon(0), productRepository.findLowStock()));
+        } catch (RuntimeException e) {
+            synchronized (pendingStates) {
+                loading = false;
+                pendingStates.clear();
+            }
+
+            log.error("Loading low-stock products failed: {}", e.getMessage());
+            return;
+        }
+
+        synchronized (pendingStates) {
+            lowStock.clear();
+            appliedSeq.clear();
+            loadedSeq = snapshot.changeSeq();
+
+            for (LowStockItem item : snapshot.lowStock()) {
+                lowStock.put(item.productId(), item);
+                appliedSeq.put(item.productId(), item.changeSeq());
+            }
+
+            loaded = true;
+            pendingStates.forEach(this::apply);
+            pendingStates.clear();
+            loading = false;
+        }
+
+        log.info("Low-stock monitor loaded with {} products below their reorder threshold", lowStock.size());
+
+    }
+
+    // Products at or below their threshold, furthest below first, or null until the first load completes
+    public List<LowStockItem> lowStockItems() {
+        return loaded ? sorted(lowStock.values()) : null;
+    }
+
+    public static List<LowStockItem> sorted(Collection<LowStockItem> items) {
+
+        List<LowStockItem> sorted = new ArrayList<>(items);
+        sorted.sort(SHORTFALL_ORDER);
+
+        return sorted;
+    }
+
+    @TransactionalEventListener
+    public void onStockChanged(StockChangedEvent event) {
+        dispatch(LowStockItem.of(event.product()));
+    }
+
+    // Covers threshold changes and new products
+    @TransactionalEventListener
+    public void onProductSaved(ProductSavedEvent event) {
+        dispatch(LowStockItem.of(event.product()));
+    }
+
+    @TransactionalEventListener
+    public void onProductDeleted(ProductDeletedEvent event) {
+        dispatch(new LowStockItem(event.productId(), null, null, null, 0, null, DELETED));
+    }
+
+    private void dispatch(LowStockItem state) {
+
+        synchronized (pendingStates) {
+            if (loading) {
+                pendingStates.add(state);
+            }
+        }
+
+        if (loaded) {
+            apply(state);
+        }
+
+    }
+
+    private void apply(LowStockItem state) {
+
+        boolean[] crossed = new boolean[1];
+
+        appliedSeq.compute(state.productId(), (productId, seq) -> {
+            if (state.changeSeq() <= (seq == null ? loadedSeq : seq)) {
+                return seq;
+            }
+
+            LowStockItem previous = state.isLow() ? lowStock.put(productId, state) : lowStock.remove(productId);
+            crossed[0] = state.changeSeq() != DELETED && (previous != null) != state.isLow();
+
+            return state.changeSeq();
+        });
+
+        if (crossed[0]) {
+            applicationEventPublisher.publishEvent(new LowStockAlertEvent(state, state.isLow()));
+        }
+
+    }
+}
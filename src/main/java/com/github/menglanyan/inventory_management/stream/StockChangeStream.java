@@ -0,0 +1,337 @@
+package com.github.menglanyan.inventory_management.stream;
+
+import com.github.menglanyan.inventory_management.entities.Product;
+import com.github.menglanyan.inventory_management.events.StockChangedEvent;
+import com.github.menglanyan.inventory_management.sync.ProductChangeLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+// Pushes committed stock changes to Server-Sent Events subscribers. Changes are coalesced per product over a
+// window, so a hot product produces at most one update per window, and each window goes out as one "stock"
+// event whose id is the highest change sequence number in it, capped at the change log horizon; a reconnecting
+// client can catch up through /api/products/changes?since=<id>.
+//
+// Sends happen on sender threads, never on the committing thread, and each subscriber drains on its own thread
+// so a slow one never holds up the rest. Updates waiting for a slow subscriber are coalesced again per product.
+// A subscriber whose send blocks longer than sendTimeoutMillis, or that falls more than maxPendingPerSubscriber
+// products behind, is dropped: its sender is interrupted and the emitter completed from that thread.
+@Component
+@Slf4j
+public class StockChangeStream {
+
+    private static final long EMITTER_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    private static final long HEARTBEAT_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(15);
+
+    // ProductChangeLog.horizon: an id above it could skip a change that commits later with a lower number
+    private final LongSupplier horizon;
+
+    private final long windowMillis;
+
+    private final int maxPendingPerSubscriber;
+
+    private final long sendTimeoutMillis;
+
+    // Latest update per product since the last window closed
+    private final Map<Long, StockUpdate> window = new ConcurrentHashMap<>();
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService scheduler;
+
+    private ExecutorService senders;
+
+    @Autowired
+    public StockChangeStream(ProductChangeLog productChangeLog,
+                             @Value("${stock-stream.window-millis:500}") long windowMillis,
+                             @Value("${stock-stream.max-pending-per-subscriber:10000}") int maxPendingPerSubscriber,
+                             @Value("${stock-stream.send-timeout-millis:10000}") long sendTimeoutMillis) {
+        this(() -> productChangeLog.horizon(0), windowMillis, maxPendingPerSubscriber, sendTimeoutMillis);
+    }
+
+    StockChangeStream(LongSupplier horizon, long windowMillis, int maxPendingPerSubscriber, long sendTimeoutMillis) {
+        this.horizon = horizon;
+        this.windowMillis = windowMillis;
+        this.maxPendingPerSubscriber = maxPendingPerSubscriber;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+    }
+
+    @PostConstruct
+    void start() {
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "stock-stream-window"));
+        senders = Executors.newCachedThreadPool(runnable -> daemon(runnable, "stock-stream-sender"));
+
+        scheduler.scheduleWithFixedDelay(this::closeWindow, windowMillis, windowMillis, TimeUnit.MILLISECONDS);
+
+    }
+
+    @PreDestroy
+    void stop() {
+
+        scheduler.shutdownNow();
+        senders.shutdownNow();
+
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+
+    }
+
+    @TransactionalEventListener
+    public void onStockChanged(StockChangedEvent event) {
+
+        Product product = event.product();
+        StockUpdate update = new StockUpdate(product.getId(), product.getStockQuantity(), product.getChangeSeq());
+
+        window.merge(update.productId(), update, StockUpdate::latest);
+
+    }
+
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(EMITTER_TIMEOUT_MILLIS));
+    }
+
+    SseEmitter subscribe(SseEmitter emitter) {
+
+        Subscriber subscriber = new Subscriber(emitter);
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        subscribers.add(subscriber);
+
+        return emitter;
+
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    void closeWindow() {
+
+        List<StockUpdate> updates = new ArrayList<>();
+
+        for (Long productId : window.keySet()) {
+            StockUpdate update = window.remove(productId);
+            if (update != null) {
+                updates.add(update);
+            }
+        }
+
+        // Read after the updates were taken, so it covers them unless an earlier number is still in flight
+        long safeSeq = updates.isEmpty() || subscribers.isEmpty() ? 0 : horizon.getAsLong();
+
+        long now = System.currentTimeMillis();
+
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.sendBlockedMillis(now) > sendTimeoutMillis) {
+                subscriber.drop("a send blocked for more than " + sendTimeoutMillis + " ms");
+            } else if (!updates.isEmpty()) {
+                subscriber.offer(updates, safeSeq);
+            } else if (now - subscriber.lastSentAt >= HEARTBEAT_INTERVAL_MILLIS) {
+                subscriber.heartbeat();
+            }
+        }
+
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+
+        // Guarded by this; updates not yet sent, latest per product
+        private final Map<Long, StockUpdate> pending = new LinkedHashMap<>();
+
+        // Guarded by this; the highest horizon read for the pending updates
+        private long safeSeq;
+
+        private boolean heartbeatDue;
+
+        private boolean draining;
+
+        // Guarded by this; no more sends, the emitter is completed by whoever drains next
+        private boolean dropped;
+
+        // Guarded by this; the sender blocked in emitter.send, if any
+        private Thread sendingThread;
+
+        private volatile long sendStartedAt;
+
+        private volatile long lastSentAt = System.currentTimeMillis();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void offer(Collection<StockUpdate> updates, long horizon) {
+
+            boolean overflowed;
+
+            synchronized (this) {
+                safeSeq = Math.max(safeSeq, horizon);
+
+                for (StockUpdate update : updates) {
+                    pending.merge(update.productId(), update, StockUpdate::latest);
+                }
+
+                overflowed = pending.size() > maxPendingPerSubscriber;
+            }
+
+            if (overflowed) {
+                drop("it fell more than " + maxPendingPerSubscriber + " products behind");
+                return;
+            }
+
+            scheduleDrain();
+
+        }
+
+        private void heartbeat() {
+
+            synchronized (this) {
+                heartbeatDue = true;
+            }
+
+            scheduleDrain();
+
+        }
+
+        private void scheduleDrain() {
+
+            synchronized (this) {
+                if (draining || dropped) {
+                    return;
+                }
+                draining = true;
+            }
+
+            senders.execute(this::drain);
+
+        }
+
+        private void drain() {
+
+            boolean wasDropped;
+
+            while (true) {
+                List<StockUpdate> updates;
+                long lastSafeSeq;
+                boolean sendHeartbeat;
+
+                synchronized (this) {
+                    if (dropped || pending.isEmpty() && !heartbeatDue) {
+                        draining = false;
+                        wasDropped = dropped;
+                        break;
+                    }
+
+                    updates = new ArrayList<>(pending.values());
+                    lastSafeSeq = safeSeq;
+                    sendHeartbeat = heartbeatDue && updates.isEmpty();
+                    pending.clear();
+                    heartbeatDue = false;
+                    sendingThread = Thread.currentThread();
+                    sendStartedAt = System.currentTimeMillis();
+                }
+
+                try {
+                    if (sendHeartbeat) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        long lastChangeSeq = Math.min(lastSafeSeq,
+                                updates.stream().mapToLong(StockUpdate::changeSeq).max().orElse(0));
+                        emitter.send(SseEmitter.event()
+                                .name("stock")
+                                .id(Long.toString(lastChangeSeq))
+                                .data(updates, MediaType.APPLICATION_JSON));
+                    }
+                    lastSentAt = System.currentTimeMillis();
+                } catch (IOException | IllegalStateException e) {
+                    synchronized (this) {
+                        draining = false;
+                    }
+                    subscribers.remove(this);
+                    log.debug("Stock stream subscriber went away: {}", e.getMessage());
+                    emitter.completeWithError(e);
+                    return;
+                } finally {
+                    synchronized (this) {
+                        sendingThread = null;
+                        sendStartedAt = 0;
+                    }
+                    // Clears an interrupt from drop() that arrived after the send returned
+                    Thread.interrupted();
+                }
+            }
+
+            // Left to this thread by drop()
+            if (wasDropped) {
+                emitter.complete();
+            }
+
+        }
+
+        // How long the current send has been blocked, 0 when none is in progress
+        private long sendBlockedMillis(long now) {
+            long startedAt = sendStartedAt;
+            return startedAt == 0 ? 0 : now - startedAt;
+        }
+
+        // Completing the emitter waits for a blocked send to release it, so only a sender that is not blocked
+        // completes it: this thread when nothing is draining, otherwise the drainer once its send returns
+        private void drop(String reason) {
+
+            subscribers.remove(this);
+
+            synchronized (this) {
+                if (dropped) {
+                    return;
+                }
+
+                dropped = true;
+                pending.clear();
+
+                log.warn("Disconnecting a stock stream subscriber: {}", reason);
+
+                if (draining) {
+                    if (sendingThread != null) {
+                        sendingThread.interrupt();
+                    }
+                    return;
+                }
+            }
+
+            emitter.complete();
+
+        }
+    }
+}
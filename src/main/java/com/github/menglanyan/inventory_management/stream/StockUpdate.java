@@ -0,0 +1,10 @@
+package com.github.menglanyan.inventory_management.stream;
+
+// Stock level of one product as of a change sequence number, the unit sent to stock stream subscribers
+public record StockUpdate(Long productId, Integer stockQuantity, long changeSeq) {
+
+    // Commits can reach the listener out of order across threads, so the higher sequence number wins
+    static StockUpdate latest(StockUpdate current, StockUpdate candidate) {
+        return candidate.changeSeq() >= current.changeSeq() ? candidate : current;
+    }
+}
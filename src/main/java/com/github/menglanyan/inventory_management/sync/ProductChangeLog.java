@@ -0,0 +1,278 @@
+package com.github.menglanyan.inventory_management.sync;
+
+import com.github.menglanyan.inventory_management.cache.CatalogVersions;
+import com.github.menglanyan.inventory_management.entities.ChangeSequence;
+import com.github.menglanyan.inventory_management.entities.Product;
+import com.github.menglanyan.inventory_management.entities.ProductChangeSet;
+import com.github.menglanyan.inventory_management.entities.ProductTombstone;
+import com.github.menglanyan.inventory_management.enums.CatalogAggregate;
+import com.github.menglanyan.inventory_management.repositories.ProductChangeSetRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Gives every product change a number in one catalog-wide sequence, so clients can sync everything after the
+// last number they saw. Just before commit each writing transaction inserts a ProductChangeSet row, and its
+// auto-increment id numbers the transaction's changes: set id s covers the numbers from (base + s) << SET_BITS up.
+// Nothing is locked, so sets can commit out of id order; horizon() tells readers how far the sequence is
+// complete, and a change can never appear below a horizon a client already synced past.
+@Component
+@Slf4j
+public class ProductChangeLog {
+
+    static final String SEQUENCE_NAME = "products";
+
+    static final int SET_BITS = 20;
+
+    private static final int CHANGES_PER_SET = 1 << SET_BITS;
+
+    // Set ids read past the last settled one per horizon
+    private static final int HORIZON_SCAN_LIMIT = 10_000;
+
+    private final EntityManager entityManager;
+
+    private final PlatformTransactionManager transactionManager;
+
+    private final ProductChangeSetRepository productChangeSetRepository;
+
+    private final CatalogVersions catalogVersions;
+
+    // A missing set id older than this belongs to a transaction that rolled back or died, so it no longer holds
+    // the horizon back. Must exceed the longest time from the set insert to commit, lock waits included.
+    private final long settleMillis;
+
+    // Set ids are numbered above every number the old counter handed out
+    private volatile long base;
+
+    private ScheduledExecutorService scheduler;
+
+    public ProductChangeLog(EntityManager entityManager, PlatformTransactionManager transactionManager,
+                            ProductChangeSetRepository productChangeSetRepository, CatalogVersions catalogVersions,
+                            @Value("${product-changes.settle-millis:60000}") long settleMillis) {
+        this.entityManager = entityManager;
+        this.transactionManager = transactionManager;
+        this.productChangeSetRepository = productChangeSetRepository;
+        this.catalogVersions = catalogVersions;
+        this.settleMillis = settleMillis;
+    }
+
+    @PostConstruct
+    void initialize() {
+
+        numberUntrackedProducts();
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-change-log");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::pruneSafely, settleMillis, settleMillis, TimeUnit.MILLISECONDS);
+
+    }
+
+    // Fixes the base and numbers products written before change tracking existed (change_seq 0)
+    void numberUntrackedProducts() {
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            // Locked so two instances starting together do not both number the same products
+            ChangeSequence sequence = entityManager.find(ChangeSequence.class, SEQUENCE_NAME,
+                    LockModeType.PESSIMISTIC_WRITE);
+
+            if (sequence == null) {
+                sequence = ChangeSequence.builder().name(SEQUENCE_NAME).lastValue(0).build();
+                entityManager.persist(sequence);
+            }
+
+            base = (sequence.getLastValue() >> SET_BITS) + 1;
+
+            Object[] ids = (Object[]) entityManager.createNativeQuery(
+                            "SELECT MIN(id), MAX(id) FROM products WHERE change_seq = 0")
+                    .getSingleResult();
+
+            if (ids[0] == null) {
+                return;
+            }
+
+            int numbered = 0;
+
+            // One set per id range, each product numbered by its offset in the range
+            for (long low = ((Number) ids[0]).longValue(); low <= ((Number) ids[1]).longValue();
+                 low += CHANGES_PER_SET) {
+                numbered += entityManager.createNativeQuery(
+                                "UPDATE products SET change_seq = :first + (id - :low) " +
+                                        "WHERE change_seq = 0 AND id >= :low AND id < :high")
+                        .setParameter("first", allocateSet())
+                        .setParameter("low", low)
+                        .setParameter("high", low + CHANGES_PER_SET)
+                        .executeUpdate();
+            }
+
+            log.info("Assigned change sequence numbers to {} untracked products", numbered);
+        });
+
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public void recordChanged(Long productId) {
+        pendingChanges().putIfAbsent(productId, false);
+    }
+
+    public void recordDeleted(Long productId) {
+        pendingChanges().put(productId, true);
+    }
+
+    // The highest number at or below which every change has committed (or never will), and at least since.
+    // Readers return changes up to it only, and hand it out as the next since once they have returned them all.
+    public long horizon(long since) {
+
+        // Sets up to the client's own, or up to the last settled one, are complete
+        long last = Math.max(Math.max(0, (since >> SET_BITS) - base), lastSettledSet());
+
+        // Then every set up to the first missing id
+        for (long id : productChangeSetRepository.findIdsAfter(last, Limit.of(HORIZON_SCAN_LIMIT))) {
+            if (id != last + 1) {
+                break;
+            }
+            last = id;
+        }
+
+        return Math.max(since, ((base + last + 1) << SET_BITS) - 1);
+    }
+
+    // Drops sets below the last settled one, which stays to anchor horizon()
+    void prune() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            long settled = lastSettledSet();
+
+            if (settled > 0) {
+                productChangeSetRepository.deleteBelow(settled);
+            }
+        });
+    }
+
+    // Product id to whether it was deleted, for the current transaction
+    @SuppressWarnings("unchecked")
+    private Map<Long, Boolean> pendingChanges() {
+
+        Map<Long, Boolean> pending = (Map<Long, Boolean>) TransactionSynchronizationManager.getResource(this);
+
+        if (pending != null) {
+            return pending;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Product changes must be recorded inside a transaction");
+        }
+
+        Map<Long, Boolean> created = new LinkedHashMap<>();
+
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            private boolean numbered;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                numbered = true;
+                assignSequenceNumbers(created);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResource(ProductChangeLog.this);
+
+                // The set id is now a gap that holds back the horizon until it settles; anything cached while it
+                // was held back is stale from then on
+                if (numbered && status != STATUS_COMMITTED) {
+                    scheduler.schedule(() -> catalogVersions.bump(CatalogAggregate.PRODUCTS),
+                            settleMillis, TimeUnit.MILLISECONDS);
+                }
+            }
+        });
+
+        return created;
+
+    }
+
+    private void assignSequenceNumbers(Map<Long, Boolean> pending) {
+
+        long next = 0;
+        int index = CHANGES_PER_SET;
+
+        for (Map.Entry<Long, Boolean> change : pending.entrySet()) {
+            if (index == CHANGES_PER_SET) {
+                next = allocateSet();
+                index = 0;
+            }
+
+            long changeSeq = next + index++;
+
+            if (change.getValue()) {
+                entityManager.merge(ProductTombstone.builder().productId(change.getKey()).changeSeq(changeSeq).build());
+                continue;
+            }
+
+            Product product = entityManager.find(Product.class, change.getKey());
+
+            if (product != null) {
+                product.setChangeSeq(changeSeq);
+            }
+        }
+
+    }
+
+    // Inserts a set row and returns the first number it covers
+    private long allocateSet() {
+
+        ProductChangeSet set = ProductChangeSet.builder().createdAt(now()).build();
+
+        entityManager.persist(set);
+
+        return (base + set.getId()) << SET_BITS;
+    }
+
+    // 0 when there is none
+    private long lastSettledSet() {
+
+        Long settled = productChangeSetRepository.findMaxIdCreatedAtOrBefore(
+                now().minus(Duration.ofMillis(settleMillis)));
+
+        return settled == null ? 0 : settled;
+    }
+
+    private void pruneSafely() {
+        try {
+            prune();
+        } catch (RuntimeException e) {
+            log.warn("Pruning product change sets failed: {}", e.getMessage());
+        }
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now(ZoneOffset.UTC);
+    }
+}
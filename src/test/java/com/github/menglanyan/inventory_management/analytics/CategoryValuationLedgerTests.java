@@ -0,0 +1,137 @@
+package com.github.menglanyan.inventory_management.analytics;
+
+import com.github.menglanyan.inventory_management.entities.Category;
+import com.github.menglanyan.inventory_management.entities.Product;
+import com.github.menglanyan.inventory_management.repositories.CategoryRepository;
+import com.github.menglanyan.inventory_management.repositories.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(CategoryValuationLedger.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CategoryValuationLedgerTests {
+
+    @Autowired
+    private CategoryValuationLedger ledger;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Category tools;
+
+    private Category food;
+
+    private Product hammer;
+
+    @BeforeEach
+    void setUp() {
+        tools = categoryRepository.save(Category.builder().name("Tools").build());
+        food = categoryRepository.save(Category.builder().name("Food").build());
+        hammer = productRepository.save(product("Hammer", "12.50", 4, tools));
+        productRepository.save(product("Bread", "2.00", 10, food));
+
+        // The setup bypassed the ledger; start every test from a recomputation
+        ledger.reconcile();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void runningTotalsFollowEveryKindOfWriteAndMatchARecomputation() {
+        assertThat(ledger.totals()).containsOnly(
+                Map.entry(tools.getId(), new BigDecimal("50.00")),
+                Map.entry(food.getId(), new BigDecimal("20.00")));
+
+        Product saw = inTransaction(() -> {
+            Product saved = productRepository.save(product("Saw", "30.00", 2, tools));
+            ledger.recordAdded(saved);
+            return saved;
+        });
+
+        // Stock sold, then a price change that also moves the product to another category
+        inTransaction(() -> {
+            productRepository.adjustStock(hammer.getId(), -3);
+            Product sold = productRepository.findById(hammer.getId()).orElseThrow();
+            ledger.recordChange(tools.getId(), new BigDecimal("50.00"), sold);
+            return null;
+        });
+
+        inTransaction(() -> {
+            Product moved = productRepository.findById(saw.getId()).orElseThrow();
+            BigDecimal previousValue = CategoryValuationLedger.valueOf(moved);
+            moved.setPrice(new BigDecimal("25.00"));
+            moved.setCategory(food);
+            ledger.recordChange(tools.getId(), previousValue, moved);
+            return null;
+        });
+
+        inTransaction(() -> {
+            Product bread = productRepository.findAll().stream()
+                    .filter(product -> product.getName().equals("Bread"))
+                    .findFirst()
+                    .orElseThrow();
+            productRepository.delete(bread);
+            ledger.recordRemoved(bread);
+            return null;
+        });
+
+        assertThat(ledger.totals()).containsOnly(
+                Map.entry(tools.getId(), new BigDecimal("12.50")),
+                Map.entry(food.getId(), new BigDecimal("50.00")));
+        assertThat(ledger.reconcile()).isEmpty();
+    }
+
+    @Test
+    void rolledBackWritesLeaveTheTotalsAlone() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            ledger.recordAdded(productRepository.save(product("Saw", "30.00", 2, tools)));
+            status.setRollbackOnly();
+        });
+
+        assertThat(ledger.totals()).containsEntry(tools.getId(), new BigDecimal("50.00"));
+        assertThat(ledger.reconcile()).isEmpty();
+    }
+
+    @Test
+    void reconciliationReportsAndCorrectsWritesThatBypassedTheLedger() {
+        inTransaction(() -> productRepository.adjustStock(hammer.getId(), 6));
+
+        assertThat(ledger.reconcile()).containsExactly(new CategoryValuationLedger.Discrepancy(tools.getId(),
+                new BigDecimal("50.00"), new BigDecimal("125.00")));
+        assertThat(ledger.totals()).containsEntry(tools.getId(), new BigDecimal("125.00"));
+    }
+
+    private Product product(String name, String price, int stock, Category category) {
+        return Product.builder().name(name).sku(name.toUpperCase()).price(new BigDecimal(price))
+                .stockQuantity(stock).category(category).build();
+    }
+
+    private <T> T inTransaction(Supplier<T> action) {
+        return new TransactionTemplate(transactionManager).execute(status -> action.get());
+    }
+}
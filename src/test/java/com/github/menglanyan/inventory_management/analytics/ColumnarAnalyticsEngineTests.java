@@ -0,0 +1,169 @@
+package com.github.menglanyan.inventory_management.analytics;
+
+import com.github.menglanyan.inventory_management.entities.Category;
+import com.github.menglanyan.inventory_management.entities.Product;
+import com.github.menglanyan.inventory_management.entities.Supplier;
+import com.github.menglanyan.inventory_management.entities.Transaction;
+import com.github.menglanyan.inventory_management.enums.AnalyticsDimension;
+import com.github.menglanyan.inventory_management.enums.TransactionStatus;
+import com.github.menglanyan.inventory_management.enums.TransactionType;
+import com.github.menglanyan.inventory_management.events.TransactionStatusChangedEvent;
+import com.github.menglanyan.inventory_management.events.TransactionsRecordedEvent;
+import com.github.menglanyan.inventory_management.repositories.CategoryRepository;
+import com.github.menglanyan.inventory_management.repositories.ProductRepository;
+import com.github.menglanyan.inventory_management.repositories.SalesAggregate;
+import com.github.menglanyan.inventory_management.repositories.SupplierRepository;
+import com.github.menglanyan.inventory_management.repositories.TransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "analytics.columnar.enabled=true")
+@Import(ColumnarAnalyticsEngine.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ColumnarAnalyticsEngineTests {
+
+    @Autowired
+    private ColumnarAnalyticsEngine engine;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Product> products = new ArrayList<>();
+
+    private final List<Supplier> suppliers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Category tools = categoryRepository.save(Category.builder().name("Tools").build());
+        Category food = categoryRepository.save(Category.builder().name("Food").build());
+
+        for (int i = 0; i < 6; i++) {
+            products.add(productRepository.save(Product.builder().name("Item " + i).sku("SKU-" + i)
+                    .price(BigDecimal.TEN).stockQuantity(100)
+                    .category(i == 5 ? null : i % 2 == 0 ? tools : food).build()));
+        }
+
+        suppliers.add(supplierRepository.save(Supplier.builder().name("Acme").contactInfo("acme").build()));
+        suppliers.add(supplierRepository.save(Supplier.builder().name("Globex").contactInfo("globex").build()));
+
+        for (int i = 0; i < 200; i++) {
+            transactionRepository.save(transaction(i));
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        transactionRepository.deleteAll();
+        productRepository.deleteAll();
+        supplierRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void answersLikeTheGroupByQueriesForEveryDimension() {
+        engine.reload();
+
+        assertSameAsDatabase();
+    }
+
+    @Test
+    void appendsCommittedTransactionsAndStatusChanges() {
+        engine.reload();
+
+        inTransaction(() -> {
+            List<Transaction> recorded = new ArrayList<>();
+
+            for (int i = 200; i < 230; i++) {
+                recorded.add(transactionRepository.save(transaction(i)));
+            }
+
+            eventPublisher.publishEvent(new TransactionsRecordedEvent(recorded));
+        });
+
+        Transaction pending = transactionRepository.findAll().stream()
+                .filter(transaction -> transaction.getStatus() == TransactionStatus.PROCESSING)
+                .findFirst()
+                .orElseThrow();
+
+        inTransaction(() -> {
+            pending.setStatus(TransactionStatus.COMPLETED);
+            transactionRepository.save(pending);
+            eventPublisher.publishEvent(new TransactionStatusChangedEvent(pending.getId(),
+                    TransactionStatus.PROCESSING, TransactionStatus.COMPLETED));
+        });
+
+        assertSameAsDatabase();
+    }
+
+    private void assertSameAsDatabase() {
+        LocalDate today = LocalDate.now();
+
+        for (AnalyticsDimension dimension : AnalyticsDimension.values()) {
+            for (TransactionStatus status : List.of(TransactionStatus.COMPLETED, TransactionStatus.PROCESSING)) {
+                inTransaction(() -> assertThat(engine.aggregateSales(dimension, status, today, today.plusDays(1)))
+                        .as("%s %s", dimension, status)
+                        .isEqualTo(transactionRepository.aggregateSales(dimension, status, today.atStartOfDay(),
+                                today.plusDays(1).atStartOfDay()).stream().map(this::withoutNullSums).toList()));
+            }
+
+            assertThat(engine.aggregateSales(dimension, TransactionStatus.COMPLETED, today.plusDays(1),
+                    today.plusDays(2))).isEmpty();
+        }
+    }
+
+    // SUM over only NULLs is NULL in SQL and zero in the columns; the service reports both as zero
+    private SalesAggregate withoutNullSums(SalesAggregate aggregate) {
+        return new SalesAggregate(aggregate.day(), aggregate.id(), aggregate.name(), aggregate.transactionType(),
+                aggregate.transactionCount(),
+                aggregate.units() == null ? 0L : aggregate.units(),
+                aggregate.revenue() == null ? BigDecimal.valueOf(0, 2) : aggregate.revenue());
+    }
+
+    // Mixed types, statuses, missing products and suppliers, and null quantities or prices
+    private Transaction transaction(int i) {
+        return Transaction.builder()
+                .transactionType(TransactionType.values()[i % 3])
+                .status(i % 7 == 0 ? TransactionStatus.PROCESSING : TransactionStatus.COMPLETED)
+                .product(i % 11 == 0 ? null : products.get(i % products.size()))
+                .supplier(i % 3 == 1 ? null : suppliers.get(i % suppliers.size()))
+                .totalProducts(i % 13 == 0 ? null : i % 5 + 1)
+                .totalPrice(i % 17 == 0 ? null : BigDecimal.valueOf(i * 101L, 2))
+                .description("Transaction " + i)
+                .build();
+    }
+
+    private void inTransaction(Runnable action) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> action.run());
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.menglanyan.inventory_management.analytics;
+
+import com.github.menglanyan.inventory_management.enums.AnalyticsDimension;
+import com.github.menglanyan.inventory_management.enums.TransactionStatus;
+import com.github.menglanyan.inventory_management.enums.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Run with: mvn test -Dtest=ColumnarScanBenchmark -Dbenchmarks=true -DargLine=-Xmx4g
+// Filter + group-by scan throughput over synthetic transactions spread across ten years, one thread against the
+// common fork/join pool. 50M rows need about 2.7 GB of heap; -Dbenchmark.rows=10000000 runs a smaller table.
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class ColumnarScanBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 50_000_000);
+
+    private static final int DAYS = 3650;
+
+    private static final int PRODUCTS = 20_000;
+
+    private static final int SUPPLIERS = 200;
+
+    private static final int RUNS = 5;
+
+    @Test
+    void scanThroughput() {
+        TransactionColumns columns = new TransactionColumns();
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDate firstDay = LocalDate.now().minusDays(DAYS);
+        TransactionType[] types = TransactionType.values();
+
+        long loadStart = System.nanoTime();
+
+        for (int i = 0; i < ROWS; i++) {
+            columns.append(i + 1L, firstDay.toEpochDay() + (long) i * DAYS / ROWS, types[random.nextInt(types.length)],
+                    random.nextInt(20) == 0 ? TransactionStatus.PROCESSING : TransactionStatus.COMPLETED,
+                    1L + random.nextInt(PRODUCTS), 1L + random.nextInt(50), 1L + random.nextInt(SUPPLIERS),
+                    1 + random.nextInt(10), BigDecimal.valueOf(random.nextInt(1_000_000), 2));
+        }
+
+        System.out.printf("Loaded %,d rows in %d ms%n", ROWS, (System.nanoTime() - loadStart) / 1_000_000);
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool common = ForkJoinPool.commonPool();
+
+        // Whole history, and the last year only
+        long[][] ranges = {
+                {firstDay.toEpochDay(), firstDay.plusDays(DAYS).toEpochDay()},
+                {firstDay.plusDays(DAYS - 365).toEpochDay(), firstDay.plusDays(DAYS).toEpochDay()}
+        };
+
+        for (AnalyticsDimension dimension : AnalyticsDimension.values()) {
+            for (long[] range : ranges) {
+                long singleNanos = bestOf(columns, dimension, range, single);
+                long parallelNanos = bestOf(columns, dimension, range, common);
+
+                System.out.printf("%-9s %5d days  1 thread %8.1f M rows/s  %2d threads %8.1f M rows/s%n",
+                        dimension, range[1] - range[0], ROWS / (singleNanos / 1e9) / 1e6,
+                        common.getParallelism(), ROWS / (parallelNanos / 1e9) / 1e6);
+            }
+        }
+
+        single.shutdown();
+    }
+
+    private static long bestOf(TransactionColumns columns, AnalyticsDimension dimension, long[] range,
+                               ForkJoinPool pool) {
+        long best = Long.MAX_VALUE;
+
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            SalesAccumulator groups = columns.aggregate(dimension, TransactionStatus.COMPLETED, range[0], range[1],
+                    pool);
+            best = Math.min(best, System.nanoTime() - start);
+
+            assertThat(groups.size()).isPositive();
+        }
+
+        return best;
+    }
+}
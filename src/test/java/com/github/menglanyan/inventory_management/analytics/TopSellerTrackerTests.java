@@ -0,0 +1,135 @@
+package com.github.menglanyan.inventory_management.analytics;
+
+import com.github.menglanyan.inventory_management.enums.SalesWindow;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TopSellerTrackerTests {
+
+    private static final long MINUTE = 60_000L;
+
+    private static final long HOUR = 60 * MINUTE;
+
+    private static final int COUNTERS = 200;
+
+    private static final int PRODUCTS = 10_000;
+
+    // Three days of Zipf-distributed sales with 1-5 units each, checked against exact counts for every window
+    @Test
+    void boundsHoldAgainstExactCountsOnASkewedWorkload() {
+        TopSellerTracker tracker = new TopSellerTracker(COUNTERS);
+        SplittableRandom random = new SplittableRandom(7);
+        double[] cumulative = zipf(PRODUCTS, 1.1);
+
+        long start = 1_000 * HOUR;
+        long end = start + 72 * HOUR;
+        int sales = 300_000;
+
+        long[] times = new long[sales];
+        long[] products = new long[sales];
+        long[] units = new long[sales];
+
+        for (int i = 0; i < sales; i++) {
+            times[i] = start + (end - start) * i / sales;
+            products[i] = sample(cumulative, random) + 1;
+            units[i] = 1 + random.nextInt(5);
+            tracker.record(products[i], units[i], times[i]);
+        }
+
+        for (SalesWindow window : SalesWindow.values()) {
+            long now = end - 1;
+            long firstIncluded = (now / window.getBucketMillis() - window.getBuckets() + 1) * window.getBucketMillis();
+
+            Map<Long, Long> exact = new HashMap<>();
+            long exactTotal = 0;
+
+            for (int i = 0; i < sales; i++) {
+                if (times[i] >= firstIncluded) {
+                    exact.merge(products[i], units[i], Long::sum);
+                    exactTotal += units[i];
+                }
+            }
+
+            TopSellerTracker.TopSellers all = tracker.top(window, Integer.MAX_VALUE, now);
+
+            assertThat(all.totalUnits()).as("%s total", window).isEqualTo(exactTotal);
+            assertThat(all.maxError()).as("%s error bound", window).isLessThanOrEqualTo(exactTotal / COUNTERS);
+
+            for (TopSellerTracker.Seller seller : all.sellers()) {
+                long trueUnits = exact.getOrDefault(seller.productId(), 0L);
+
+                assertThat(trueUnits).as("%s product %d", window, seller.productId())
+                        .isBetween(seller.minUnitsSold(), seller.unitsSold());
+            }
+
+            List<Long> ranked = all.sellers().stream().map(TopSellerTracker.Seller::productId).toList();
+
+            exact.forEach((productId, trueUnits) -> {
+                if (trueUnits > all.maxError()) {
+                    assertThat(ranked).as("%s heavy hitter %d", window, productId).contains(productId);
+                }
+            });
+
+            List<Long> exactTop10 = exact.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Long>comparingByValue().reversed())
+                    .limit(10)
+                    .map(Map.Entry::getKey)
+                    .toList();
+
+            assertThat(tracker.top(window, 20, now).sellers())
+                    .extracting(TopSellerTracker.Seller::productId)
+                    .as("%s top 20", window)
+                    .containsAll(exactTop10);
+        }
+    }
+
+    @Test
+    void salesLeaveEachWindowOnceTheyAreOlderThanIt() {
+        TopSellerTracker tracker = new TopSellerTracker(COUNTERS);
+        long soldAt = 500 * HOUR + 30 * MINUTE;
+
+        tracker.record(42, 3, soldAt);
+
+        assertThat(tracker.top(SalesWindow.HOUR, 20, soldAt + 59 * MINUTE).sellers()).hasSize(1);
+        assertThat(tracker.top(SalesWindow.HOUR, 20, soldAt + 61 * MINUTE).sellers()).isEmpty();
+        assertThat(tracker.top(SalesWindow.DAY, 20, soldAt + 61 * MINUTE).sellers())
+                .containsExactly(new TopSellerTracker.Seller(42, 3, 3));
+        assertThat(tracker.top(SalesWindow.DAY, 20, soldAt + 25 * HOUR).sellers()).isEmpty();
+        assertThat(tracker.top(SalesWindow.WEEK, 20, soldAt + 25 * HOUR).sellers()).hasSize(1);
+
+        // The bucket is reused once the ring comes round again
+        tracker.record(7, 1, soldAt + 168 * HOUR);
+
+        assertThat(tracker.top(SalesWindow.WEEK, 20, soldAt + 168 * HOUR).sellers())
+                .containsExactly(new TopSellerTracker.Seller(7, 1, 1));
+    }
+
+    private static double[] zipf(int size, double exponent) {
+        double[] cumulative = new double[size];
+        double sum = 0;
+
+        for (int i = 0; i < size; i++) {
+            sum += 1 / Math.pow(i + 1, exponent);
+            cumulative[i] = sum;
+        }
+
+        for (int i = 0; i < size; i++) {
+            cumulative[i] /= sum;
+        }
+
+        return cumulative;
+    }
+
+    private static int sample(double[] cumulative, SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+
+        return Math.min(index < 0 ? -index - 1 : index, cumulative.length - 1);
+    }
+}
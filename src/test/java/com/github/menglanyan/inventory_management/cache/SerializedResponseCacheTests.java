@@ -0,0 +1,192 @@
+package com.github.menglanyan.inventory_management.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.menglanyan.inventory_management.dtos.Response;
+import com.github.menglanyan.inventory_management.dtos.ResponseCacheStatsDTO;
+import com.github.menglanyan.inventory_management.enums.CatalogAggregate;
+import com.github.menglanyan.inventory_management.events.ProductDeletedEvent;
+import com.github.menglanyan.inventory_management.exceptions.NameValueRequiredException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SerializedResponseCacheTests {
+
+    private final CatalogVersions catalogVersions = new CatalogVersions();
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private final SerializedResponseCache cache = new SerializedResponseCache(objectMapper, catalogVersions);
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void servesTheSameBytesUntilTheVersionIsBumped() {
+        byte[] first = cache.get(CatalogAggregate.SUPPLIERS, "all", loader("first"));
+        byte[] second = cache.get(CatalogAggregate.SUPPLIERS, "all", loader("second"));
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(1);
+
+        catalogVersions.bump(CatalogAggregate.SUPPLIERS);
+
+        assertThat(new String(cache.get(CatalogAggregate.SUPPLIERS, "all", loader("third")))).contains("third");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void keepsVariantsAndAggregatesApart() {
+        cache.get(CatalogAggregate.PRODUCTS, "all:size=10", loader("ten"));
+        cache.get(CatalogAggregate.PRODUCTS, "all:size=20", loader("twenty"));
+        cache.get(CatalogAggregate.CATEGORIES, "all", loader("categories"));
+
+        catalogVersions.bump(CatalogAggregate.CATEGORIES);
+
+        assertThat(new String(cache.get(CatalogAggregate.PRODUCTS, "all:size=10", loader("other")))).contains("ten");
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void defersTheBumpUntilTheTransactionCommits() {
+        cache.get(CatalogAggregate.CATEGORIES, "all", loader("before"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            catalogVersions.bump(CatalogAggregate.CATEGORIES);
+
+            assertThat(catalogVersions.current(CatalogAggregate.CATEGORIES)).isZero();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(catalogVersions.current(CatalogAggregate.CATEGORIES)).isEqualTo(1);
+        assertThat(new String(cache.get(CatalogAggregate.CATEGORIES, "all", loader("after")))).contains("after");
+    }
+
+    @Test
+    void doesNotCacheFailures() {
+        assertThatThrownBy(() -> cache.get(CatalogAggregate.PRODUCTS, "all:cursor=bad", () -> {
+            throw new NameValueRequiredException("Invalid cursor");
+        })).isInstanceOf(NameValueRequiredException.class);
+
+        assertThat(new String(cache.get(CatalogAggregate.PRODUCTS, "all:cursor=bad", loader("ok")))).contains("ok");
+    }
+
+    @Test
+    void countsHitsAndMissesPerAggregate() {
+        cache.get(CatalogAggregate.SUPPLIERS, "all", loader("a"));
+        cache.get(CatalogAggregate.SUPPLIERS, "all", loader("a"));
+        cache.get(CatalogAggregate.SUPPLIERS, "all", loader("a"));
+
+        ResponseCacheStatsDTO suppliers = cache.stats().stream()
+                .filter(stats -> stats.getAggregate() == CatalogAggregate.SUPPLIERS)
+                .findFirst()
+                .orElseThrow();
+
+        assertThat(suppliers.getHits()).isEqualTo(2);
+        assertThat(suppliers.getMisses()).isEqualTo(1);
+        assertThat(suppliers.getEntries()).isEqualTo(1);
+        assertThat(suppliers.getBytes()).isPositive();
+    }
+
+    @Test
+    void answersAMatchingIfNoneMatchWithoutLoading() {
+        ResponseEntity<byte[]> first = cache.respond(CatalogAggregate.CATEGORIES, "all", request(null), loader("a"));
+        String eTag = first.getHeaders().getETag();
+
+        ResponseEntity<byte[]> revalidated = cache.respond(CatalogAggregate.CATEGORIES, "all", request(eTag),
+                loader("b"));
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(revalidated.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(revalidated.getBody()).isNull();
+        assertThat(loads).hasValue(1);
+
+        catalogVersions.bump(CatalogAggregate.CATEGORIES);
+
+        ResponseEntity<byte[]> changed = cache.respond(CatalogAggregate.CATEGORIES, "all", request(eTag),
+                loader("c"));
+
+        assertThat(changed.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(changed.getHeaders().getETag()).isNotEqualTo(eTag);
+    }
+
+    @Test
+    void changesOnlyTheTagsOfChangedProducts() {
+        String first = catalogVersions.productETag(1L);
+        String second = catalogVersions.productETag(2L);
+        String list = catalogVersions.eTag(CatalogAggregate.PRODUCTS, catalogVersions.current(CatalogAggregate.PRODUCTS));
+
+        catalogVersions.bumpProduct(1L);
+
+        assertThat(catalogVersions.productETag(1L)).isNotEqualTo(first);
+        assertThat(catalogVersions.productETag(2L)).isEqualTo(second);
+        assertThat(catalogVersions.eTag(CatalogAggregate.PRODUCTS, catalogVersions.current(CatalogAggregate.PRODUCTS)))
+                .isNotEqualTo(list);
+
+    }
+
+    @Test
+    void forgetsDeletedProductsWithoutReissuingTheirTags() {
+        String original = catalogVersions.productETag(1L);
+        catalogVersions.bumpProduct(1L);
+        String changed = catalogVersions.productETag(1L);
+        String other = catalogVersions.productETag(2L);
+
+        catalogVersions.onProductDeleted(new ProductDeletedEvent(1L));
+
+        assertThat(catalogVersions.trackedProductCount()).isZero();
+        assertThat(catalogVersions.productETag(1L)).isNotIn(original, changed);
+        assertThat(catalogVersions.productETag(2L)).isNotEqualTo(other);
+    }
+
+    @Test
+    void stampsEveryResponseWithItsOwnRenderTime() throws Exception {
+        cache.respond(CatalogAggregate.SUPPLIERS, "all", request(null), loader("a"));
+
+        LocalDateTime afterFirst = LocalDateTime.now();
+        ResponseEntity<byte[]> hit = cache.respond(CatalogAggregate.SUPPLIERS, "all", request(null), loader("b"));
+
+        JsonNode body = objectMapper.readTree(hit.getBody());
+
+        assertThat(loads).hasValue(1);
+        assertThat(body.get("message").asText()).isEqualTo("a");
+        assertThat(objectMapper.treeToValue(body.get("timestamp"), LocalDateTime.class))
+                .isAfterOrEqualTo(afterFirst);
+        assertThat(new String(cache.get(CatalogAggregate.SUPPLIERS, "all", loader("c")))).doesNotContain("timestamp");
+    }
+
+    private ServletWebRequest request(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/categories/all");
+
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+
+    private Supplier<Response> loader(String message) {
+        return () -> {
+            loads.incrementAndGet();
+            return Response.builder().statusCode(200).message(message).build();
+        };
+    }
+}
@@ -0,0 +1,121 @@
+package com.github.menglanyan.inventory_management.mappers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.menglanyan.inventory_management.dtos.Response;
+import com.github.menglanyan.inventory_management.enums.ProductField;
+import com.github.menglanyan.inventory_management.enums.TransactionField;
+import com.github.menglanyan.inventory_management.enums.TransactionStatus;
+import com.github.menglanyan.inventory_management.enums.TransactionType;
+import com.github.menglanyan.inventory_management.repositories.ProductRow;
+import com.github.menglanyan.inventory_management.repositories.TransactionRow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Run with: mvn test -Dtest=SparseFieldsBenchmark -Dbenchmarks=true
+// Serialized size and time of a 500 row list page, full DTOs against the fields= views a list screen needs
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class SparseFieldsBenchmark {
+
+    private static final int ROWS = 500;
+
+    private static final int WARMUP_ROUNDS = 200;
+
+    private static final int MEASURED_ROUNDS = 200;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void fullVersusSparseResponses() throws Exception {
+        List<ProductRow> productRows = productRows();
+        List<TransactionRow> transactionRows = transactionRows();
+
+        Set<ProductField> productFields = ProductField.parse("id,name,stockQuantity");
+        Set<TransactionField> transactionFields = TransactionField.parse("id,totalPrice,status");
+
+        long fullProducts = report("products, full", Response.builder()
+                .products(ProductMapper.toDTOs(productRows, ProductField.ALL)).build());
+        long sparseProducts = report("products, id,name,stockQuantity", Response.builder()
+                .products(ProductMapper.toDTOs(productRows, productFields)).build());
+
+        long fullTransactions = report("transactions, full", Response.builder()
+                .transactions(TransactionMapper.toDTOs(transactionRows)).build());
+        long sparseTransactions = report("transactions, id,totalPrice,status", Response.builder()
+                .transactions(TransactionMapper.toDTOs(sparse(transactionRows, transactionFields))).build());
+
+        assertThat(sparseProducts).isLessThan(fullProducts);
+        assertThat(sparseTransactions).isLessThan(fullTransactions);
+    }
+
+    private long report(String label, Response response) throws Exception {
+        long checksum = 0;
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            checksum += objectMapper.writeValueAsBytes(response).length;
+        }
+
+        long start = System.nanoTime();
+
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            checksum += objectMapper.writeValueAsBytes(response).length;
+        }
+
+        double millis = (System.nanoTime() - start) / 1e6 / MEASURED_ROUNDS;
+        long bytes = objectMapper.writeValueAsBytes(response).length;
+
+        System.out.printf("%-36s %,9d bytes %8.3f ms per %,d  (%d)%n", label, bytes, millis, ROWS, checksum);
+
+        return bytes;
+    }
+
+    // What the NULL literals in the row query leave behind for unrequested columns
+    private static List<TransactionRow> sparse(List<TransactionRow> rows, Set<TransactionField> fields) {
+        List<TransactionRow> sparseRows = new ArrayList<>(rows.size());
+
+        for (TransactionRow row : rows) {
+            sparseRows.add(new TransactionRow(row.id(),
+                    fields.contains(TransactionField.TOTAL_PRODUCTS) ? row.totalProducts() : null,
+                    fields.contains(TransactionField.TOTAL_PRICE) ? row.totalPrice() : null,
+                    fields.contains(TransactionField.TRANSACTION_TYPE) ? row.transactionType() : null,
+                    fields.contains(TransactionField.STATUS) ? row.status() : null,
+                    fields.contains(TransactionField.DESCRIPTION) ? row.description() : null,
+                    fields.contains(TransactionField.NOTE) ? row.note() : null,
+                    fields.contains(TransactionField.CREATED_AT) ? row.createdAt() : null,
+                    fields.contains(TransactionField.UPDATED_AT) ? row.updatedAt() : null));
+        }
+
+        return sparseRows;
+    }
+
+    private static List<ProductRow> productRows() {
+        LocalDateTime now = LocalDateTime.now();
+        List<ProductRow> rows = new ArrayList<>(ROWS);
+
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new ProductRow((long) i, (long) i % 20, "Product " + i, "SKU-" + i,
+                    BigDecimal.valueOf(i % 500 + 1), i % 50, 10, "Description of product " + i, now,
+                    now.plusYears(1), "/images/" + i + ".png", (long) i));
+        }
+
+        return rows;
+    }
+
+    private static List<TransactionRow> transactionRows() {
+        LocalDateTime now = LocalDateTime.now();
+        List<TransactionRow> rows = new ArrayList<>(ROWS);
+
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new TransactionRow((long) i, i % 9 + 1, BigDecimal.valueOf(i), TransactionType.SALE,
+                    TransactionStatus.COMPLETED, "Sale " + i, "Note " + i, now, now));
+        }
+
+        return rows;
+    }
+}
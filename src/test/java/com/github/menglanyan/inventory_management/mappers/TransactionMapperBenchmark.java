@@ -0,0 +1,123 @@
+package com.github.menglanyan.inventory_management.mappers;
+
+import com.github.menglanyan.inventory_management.dtos.TransactionDTO;
+import com.github.menglanyan.inventory_management.entities.Category;
+import com.github.menglanyan.inventory_management.entities.Product;
+import com.github.menglanyan.inventory_management.entities.Transaction;
+import com.github.menglanyan.inventory_management.entities.User;
+import com.github.menglanyan.inventory_management.enums.TransactionStatus;
+import com.github.menglanyan.inventory_management.enums.TransactionType;
+import com.github.menglanyan.inventory_management.enums.UserRole;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.TypeToken;
+import org.modelmapper.convention.MatchingStrategies;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Run with: mvn test -Dtest=TransactionMapperBenchmark -Dbenchmarks=true
+// 10k Transaction -> TransactionDTO conversions with the ModelMapper setup the services used before, against the mappers
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class TransactionMapperBenchmark {
+
+    private static final int TRANSACTIONS = 10_000;
+
+    private static final int WARMUP_ROUNDS = 50;
+
+    private static final int MEASURED_ROUNDS = 50;
+
+    @Test
+    void modelMapperVersusHandWrittenMappers() {
+        List<Transaction> transactions = transactions();
+
+        ModelMapper modelMapper = new ModelMapper();
+        modelMapper.getConfiguration()
+                .setFieldMatchingEnabled(true)
+                .setFieldAccessLevel(org.modelmapper.config.Configuration.AccessLevel.PRIVATE)
+                .setMatchingStrategy(MatchingStrategies.STANDARD);
+
+        // What the list endpoints did: map everything, then drop the nested objects
+        Supplier<List<TransactionDTO>> modelMapperShallow = () -> {
+            List<TransactionDTO> transactionDTOs = modelMapper.map(transactions,
+                    new TypeToken<List<TransactionDTO>>() {}.getType());
+            transactionDTOs.forEach(transactionDTO -> {
+                transactionDTO.setSupplier(null);
+                transactionDTO.setUser(null);
+                transactionDTO.setProduct(null);
+            });
+            return transactionDTOs;
+        };
+
+        Supplier<List<TransactionDTO>> modelMapperDetail = () -> {
+            List<TransactionDTO> transactionDTOs = new ArrayList<>(transactions.size());
+            for (Transaction transaction : transactions) {
+                TransactionDTO transactionDTO = modelMapper.map(transaction, TransactionDTO.class);
+                transactionDTO.setUser(null);
+                transactionDTOs.add(transactionDTO);
+            }
+            return transactionDTOs;
+        };
+
+        Supplier<List<TransactionDTO>> mapperDetail = () -> {
+            List<TransactionDTO> transactionDTOs = new ArrayList<>(transactions.size());
+            for (Transaction transaction : transactions) {
+                transactionDTOs.add(TransactionMapper.toDetailDTO(transaction));
+            }
+            return transactionDTOs;
+        };
+
+        report("ModelMapper, shallow", modelMapperShallow);
+        report("TransactionMapper, shallow", () -> TransactionMapper.toShallowDTOs(transactions));
+        report("ModelMapper, detail", modelMapperDetail);
+        report("TransactionMapper, detail", mapperDetail);
+
+        assertThat(mapperDetail.get()).isEqualTo(modelMapperDetail.get());
+    }
+
+    private static void report(String label, Supplier<List<TransactionDTO>> mapping) {
+        long checksum = 0;
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            checksum += mapping.get().size();
+        }
+
+        long start = System.nanoTime();
+
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            checksum += mapping.get().size();
+        }
+
+        double millis = (System.nanoTime() - start) / 1e6 / MEASURED_ROUNDS;
+
+        System.out.printf("%-28s %8.3f ms per %,d  (%d)%n", label, millis, TRANSACTIONS, checksum);
+    }
+
+    private static List<Transaction> transactions() {
+        Category category = Category.builder().id(1L).name("Hardware").build();
+        User user = User.builder().id(1L).name("Cashier").email("cashier@example.com").password("secret")
+                .phoneNumber("123").role(UserRole.MANAGER).build();
+        com.github.menglanyan.inventory_management.entities.Supplier supplier =
+                com.github.menglanyan.inventory_management.entities.Supplier.builder()
+                        .id(1L).name("Acme").contactInfo("acme@example.com").address("1 Main St").build();
+
+        List<Transaction> transactions = new ArrayList<>(TRANSACTIONS);
+
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            Product product = Product.builder().id((long) i % 500).name("Product " + i % 500).sku("SKU-" + i % 500)
+                    .price(BigDecimal.valueOf(i % 500 + 1)).stockQuantity(i % 50).category(category).build();
+
+            transactions.add(Transaction.builder().id((long) i).totalProducts(i % 9 + 1)
+                    .totalPrice(BigDecimal.valueOf(i)).transactionType(TransactionType.SALE)
+                    .status(TransactionStatus.COMPLETED).description("Sale " + i)
+                    .product(product).user(user).supplier(supplier).build());
+        }
+
+        return transactions;
+    }
+}
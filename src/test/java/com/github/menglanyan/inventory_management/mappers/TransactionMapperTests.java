@@ -0,0 +1,74 @@
+package com.github.menglanyan.inventory_management.mappers;
+
+import com.github.menglanyan.inventory_management.dtos.TransactionDTO;
+import com.github.menglanyan.inventory_management.entities.Product;
+import com.github.menglanyan.inventory_management.entities.Supplier;
+import com.github.menglanyan.inventory_management.entities.Transaction;
+import com.github.menglanyan.inventory_management.entities.User;
+import com.github.menglanyan.inventory_management.enums.TransactionStatus;
+import com.github.menglanyan.inventory_management.enums.TransactionType;
+import com.github.menglanyan.inventory_management.enums.UserRole;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class TransactionMapperTests {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void shallowMappingNeverLoadsAssociations() {
+        Transaction loaded = entityManager.find(Transaction.class, persistTransaction());
+
+        TransactionDTO transactionDTO = TransactionMapper.toShallowDTO(loaded);
+
+        assertThat(transactionDTO.getTotalProducts()).isEqualTo(3);
+        assertThat(transactionDTO.getStatus()).isEqualTo(TransactionStatus.COMPLETED);
+        assertThat(transactionDTO.getProduct()).isNull();
+        assertThat(transactionDTO.getUser()).isNull();
+        assertThat(transactionDTO.getSupplier()).isNull();
+        assertThat(Hibernate.isInitialized(loaded.getProduct())).isFalse();
+        assertThat(Hibernate.isInitialized(loaded.getUser())).isFalse();
+        assertThat(Hibernate.isInitialized(loaded.getSupplier())).isFalse();
+    }
+
+    @Test
+    void detailMappingIncludesProductAndSupplierButNotUser() {
+        Transaction loaded = entityManager.find(Transaction.class, persistTransaction());
+
+        TransactionDTO transactionDTO = TransactionMapper.toDetailDTO(loaded);
+
+        assertThat(transactionDTO.getProduct().getName()).isEqualTo("Widget");
+        assertThat(transactionDTO.getProduct().getProductId()).isEqualTo(loaded.getProduct().getId());
+        assertThat(transactionDTO.getSupplier().getName()).isEqualTo("Acme");
+        assertThat(transactionDTO.getUser()).isNull();
+        assertThat(Hibernate.isInitialized(loaded.getUser())).isFalse();
+    }
+
+    private Long persistTransaction() {
+        User user = User.builder().name("Cashier").email("cashier@example.com").password("secret")
+                .phoneNumber("123").role(UserRole.MANAGER).build();
+        Product product = Product.builder().name("Widget").sku("W-1").price(BigDecimal.ONE).stockQuantity(10).build();
+        Supplier supplier = Supplier.builder().name("Acme").contactInfo("acme@example.com").build();
+        Transaction transaction = Transaction.builder().totalProducts(3).totalPrice(BigDecimal.valueOf(3))
+                .transactionType(TransactionType.PURCHASE).status(TransactionStatus.COMPLETED)
+                .product(product).user(user).supplier(supplier).build();
+
+        entityManager.persist(user);
+        entityManager.persist(product);
+        entityManager.persist(supplier);
+        entityManager.persist(transaction);
+        entityManager.flush();
+        entityManager.clear();
+
+        return transaction.getId();
+    }
+}
@@ -0,0 +1,150 @@
+package com.github.menglanyan.inventory_management.repositories;
+
+import com.github.menglanyan.inventory_management.entities.Category;
+import com.github.menglanyan.inventory_management.entities.Product;
+import com.github.menglanyan.inventory_management.enums.ProductField;
+import com.github.menglanyan.inventory_management.enums.ProductSortField;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ProductCatalogRepositoryTests {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final List<Product> products = new ArrayList<>();
+
+    private Category tools;
+
+    @BeforeEach
+    void setUp() {
+        tools = entityManager.merge(Category.builder().name("Tools").build());
+        Category food = entityManager.merge(Category.builder().name("Food").build());
+
+        for (int i = 0; i < 40; i++) {
+            products.add(productRepository.save(Product.builder()
+                    .name("Item " + (char) ('a' + i % 7) + i)
+                    .sku("SKU-" + i)
+                    // Duplicate and missing sort values exercise the id tie-breaker and null handling
+                    .price(i % 9 == 0 ? null : BigDecimal.valueOf(i % 5 + 1))
+                    .stockQuantity(i % 4 * 10)
+                    .category(i % 2 == 0 ? tools : food)
+                    .build()));
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void keysetPagesMatchAFullSortForEverySortAndDirection() {
+        for (ProductSortField sortField : ProductSortField.values()) {
+            for (Sort.Direction direction : Sort.Direction.values()) {
+                List<Long> expected = products.stream()
+                        .filter(p -> p.getCategory().getId().equals(tools.getId()))
+                        .filter(p -> p.getStockQuantity() >= 10)
+                        .sorted(order(sortField, direction))
+                        .map(Product::getId)
+                        .toList();
+
+                assertThat(walk(tools.getId(), 10, sortField, direction, 4))
+                        .as("%s %s", sortField, direction)
+                        .isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void eachPageIsOneStatementWithCategoryFetched() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Product> page = productRepository.findCatalogPage(new ProductCatalogQuery(
+                null, null, null, ProductSortField.NAME, Sort.Direction.ASC, null, null, 15));
+
+        assertThat(page).hasSize(15);
+        assertThat(page).allSatisfy(product -> assertThat(Hibernate.isInitialized(product.getCategory())).isTrue());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void sparseRowsCarryOnlyRequestedColumnsAndPageLikeEntities() {
+        Set<ProductField> fields = ProductField.parse("name,stockQuantity");
+
+        List<ProductRow> rows = productRepository.findCatalogRows(new ProductCatalogQuery(
+                null, null, null, ProductSortField.PRICE, Sort.Direction.DESC, null, null, 40), fields);
+
+        List<Product> page = productRepository.findCatalogPage(new ProductCatalogQuery(
+                null, null, null, ProductSortField.PRICE, Sort.Direction.DESC, null, null, 40));
+
+        assertThat(rows).extracting(ProductRow::id).isEqualTo(page.stream().map(Product::getId).toList());
+        assertThat(rows).allSatisfy(row -> {
+            assertThat(row.name()).isNotNull();
+            assertThat(row.stockQuantity()).isNotNull();
+            assertThat(row.sku()).isNull();
+            assertThat(row.categoryId()).isNull();
+        });
+        // The sort column is always selected so the next cursor can be built from the row
+        assertThat(rows).extracting(ProductRow::price)
+                .isEqualTo(page.stream().map(Product::getPrice).toList());
+    }
+
+    private List<Long> walk(Long categoryId, Integer minStock, ProductSortField sortField, Sort.Direction direction,
+                            int pageSize) {
+        List<Long> ids = new ArrayList<>();
+        Product last = null;
+
+        while (true) {
+            List<Product> page = productRepository.findCatalogPage(new ProductCatalogQuery(categoryId, minStock, null,
+                    sortField, direction, last == null ? null : value(sortField).apply(last),
+                    last == null ? null : last.getId(), pageSize));
+
+            page.forEach(product -> ids.add(product.getId()));
+
+            if (page.size() < pageSize) {
+                return ids;
+            }
+
+            last = page.get(page.size() - 1);
+        }
+    }
+
+    private static Function<Product, Object> value(ProductSortField sortField) {
+        return switch (sortField) {
+            case ID -> Product::getId;
+            case NAME -> Product::getName;
+            case PRICE -> Product::getPrice;
+            case STOCK -> Product::getStockQuantity;
+        };
+    }
+
+    // Nulls lowest, ties broken by id in the same direction, as the catalog query orders
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<Product> order(ProductSortField sortField, Sort.Direction direction) {
+        Comparator<Product> byValue = Comparator.comparing(p -> (Comparable) value(sortField).apply(p),
+                Comparator.nullsFirst(Comparator.naturalOrder()));
+        Comparator<Product> ascending = byValue.thenComparing(Product::getId);
+
+        return direction.isAscending() ? ascending : ascending.reversed();
+    }
+}
@@ -0,0 +1,192 @@
+package com.github.menglanyan.inventory_management.repositories;
+
+import com.github.menglanyan.inventory_management.entities.Category;
+import com.github.menglanyan.inventory_management.entities.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductRepositoryTests {
+
+    private static final int THREADS = 32;
+
+    private static final int SELLS = 400;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void adjustStockRefusesToGoNegative() {
+        Long productId = saveProduct("SKU-NEG", 2);
+
+        assertThat(productRepository.adjustStock(productId, -3)).isZero();
+        assertThat(productRepository.adjustStock(productId, -2)).isEqualTo(1);
+        assertThat(productRepository.adjustStock(productId, -1)).isZero();
+        assertThat(productRepository.adjustStock(-1L, 5)).isZero();
+
+        assertThat(stockOf(productId)).isZero();
+    }
+
+    @Test
+    void concurrentSellsNeverLoseUpdates() throws Exception {
+        int initialStock = 300;
+        Long productId = saveProduct("SKU-HOT", initialStock);
+
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+
+        runConcurrently(SELLS, () -> {
+            if (productRepository.adjustStock(productId, -1) == 1) {
+                sold.incrementAndGet();
+            } else {
+                refused.incrementAndGet();
+            }
+        });
+
+        assertThat(sold.get()).isEqualTo(initialStock);
+        assertThat(refused.get()).isEqualTo(SELLS - initialStock);
+        assertThat(stockOf(productId)).isZero();
+    }
+
+    @Test
+    void concurrentPurchasesAndSellsBalanceOut() throws Exception {
+        int initialStock = 50;
+        Long productId = saveProduct("SKU-MIX", initialStock);
+
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger counter = new AtomicInteger();
+
+        runConcurrently(SELLS, () -> {
+            if (counter.getAndIncrement() % 2 == 0) {
+                productRepository.adjustStock(productId, 3);
+            } else if (productRepository.adjustStock(productId, -1) == 1) {
+                sold.incrementAndGet();
+            }
+        });
+
+        int purchased = (SELLS / 2) * 3;
+        assertThat(stockOf(productId)).isEqualTo(initialStock + purchased - sold.get());
+        assertThat(stockOf(productId)).isNotNegative();
+    }
+
+    @Test
+    void sellsWaitForAnEditHoldingTheLockedStock() throws Exception {
+        Long productId = saveProduct("SKU-EDIT", 10);
+
+        CompletableFuture<Integer> sell = new CompletableFuture<>();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Product product = productRepository.findByIdForUpdate(productId).orElseThrow();
+
+            CompletableFuture.runAsync(() -> sell.complete(productRepository.adjustStock(productId, -1)));
+
+            // The sell has to wait for this absolute write rather than be overwritten by it
+            pause(200);
+            assertThat(sell).isNotDone();
+            product.setStockQuantity(20);
+        });
+
+        assertThat(sell.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(stockOf(productId)).isEqualTo(19);
+    }
+
+    @Test
+    void locksOnlyTheCategorysProductsInIdOrder() {
+        Category tools = categoryRepository.save(Category.builder().name("Tools").build());
+        Category paint = categoryRepository.save(Category.builder().name("Paint").build());
+
+        Long hammer = saveProduct("SKU-HAMMER", 1, tools);
+        saveProduct("SKU-BRUSH", 1, paint);
+        Long saw = saveProduct("SKU-SAW", 1, tools);
+
+        List<Product> locked = new TransactionTemplate(transactionManager)
+                .execute(status -> productRepository.findByCategoryIdForUpdate(tools.getId()));
+
+        assertThat(locked).extracting(Product::getId).containsExactly(hammer, saw);
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runConcurrently(int tasks, Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (int i = 0; i < tasks; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+
+            start.countDown();
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Long saveProduct(String sku, int stockQuantity) {
+        return saveProduct(sku, stockQuantity, null);
+    }
+
+    private Long saveProduct(String sku, int stockQuantity, Category category) {
+        Product product = Product.builder()
+                .name("Product " + sku)
+                .sku(sku)
+                .price(BigDecimal.TEN)
+                .stockQuantity(stockQuantity)
+                .category(category)
+                .build();
+
+        return productRepository.save(product).getId();
+    }
+
+    private int stockOf(Long productId) {
+        return productRepository.findById(productId).orElseThrow().getStockQuantity();
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.menglanyan.inventory_management.repositories;
+
+import com.github.menglanyan.inventory_management.config.SecondLevelCacheConfig;
+import com.github.menglanyan.inventory_management.entities.Category;
+import com.github.menglanyan.inventory_management.entities.Product;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(SecondLevelCacheConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTests {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void readsProductsFromTheCacheWithoutTouchingTheDatabase() {
+        Long productId = saveProduct("SKU-1", 5);
+
+        productRepository.findById(productId);
+        statistics.clear();
+
+        assertThat(productRepository.findById(productId)).isPresent();
+        assertThat(productRepository.findById(productId)).isPresent();
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getCacheRegionStatistics("products").getHitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void stockChangesDropOnlyTheChangedProduct() {
+        Long changed = saveProduct("SKU-CHANGED", 5);
+        Long untouched = saveProduct("SKU-UNTOUCHED", 5);
+
+        productRepository.findAllById(List.of(changed, untouched));
+
+        assertThat(productRepository.adjustStock(changed, -2)).isEqualTo(1);
+
+        statistics.clear();
+
+        assertThat(productRepository.findById(untouched).orElseThrow().getStockQuantity()).isEqualTo(5);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        assertThat(productRepository.findById(changed).orElseThrow().getStockQuantity()).isEqualTo(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void servesCategoryListsFromTheQueryCacheUntilACategoryIsWritten() {
+        categoryRepository.save(Category.builder().name("Tools").build());
+        categoryRepository.save(Category.builder().name("Garden").build());
+
+        categoryRepository.findAll(Sort.by("id"));
+        statistics.clear();
+
+        assertThat(categoryRepository.findAll(Sort.by("id"))).hasSize(2);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        categoryRepository.save(Category.builder().name("Kitchen").build());
+
+        assertThat(categoryRepository.findAll(Sort.by("id"))).hasSize(3);
+    }
+
+    private Long saveProduct(String sku, int stockQuantity) {
+        Product product = Product.builder()
+                .name("Product " + sku)
+                .sku(sku)
+                .price(BigDecimal.TEN)
+                .stockQuantity(stockQuantity)
+                .build();
+
+        return productRepository.save(product).getId();
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.menglanyan.inventory_management.repositories;
+
+import com.github.menglanyan.inventory_management.entities.Product;
+import com.github.menglanyan.inventory_management.entities.Supplier;
+import com.github.menglanyan.inventory_management.entities.Transaction;
+import com.github.menglanyan.inventory_management.entities.User;
+import com.github.menglanyan.inventory_management.enums.TransactionStatus;
+import com.github.menglanyan.inventory_management.enums.TransactionType;
+import com.github.menglanyan.inventory_management.enums.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(TransactionBatchRepository.class)
+class TransactionBatchRepositoryTests {
+
+    @Autowired
+    private TransactionBatchRepository transactionBatchRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void insertAllWritesEveryRowAndAssignsIds() {
+        User user = userRepository.save(User.builder()
+                .name("Cashier").email("cashier@example.com").password("secret")
+                .phoneNumber("123").role(UserRole.MANAGER).build());
+
+        Product product = productRepository.save(Product.builder()
+                .name("Widget").sku("W-1").price(BigDecimal.ONE).stockQuantity(10).build());
+
+        Supplier supplier = supplierRepository.save(Supplier.builder()
+                .name("Acme").contactInfo("acme@example.com").build());
+
+        List<Transaction> transactions = List.of(
+                transaction(TransactionType.SALE, product, user, null),
+                transaction(TransactionType.PURCHASE, product, user, supplier),
+                transaction(TransactionType.RETURN_TO_SUPPLIER, product, user, supplier));
+
+        transactionBatchRepository.insertAll(transactions);
+
+        assertThat(transactions).allSatisfy(t -> assertThat(t.getId()).isNotNull());
+        assertThat(transactions).extracting(Transaction::getId).doesNotHaveDuplicates();
+        assertThat(transactionRepository.count()).isEqualTo(3);
+        assertThat(transactionRepository.findById(transactions.get(1).getId()).orElseThrow().getTransactionType())
+                .isEqualTo(TransactionType.PURCHASE);
+    }
+
+    private Transaction transaction(TransactionType type, Product product, User user, Supplier supplier) {
+        return Transaction.builder()
+                .transactionType(type)
+                .status(TransactionStatus.COMPLETED)
+                .product(product)
+                .user(user)
+                .supplier(supplier)
+                .totalProducts(1)
+                .totalPrice(BigDecimal.ONE)
+                .build();
+    }
+}
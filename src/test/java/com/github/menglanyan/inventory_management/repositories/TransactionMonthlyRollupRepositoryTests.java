@@ -0,0 +1,127 @@
+package com.github.menglanyan.inventory_management.repositories;
+
+import com.github.menglanyan.inventory_management.dtos.TransactionRollupDTO;
+import com.github.menglanyan.inventory_management.entities.Product;
+import com.github.menglanyan.inventory_management.entities.Transaction;
+import com.github.menglanyan.inventory_management.entities.User;
+import com.github.menglanyan.inventory_management.enums.TransactionStatus;
+import com.github.menglanyan.inventory_management.enums.TransactionType;
+import com.github.menglanyan.inventory_management.enums.UserRole;
+import com.github.menglanyan.inventory_management.services.TransactionRollupService;
+import com.github.menglanyan.inventory_management.services.impl.TransactionRollupServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+// MySQL mode for the upsert
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:rollups;MODE=MySQL")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TransactionRollupServiceImpl.class)
+class TransactionMonthlyRollupRepositoryTests {
+
+    @Autowired
+    private TransactionRollupService rollupService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .name("Cashier").email("cashier@example.com").password("secret")
+                .phoneNumber("123").role(UserRole.MANAGER).build());
+
+        product = productRepository.save(Product.builder()
+                .name("Widget").sku("W-1").price(BigDecimal.ONE).stockQuantity(10).build());
+    }
+
+    @Test
+    void upsertsIncrementTheExistingRow() {
+        rollupService.recordTransactions(List.of(sale(product, 2, "4.00"), sale(product, 3, "6.00")));
+        rollupService.recordTransactions(List.of(sale(product, 1, "2.00")));
+
+        assertThat(summary())
+                .extracting(TransactionRollupDTO::getProductId, TransactionRollupDTO::getTransactionCount,
+                        TransactionRollupDTO::getTotalQuantity, TransactionRollupDTO::getTotalValue)
+                .containsExactly(tuple(product.getId(), 3L, 6L, new BigDecimal("12.00")));
+    }
+
+    @Test
+    void transactionsWithoutAProductShareOneRow() {
+        rollupService.recordTransactions(List.of(sale(null, 1, "5.00")));
+        rollupService.recordTransactions(List.of(sale(null, 1, "7.00")));
+
+        assertThat(summary())
+                .extracting(TransactionRollupDTO::getProductId, TransactionRollupDTO::getTransactionCount,
+                        TransactionRollupDTO::getTotalValue)
+                .containsExactly(tuple(null, 2L, new BigDecimal("12.00")));
+    }
+
+    @Test
+    void statusChangesMoveTheTransactionBetweenRows() {
+        Transaction sale = sale(product, 2, "4.00");
+        rollupService.recordTransactions(List.of(sale));
+
+        sale.setStatus(TransactionStatus.CANCELLED);
+        rollupService.recordStatusChange(sale, TransactionStatus.COMPLETED);
+
+        assertThat(summary())
+                .extracting(TransactionRollupDTO::getStatus, TransactionRollupDTO::getTransactionCount)
+                .containsExactly(tuple(TransactionStatus.CANCELLED, 1L), tuple(TransactionStatus.COMPLETED, 0L));
+    }
+
+    @Test
+    void rebuildMatchesTheIncrementalRollups() {
+        rollupService.recordTransactions(List.of(sale(product, 2, "4.00"), sale(product, 3, "6.00"),
+                sale(null, 1, "5.00"), sale(null, 1, "7.00")));
+
+        List<TransactionRollupDTO> incremental = summary();
+
+        rollupService.rebuildRollups();
+
+        assertThat(summary()).usingRecursiveFieldByFieldElementComparator().isEqualTo(incremental);
+    }
+
+    private List<TransactionRollupDTO> summary() {
+        entityManager.flush();
+        entityManager.clear();
+
+        LocalDate today = LocalDate.now();
+        return rollupService.getMonthlySummary(today.getMonthValue(), today.getYear()).getMonthlySummary();
+    }
+
+    private Transaction sale(Product product, int quantity, String total) {
+        return transactionRepository.save(Transaction.builder()
+                .transactionType(TransactionType.SALE)
+                .status(TransactionStatus.COMPLETED)
+                .totalProducts(quantity)
+                .totalPrice(new BigDecimal(total))
+                .product(product)
+                .user(user)
+                .build());
+    }
+}
@@ -0,0 +1,249 @@
+package com.github.menglanyan.inventory_management.repositories;
+
+import com.github.menglanyan.inventory_management.dtos.TransactionDTO;
+import com.github.menglanyan.inventory_management.entities.Category;
+import com.github.menglanyan.inventory_management.entities.Product;
+import com.github.menglanyan.inventory_management.entities.Transaction;
+import com.github.menglanyan.inventory_management.entities.User;
+import com.github.menglanyan.inventory_management.enums.AnalyticsDimension;
+import com.github.menglanyan.inventory_management.enums.TransactionField;
+import com.github.menglanyan.inventory_management.enums.TransactionStatus;
+import com.github.menglanyan.inventory_management.enums.TransactionType;
+import com.github.menglanyan.inventory_management.enums.UserRole;
+import com.github.menglanyan.inventory_management.mappers.TransactionMapper;
+import com.github.menglanyan.inventory_management.search.TransactionSearchRow;
+import com.github.menglanyan.inventory_management.specification.TransactionFilter;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class TransactionRepositoryTests {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .name("Cashier").email("cashier@example.com").password("secret")
+                .phoneNumber("123").role(UserRole.MANAGER).build());
+
+        product = productRepository.save(Product.builder()
+                .name("Widget").sku("W-1").price(BigDecimal.ONE).stockQuantity(10).build());
+    }
+
+    @Test
+    void streamSearchRowsReadsForeignKeysWithoutJoiningMissingSuppliers() {
+        Transaction sale = transactionRepository.save(transaction(TransactionType.SALE, "counter sale"));
+
+        List<TransactionSearchRow> rows;
+
+        try (Stream<TransactionSearchRow> stream = transactionRepository.streamSearchRows()) {
+            rows = stream.toList();
+        }
+
+        assertThat(rows).containsExactly(new TransactionSearchRow(sale.getId(), "counter sale", null,
+                TransactionStatus.COMPLETED, TransactionType.SALE, user.getId(), null, product.getId()));
+    }
+
+    @Test
+    void findRowsReadsOnePageInOneStatementWithoutLoadingEntities() {
+        for (int i = 0; i < 25; i++) {
+            transactionRepository.save(transaction(TransactionType.SALE, "sale " + i));
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = statistics();
+
+        Page<TransactionRow> page = transactionRepository.findRows(TransactionFilter.byFliter("sale"),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "id")));
+
+        // The row select plus the COUNT for totalElements
+        assertThat(page.getContent()).hasSize(10);
+        assertThat(page.getTotalElements()).isEqualTo(25);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+
+        statistics.clear();
+
+        List<TransactionRow> cursorPage = transactionRepository.findRows(
+                TransactionFilter.byFliter(null).and(TransactionFilter.idLessThan(page.getContent().get(9).id())),
+                Sort.by(Sort.Direction.DESC, "id"), 11);
+
+        assertThat(cursorPage).hasSize(11);
+        assertThat(cursorPage.get(0).id()).isLessThan(page.getContent().get(9).id());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void findRowsByIdsSelectsOnlyTheRequestedRowsInOneStatement() {
+        Transaction first = transactionRepository.save(transaction(TransactionType.SALE, "first"));
+        Transaction second = transactionRepository.save(transaction(TransactionType.PURCHASE, "second"));
+        transactionRepository.save(transaction(TransactionType.SALE, "third"));
+
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = statistics();
+
+        List<TransactionRow> rows = transactionRepository.findRowsByIdInOrderByIdDesc(
+                List.of(first.getId(), second.getId()));
+
+        assertThat(rows).extracting(TransactionRow::description).containsExactly("second", "first");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void sparseRowsLeaveUnrequestedColumnsNull() {
+        Transaction first = transactionRepository.save(transaction(TransactionType.SALE, "first"));
+        Transaction second = transactionRepository.save(transaction(TransactionType.PURCHASE, "second"));
+
+        entityManager.flush();
+        entityManager.clear();
+
+        List<TransactionRow> rows = transactionRepository.findRows(
+                TransactionFilter.idIn(List.of(first.getId(), second.getId())), Sort.by(Sort.Direction.DESC, "id"),
+                10, TransactionField.parse("transactionType"));
+
+        assertThat(rows).extracting(TransactionRow::id).containsExactly(second.getId(), first.getId());
+        assertThat(rows).extracting(TransactionRow::transactionType)
+                .containsExactly(TransactionType.PURCHASE, TransactionType.SALE);
+        assertThat(rows).allSatisfy(row -> {
+            assertThat(row.description()).isNull();
+            assertThat(row.totalPrice()).isNull();
+        });
+    }
+
+    @Test
+    void aggregateSalesGroupsInOneStatementPerDimension() {
+        Category category = entityManager.merge(Category.builder().name("Tools").build());
+        Product hammer = productRepository.save(Product.builder().name("Hammer").sku("H-1")
+                .price(BigDecimal.TEN).stockQuantity(5).category(category).build());
+
+        transactionRepository.save(transaction(TransactionType.SALE, "one"));
+        transactionRepository.save(transaction(TransactionType.SALE, "two", hammer));
+        transactionRepository.save(transaction(TransactionType.PURCHASE, "three", hammer));
+        Transaction cancelled = transaction(TransactionType.SALE, "cancelled", hammer);
+        cancelled.setStatus(TransactionStatus.CANCELLED);
+        transactionRepository.save(cancelled);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        LocalDateTime from = LocalDate.now().atStartOfDay();
+        LocalDateTime to = from.plusDays(1);
+
+        Statistics statistics = statistics();
+
+        List<SalesAggregate> byDay = transactionRepository.aggregateSales(AnalyticsDimension.DAY,
+                TransactionStatus.COMPLETED, from, to);
+
+        assertThat(byDay).containsExactly(
+                new SalesAggregate(LocalDate.now(), TransactionType.PURCHASE, 1L, 1L, new BigDecimal("1.00")),
+                new SalesAggregate(LocalDate.now(), TransactionType.SALE, 2L, 2L, new BigDecimal("2.00")));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+
+        List<SalesAggregate> byCategory = transactionRepository.aggregateSales(AnalyticsDimension.CATEGORY,
+                TransactionStatus.COMPLETED, from, to);
+
+        // The product set up without a category reports under a null key
+        assertThat(byCategory).extracting(SalesAggregate::name, SalesAggregate::transactionType,
+                        SalesAggregate::transactionCount)
+                .containsExactlyInAnyOrder(
+                        tuple(null, TransactionType.SALE, 1L),
+                        tuple("Tools", TransactionType.SALE, 1L),
+                        tuple("Tools", TransactionType.PURCHASE, 1L));
+
+        assertThat(transactionRepository.aggregateSales(AnalyticsDimension.PRODUCT, TransactionStatus.COMPLETED,
+                from, to)).extracting(SalesAggregate::name).containsOnly("Widget", "Hammer");
+        assertThat(transactionRepository.aggregateSales(AnalyticsDimension.SUPPLIER, TransactionStatus.COMPLETED,
+                from, to)).extracting(SalesAggregate::id).containsOnlyNulls();
+        assertThat(transactionRepository.aggregateSales(AnalyticsDimension.DAY, TransactionStatus.COMPLETED,
+                to, to.plusDays(1))).isEmpty();
+    }
+
+    @Test
+    void findUserHistoryFetchesProductsWithThePage() {
+        Category category = entityManager.merge(Category.builder().name("Tools").build());
+
+        for (int i = 0; i < 30; i++) {
+            Product other = productRepository.save(Product.builder().name("Item " + i).sku("I-" + i)
+                    .price(BigDecimal.ONE).stockQuantity(5).category(category).build());
+            transactionRepository.save(transaction(TransactionType.SALE, "sale " + i, other));
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = statistics();
+
+        Page<Transaction> page = transactionRepository.findUserHistory(user.getId(),
+                LocalDate.now().minusDays(1).atStartOfDay(), LocalDate.now().plusDays(1).atStartOfDay(),
+                PageRequest.of(1, 10, Sort.by(Sort.Direction.DESC, "createdAt", "id")));
+
+        List<TransactionDTO> transactionDTOs = page.getContent().stream().map(TransactionMapper::toDTOWithProduct).toList();
+
+        // The page select with product and category joined, plus the COUNT
+        assertThat(transactionDTOs).hasSize(10);
+        assertThat(transactionDTOs).allSatisfy(dto -> assertThat(dto.getProduct().getCategoryId()).isEqualTo(category.getId()));
+        assertThat(page.getTotalElements()).isEqualTo(30);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private Transaction transaction(TransactionType type, String description) {
+        return transaction(type, description, product);
+    }
+
+    private Transaction transaction(TransactionType type, String description, Product product) {
+        return Transaction.builder()
+                .transactionType(type)
+                .status(TransactionStatus.COMPLETED)
+                .product(product)
+                .user(user)
+                .totalProducts(1)
+                .totalPrice(BigDecimal.ONE)
+                .description(description)
+                .build();
+    }
+}
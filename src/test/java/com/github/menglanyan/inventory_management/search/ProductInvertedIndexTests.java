@@ -0,0 +1,82 @@
+package com.github.menglanyan.inventory_management.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductInvertedIndexTests {
+
+    private ProductInvertedIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductInvertedIndex();
+
+        index.put(new ProductSearchRow(1L, "Green Apple", "APL-001", "Crisp apple from the orchard"));
+        index.put(new ProductSearchRow(2L, "Apple Juice", "JUI-002", "Pressed from green apples"));
+        index.put(new ProductSearchRow(3L, "Banana", "BAN-003", "Yellow fruit, pairs well with apple slices"));
+        index.put(new ProductSearchRow(4L, "Orange", "ORA-004", null));
+    }
+
+    @Test
+    void ranksNameMatchesAboveDescriptionMatches() {
+        ProductSearchResult result = index.search("apple", 0, 10);
+
+        assertThat(ids(result)).containsExactly(1L, 2L, 3L);
+        assertThat(result.totalHits()).isEqualTo(3);
+    }
+
+    @Test
+    void skuMatchOutranksEverythingElse() {
+        assertThat(ids(index.search("ban 003", 0, 10))).first().isEqualTo(3L);
+        assertThat(ids(index.search("jui", 0, 10))).containsExactly(2L);
+    }
+
+    @Test
+    void matchesPrefixesAndRanksMoreMatchedTokensFirst() {
+        assertThat(ids(index.search("oran", 0, 10))).containsExactly(4L);
+        assertThat(ids(index.search("green appl", 0, 10))).startsWith(1L, 2L);
+    }
+
+    @Test
+    void paginatesRankedHits() {
+        ProductSearchResult page = index.search("apple", 1, 1);
+
+        assertThat(ids(page)).containsExactly(2L);
+        assertThat(page.totalHits()).isEqualTo(3);
+        assertThat(index.search("apple", 5, 10).hits()).isEmpty();
+        assertThat(index.search("missing", 0, 10).totalHits()).isZero();
+    }
+
+    @Test
+    void reflectsUpdatesAndDeletes() {
+        index.put(new ProductSearchRow(4L, "Blood Orange", "ORA-004", "Not an apple"));
+        index.remove(1L);
+
+        assertThat(ids(index.search("apple", 0, 10))).containsExactlyInAnyOrder(2L, 3L, 4L);
+        assertThat(ids(index.search("blood", 0, 10))).containsExactly(4L);
+        assertThat(ids(index.search("orchard", 0, 10))).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void survivesCompactionAfterManyRewrites() {
+        for (int round = 0; round < 3; round++) {
+            for (long id = 100; id < 1_600; id++) {
+                index.put(new ProductSearchRow(id, "Widget " + id, "W-" + id, "round " + round));
+            }
+        }
+
+        assertThat(index.size()).isEqualTo(1_504);
+        assertThat(index.search("widget", 0, 10).totalHits()).isEqualTo(1_500);
+        assertThat(ids(index.search("w 1234", 0, 1))).containsExactly(1234L);
+        assertThat(ids(index.search("apple", 0, 10))).containsExactly(1L, 2L, 3L);
+    }
+
+    private static List<Long> ids(ProductSearchResult result) {
+        return result.hits().stream().map(ProductSearchHit::productId).toList();
+    }
+}
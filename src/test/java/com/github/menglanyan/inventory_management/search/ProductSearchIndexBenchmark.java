@@ -0,0 +1,65 @@
+package com.github.menglanyan.inventory_management.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Run with: mvn test -Dtest=ProductSearchIndexBenchmark -Dbenchmarks=true
+// Compares ranked index lookups with a linear substring scan over name and description, the in-memory best case of LIKE '%term%'
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class ProductSearchIndexBenchmark {
+
+    private static final int PRODUCTS = 500_000;
+
+    private static final String[] WORDS = {"steel", "copper", "bolt", "washer", "bracket", "hinge", "cable", "valve",
+            "pump", "filter", "gasket", "sensor", "switch", "relay", "spring", "clamp"};
+
+    private static final String[] QUERIES = {"copper valve", "hinge", "sku 123456", "brack"};
+
+    @Test
+    void rankedLookupVersusLinearScan() {
+        ProductInvertedIndex index = new ProductInvertedIndex();
+        String[] scanRows = new String[PRODUCTS];
+
+        long buildStart = System.nanoTime();
+
+        for (int i = 0; i < PRODUCTS; i++) {
+            String name = WORDS[i % WORDS.length] + " " + WORDS[(i / WORDS.length) % WORDS.length] + " " + i;
+            String description = "Industrial " + WORDS[(i * 7) % WORDS.length] + " part, batch " + (i % 1000);
+
+            index.put(new ProductSearchRow((long) i + 1, name, "SKU-" + (100_000 + i), description));
+            scanRows[i] = (name + "|" + description).toLowerCase(Locale.ROOT);
+        }
+
+        System.out.printf("Indexed %,d products in %d ms%n", PRODUCTS, (System.nanoTime() - buildStart) / 1_000_000);
+
+        for (String query : QUERIES) {
+            ProductSearchResult result = null;
+            long indexNanos = Long.MAX_VALUE;
+            long scanNanos = Long.MAX_VALUE;
+
+            for (int run = 0; run < 5; run++) {
+                long start = System.nanoTime();
+                result = index.search(query, 0, 20);
+                indexNanos = Math.min(indexNanos, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                int scanned = 0;
+                for (String row : scanRows) {
+                    if (row.contains(query)) {
+                        scanned++;
+                    }
+                }
+                scanNanos = Math.min(scanNanos, System.nanoTime() - start);
+            }
+
+            System.out.printf("%-14s %,7d hits  index top-20 %8.3f ms  scan %8.3f ms%n",
+                    query, result.totalHits(), indexNanos / 1e6, scanNanos / 1e6);
+
+            assertThat(result.hits()).isNotEmpty();
+        }
+    }
+}
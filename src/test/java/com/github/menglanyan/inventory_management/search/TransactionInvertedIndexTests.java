@@ -0,0 +1,103 @@
+package com.github.menglanyan.inventory_management.search;
+
+import com.github.menglanyan.inventory_management.entities.Category;
+import com.github.menglanyan.inventory_management.entities.Product;
+import com.github.menglanyan.inventory_management.entities.Supplier;
+import com.github.menglanyan.inventory_management.entities.User;
+import com.github.menglanyan.inventory_management.enums.TransactionStatus;
+import com.github.menglanyan.inventory_management.enums.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionInvertedIndexTests {
+
+    private TransactionInvertedIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TransactionInvertedIndex();
+
+        Category fruit = Category.builder().id(1L).name("Fresh Fruit").build();
+        index.putCategory(fruit);
+        index.putProduct(Product.builder().id(10L).name("Green Apple").sku("APL-001").category(fruit).build());
+        index.putProduct(Product.builder().id(11L).name("Banana").sku("BAN-002").build());
+        index.putUser(User.builder().id(100L).name("Alice Cashier").email("alice@shop.com").phoneNumber("555-0101").build());
+        index.putSupplier(Supplier.builder().id(200L).name("Orchard Co").contactInfo("orchard@supply.com").build());
+
+        index.addTransaction(new TransactionSearchRow(1L, "morning delivery", null, TransactionStatus.COMPLETED,
+                TransactionType.PURCHASE, 100L, 200L, 10L));
+        index.addTransaction(new TransactionSearchRow(2L, null, "customer paid cash", TransactionStatus.COMPLETED,
+                TransactionType.SALE, 100L, null, 11L));
+        index.addTransaction(new TransactionSearchRow(3L, "damaged crate", "return it", TransactionStatus.PROCESSING,
+                TransactionType.RETURN_TO_SUPPLIER, 100L, 200L, 10L));
+    }
+
+    @Test
+    void matchesTransactionAndJoinedFieldsCaseInsensitively() {
+        assertThat(index.search("DELIVERY")).containsExactly(1L);
+        assertThat(index.search("paid cash")).containsExactly(2L);
+        assertThat(index.search("alice@")).containsExactly(3L, 2L, 1L);
+        assertThat(index.search("orchard")).containsExactly(3L, 1L);
+        assertThat(index.search("ban-0")).containsExactly(2L);
+        assertThat(index.search("fresh fr")).containsExactly(3L, 1L);
+    }
+
+    @Test
+    void matchesStatusAndTypeNames() {
+        assertThat(index.search("return_to")).containsExactly(3L);
+        assertThat(index.search("complete")).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void requiresTheWholeTermNotJustItsTrigrams() {
+        // "mor" and "ing" both occur in "morning", "moring" does not
+        assertThat(index.search("moring")).isEmpty();
+        assertThat(index.search("delivery damaged")).isEmpty();
+    }
+
+    @Test
+    void leavesShortTermsToTheDatabase() {
+        assertThat(index.search("ab")).isNull();
+    }
+
+    @Test
+    void followsStatusChangesAndRenames() {
+        index.changeStatus(3L, TransactionStatus.PROCESSING, TransactionStatus.COMPLETED);
+        index.putProduct(Product.builder().id(11L).name("Plantain").sku("BAN-002").build());
+
+        assertThat(index.search("processing")).isEmpty();
+        assertThat(index.search("completed")).containsExactly(3L, 2L, 1L);
+        assertThat(index.search("banana")).isEmpty();
+        assertThat(index.search("plantain")).containsExactly(2L);
+    }
+
+    @Test
+    void followsDeletesOfJoinedRows() {
+        index.removeSupplier(200L);
+        index.removeCategory(1L);
+
+        assertThat(index.search("orchard")).isEmpty();
+        assertThat(index.search("fresh fr")).isEmpty();
+        assertThat(index.search("green apple")).containsExactly(3L, 1L);
+
+        index.removeProduct(10L);
+        index.removeUser(100L);
+
+        assertThat(index.search("green apple")).isEmpty();
+        assertThat(index.search("alice")).isEmpty();
+        assertThat(index.search("delivery")).containsExactly(1L);
+    }
+
+    @Test
+    void handlesIdsBeyondTheIntRange() {
+        long large = Integer.MAX_VALUE + 10L;
+
+        index.addTransaction(new TransactionSearchRow(large, "late delivery", null, TransactionStatus.PENDING,
+                TransactionType.SALE, 100L, null, 11L));
+
+        assertThat(index.search("delivery")).containsExactly(large, 1L);
+        assertThat(index.search("alice")).containsExactly(large, 3L, 2L, 1L);
+    }
+}
@@ -0,0 +1,85 @@
+package com.github.menglanyan.inventory_management.search;
+
+import com.github.menglanyan.inventory_management.entities.Product;
+import com.github.menglanyan.inventory_management.entities.User;
+import com.github.menglanyan.inventory_management.enums.TransactionStatus;
+import com.github.menglanyan.inventory_management.enums.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Run with: mvn test -Dtest=TransactionSearchIndexBenchmark -Dbenchmarks=true
+// Compares index lookups with a linear substring scan over the same rows, the in-memory best case of LIKE '%term%'
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class TransactionSearchIndexBenchmark {
+
+    private static final int TRANSACTIONS = 1_000_000;
+
+    private static final int PRODUCTS = 20_000;
+
+    private static final int USERS = 500;
+
+    private static final String[] TERMS = {"product 1234", "user42@", "batch 99981", "sku-0777"};
+
+    @Test
+    void indexLookupVersusLinearScan() {
+        TransactionInvertedIndex index = new TransactionInvertedIndex();
+        String[] scanRows = new String[TRANSACTIONS];
+
+        for (long p = 1; p <= PRODUCTS; p++) {
+            index.putProduct(Product.builder().id(p).name("Product " + p)
+                    .sku(String.format("SKU-%05d", p)).description("Synthetic product number " + p).build());
+        }
+
+        for (long u = 1; u <= USERS; u++) {
+            index.putUser(User.builder().id(u).name("User " + u).email("user" + u + "@shop.com")
+                    .phoneNumber("555-" + u).build());
+        }
+
+        long buildStart = System.nanoTime();
+
+        for (int i = 1; i <= TRANSACTIONS; i++) {
+            long productId = i % PRODUCTS + 1;
+            long userId = i % USERS + 1;
+            String description = "Batch " + i;
+
+            index.addTransaction(new TransactionSearchRow((long) i, description, null, TransactionStatus.COMPLETED,
+                    TransactionType.SALE, userId, null, productId));
+
+            scanRows[i - 1] = (description + "|completed|sale|user " + userId + "|user" + userId + "@shop.com|product "
+                    + productId + "|" + String.format("sku-%05d", productId)).toLowerCase(Locale.ROOT);
+        }
+
+        System.out.printf("Indexed %,d transactions in %d ms%n", TRANSACTIONS, (System.nanoTime() - buildStart) / 1_000_000);
+
+        for (String term : TERMS) {
+            long[] indexed = null;
+            long indexNanos = Long.MAX_VALUE;
+            long scanNanos = Long.MAX_VALUE;
+            int scanned = 0;
+
+            for (int run = 0; run < 5; run++) {
+                long start = System.nanoTime();
+                indexed = index.search(term);
+                indexNanos = Math.min(indexNanos, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                scanned = 0;
+                for (String row : scanRows) {
+                    if (row.contains(term)) {
+                        scanned++;
+                    }
+                }
+                scanNanos = Math.min(scanNanos, System.nanoTime() - start);
+            }
+
+            System.out.printf("%-14s %,7d hits  index %8.3f ms  scan %8.3f ms%n",
+                    term, indexed.length, indexNanos / 1e6, scanNanos / 1e6);
+
+            assertThat(indexed.length).isEqualTo(scanned);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.menglanyan.inventory_management.security;
+
+import com.github.menglanyan.inventory_management.entities.User;
+import com.github.menglanyan.inventory_management.enums.UserRole;
+import com.github.menglanyan.inventory_management.repositories.RevokedTokenRepository;
+import io.jsonwebtoken.Jwts;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Run with: mvn test -Dtest=AuthFilterBenchmark -Dbenchmarks=true
+// Per-request cost of AuthFilter with the user lookup stubbed out, against the previous three-parse validation
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class AuthFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-at-least-32-bytes";
+
+    private static final int WARMUP = 20_000;
+
+    private static final int REQUESTS = 200_000;
+
+    @Test
+    void perRequestCost() throws Exception {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecretString", SECRET);
+        ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+
+        CustomUserDetailsService userDetailsService = mock(CustomUserDetailsService.class);
+        AuthUser authUser = AuthUser.builder()
+                .user(User.builder().email("bench@shop.com").password("x").role(UserRole.MANAGER).build())
+                .build();
+        when(userDetailsService.loadUserByUsername(anyString())).thenReturn(authUser);
+
+        TokenDenyList tokenDenyList = new TokenDenyList(mock(RevokedTokenRepository.class),
+                mock(PlatformTransactionManager.class), 0);
+        AuthFilter filter = new AuthFilter(jwtUtils, userDetailsService, tokenDenyList);
+        FilterChain chain = (request, response) -> { };
+
+        String token = jwtUtils.generateToken("bench@shop.com");
+        SecretKey key = new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+
+        // The previous validation: a fresh parser and a full signature check for subject, subject again and expiry
+        Runnable legacy = () -> {
+            String email = Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload().getSubject();
+            boolean valid = Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload().getSubject()
+                    .equals(userDetailsService.loadUserByUsername(email).getUsername())
+                    && !Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload()
+                    .getExpiration().before(new Date());
+            assertThat(valid).isTrue();
+        };
+
+        Runnable cached = () -> {
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            request.addHeader("Authorization", "Bearer " + token);
+
+            try {
+                filter.doFilter(request, new MockHttpServletResponse(), chain);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+
+            SecurityContextHolder.clearContext();
+        };
+
+        // A fresh token per request: one parse and one signature check, but never a cache hit
+        String[] distinctTokens = new String[REQUESTS + WARMUP];
+        for (int i = 0; i < distinctTokens.length; i++) {
+            distinctTokens[i] = Jwts.builder().subject("bench@shop.com").id(Integer.toString(i))
+                    .expiration(new Date(System.currentTimeMillis() + 3_600_000)).signWith(key).compact();
+        }
+        int[] next = {0};
+        Runnable uncached = () -> {
+            VerifiedToken verified = jwtUtils.verifyToken(distinctTokens[next[0]++]);
+            assertThat(jwtUtils.isTokenValid(verified, authUser)).isTrue();
+        };
+
+        Runnable hit = () -> assertThat(jwtUtils.isTokenValid(jwtUtils.verifyToken(token), authUser)).isTrue();
+
+        report("legacy (3 parses)", legacy);
+        report("single parse, cache miss", uncached);
+        report("single parse, cache hit", hit);
+        report("whole AuthFilter, cache hit", cached);
+    }
+
+    private static void report(String label, Runnable perRequest) {
+        for (int i = 0; i < WARMUP; i++) {
+            perRequest.run();
+        }
+
+        long start = System.nanoTime();
+
+        for (int i = 0; i < REQUESTS; i++) {
+            perRequest.run();
+        }
+
+        System.out.printf("%-28s %8.2f us/request%n", label, (System.nanoTime() - start) / 1e3 / REQUESTS);
+    }
+}
@@ -0,0 +1,63 @@
+package com.github.menglanyan.inventory_management.security;
+
+import com.github.menglanyan.inventory_management.entities.User;
+import com.github.menglanyan.inventory_management.enums.UserRole;
+import com.github.menglanyan.inventory_management.events.UserChangedEvent;
+import com.github.menglanyan.inventory_management.exceptions.NotFoundException;
+import com.github.menglanyan.inventory_management.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CustomUserDetailsServiceTests {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private final CustomUserDetailsService service = new CustomUserDetailsService(userRepository);
+
+    @Test
+    void loadsEachPrincipalFromTheDatabaseOnce() {
+        when(userRepository.findByEmail("alice@shop.com")).thenReturn(Optional.of(user(UserRole.MANAGER)));
+
+        service.loadUserByUsername("alice@shop.com");
+        service.loadUserByUsername("alice@shop.com");
+
+        verify(userRepository, times(1)).findByEmail("alice@shop.com");
+    }
+
+    @Test
+    void reloadsAfterTheUserChanges() {
+        when(userRepository.findByEmail("alice@shop.com"))
+                .thenReturn(Optional.of(user(UserRole.MANAGER)))
+                .thenReturn(Optional.of(user(UserRole.ADMIN)));
+
+        assertThat(service.loadUserByUsername("alice@shop.com").getAuthorities())
+                .extracting(Object::toString).containsExactly("MANAGER");
+
+        service.onUserChanged(new UserChangedEvent("alice@shop.com"));
+
+        assertThat(service.loadUserByUsername("alice@shop.com").getAuthorities())
+                .extracting(Object::toString).containsExactly("ADMIN");
+    }
+
+    @Test
+    void doesNotCacheMissingUsers() {
+        when(userRepository.findByEmail("new@shop.com")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.loadUserByUsername("new@shop.com")).isInstanceOf(NotFoundException.class);
+        assertThatThrownBy(() -> service.loadUserByUsername("new@shop.com")).isInstanceOf(NotFoundException.class);
+
+        verify(userRepository, times(2)).findByEmail("new@shop.com");
+    }
+
+    private static User user(UserRole role) {
+        return User.builder().id(1L).email("alice@shop.com").password("x").role(role).build();
+    }
+}
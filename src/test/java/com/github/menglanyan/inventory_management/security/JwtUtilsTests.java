@@ -0,0 +1,69 @@
+package com.github.menglanyan.inventory_management.security;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtUtilsTests {
+
+    private static final String SECRET = "test-secret-key-that-is-at-least-32-bytes-long";
+
+    private JwtUtils jwtUtils;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecretString", SECRET);
+        ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+    }
+
+    @Test
+    void verifiesOnceAndServesRepeatsFromCache() {
+        String token = jwtUtils.generateToken("alice@shop.com");
+
+        VerifiedToken first = jwtUtils.verifyToken(token);
+
+        assertThat(first.subject()).isEqualTo("alice@shop.com");
+        assertThat(jwtUtils.verifyToken(token)).isSameAs(first);
+        assertThat(jwtUtils.isTokenValid(first, User.withUsername("alice@shop.com").password("x").build())).isTrue();
+        assertThat(jwtUtils.isTokenValid(first, User.withUsername("bob@shop.com").password("x").build())).isFalse();
+    }
+
+    @Test
+    void rejectsTamperedAndForeignTokens() {
+        String token = jwtUtils.generateToken("alice@shop.com");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        String foreign = Jwts.builder()
+                .subject("alice@shop.com")
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(new SecretKeySpec("another-secret-key-that-is-32-bytes-long!".getBytes(StandardCharsets.UTF_8),
+                        "HmacSHA256"))
+                .compact();
+
+        jwtUtils.verifyToken(token);
+
+        assertThatThrownBy(() -> jwtUtils.verifyToken(tampered)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> jwtUtils.verifyToken(foreign)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void rejectsExpiredTokens() {
+        String expired = Jwts.builder()
+                .subject("alice@shop.com")
+                .expiration(new Date(System.currentTimeMillis() - 60_000))
+                .signWith(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"))
+                .compact();
+
+        assertThatThrownBy(() -> jwtUtils.verifyToken(expired)).isInstanceOf(JwtException.class);
+    }
+}
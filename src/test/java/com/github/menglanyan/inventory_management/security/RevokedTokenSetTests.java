@@ -0,0 +1,58 @@
+package com.github.menglanyan.inventory_management.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RevokedTokenSetTests {
+
+    @Test
+    void findsEveryRevokedTokenAndNothingElse() {
+        RevokedTokenSet set = new RevokedTokenSet();
+        SplittableRandom random = new SplittableRandom(7);
+        long[] revoked = new long[200_000];
+
+        for (int i = 0; i < revoked.length; i++) {
+            revoked[i] = random.nextLong();
+            assertThat(set.add(revoked[i], 20_000 + i % 180)).isTrue();
+        }
+
+        for (int i = 0; i < revoked.length; i++) {
+            assertThat(set.contains(revoked[i], 20_000 + i % 180)).isTrue();
+        }
+
+        for (int i = 0; i < 200_000; i++) {
+            assertThat(set.contains(random.nextLong(), 20_000 + i % 180)).isFalse();
+        }
+
+        assertThat(set.add(revoked[0], 20_000)).isFalse();
+        assertThat(set.size()).isEqualTo(revoked.length);
+    }
+
+    @Test
+    void pruningDropsExpiredDaysOnly() {
+        RevokedTokenSet set = new RevokedTokenSet();
+
+        set.add(RevokedTokenSet.fingerprint("expired"), 100);
+        set.add(RevokedTokenSet.fingerprint("live"), 101);
+
+        assertThat(set.pruneBefore(101)).isEqualTo(1);
+        assertThat(set.contains(RevokedTokenSet.fingerprint("expired"), 100)).isFalse();
+        assertThat(set.contains(RevokedTokenSet.fingerprint("live"), 101)).isTrue();
+        assertThat(set.size()).isEqualTo(1);
+    }
+
+    @Test
+    void staysCompactForAMillionTokens() {
+        RevokedTokenSet set = new RevokedTokenSet();
+        SplittableRandom random = new SplittableRandom(11);
+
+        for (int i = 0; i < 1_000_000; i++) {
+            set.add(random.nextLong(), 20_000 + i % 180);
+        }
+
+        assertThat(set.footprintBytes()).isLessThan(16L * 1024 * 1024);
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.menglanyan.inventory_management.security;
+
+import com.github.menglanyan.inventory_management.entities.RevokedToken;
+import com.github.menglanyan.inventory_management.repositories.RevokedTokenRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TokenDenyListTests {
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        revokedTokenRepository.deleteAll();
+    }
+
+    @Test
+    void revocationsSurviveAReload() {
+        TokenDenyList denyList = newDenyList();
+        VerifiedToken revoked = token("revoked-jti");
+        VerifiedToken active = token("active-jti");
+
+        denyList.revoke(revoked);
+        denyList.revoke(revoked);
+
+        assertThat(denyList.isRevoked(revoked)).isTrue();
+        assertThat(denyList.isRevoked(active)).isFalse();
+        assertThat(revokedTokenRepository.count()).isEqualTo(1);
+
+        TokenDenyList reloaded = newDenyList();
+
+        assertThat(reloaded.isRevoked(revoked)).isTrue();
+        assertThat(reloaded.isRevoked(active)).isFalse();
+    }
+
+    @Test
+    void reloadDiscardsExpiredRows() {
+        revokedTokenRepository.save(RevokedToken.builder()
+                .fingerprint(RevokedTokenSet.fingerprint("old-jti"))
+                .expiresOn(LocalDate.now().minusDays(2))
+                .build());
+
+        newDenyList();
+
+        assertThat(revokedTokenRepository.count()).isZero();
+    }
+
+    @Test
+    void rolledBackRevocationsLeaveTheTokenValid() {
+        TokenDenyList denyList = newDenyList();
+        VerifiedToken token = token("logout-jti");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            denyList.revoke(token);
+            status.setRollbackOnly();
+        });
+
+        assertThat(denyList.isRevoked(token)).isFalse();
+        assertThat(revokedTokenRepository.count()).isZero();
+    }
+
+    @Test
+    void pollsPickUpRevocationsFromOtherInstances() {
+        TokenDenyList thisNode = newDenyList();
+        TokenDenyList otherNode = newDenyList();
+        VerifiedToken token = token("elsewhere-jti");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> otherNode.revoke(token));
+
+        assertThat(otherNode.isRevoked(token)).isTrue();
+        assertThat(thisNode.isRevoked(token)).isFalse();
+
+        thisNode.poll();
+
+        assertThat(thisNode.isRevoked(token)).isTrue();
+    }
+
+    private TokenDenyList newDenyList() {
+        // Polled by hand in the tests
+        TokenDenyList denyList = new TokenDenyList(revokedTokenRepository, transactionManager, 0);
+        denyList.load();
+        return denyList;
+    }
+
+    private static VerifiedToken token(String id) {
+        return new VerifiedToken(id, "alice@shop.com", new Date(System.currentTimeMillis() + 86_400_000L * 30));
+    }
+}
@@ -0,0 +1,117 @@
+package com.github.menglanyan.inventory_management.services.impl;
+
+import com.github.menglanyan.inventory_management.dtos.Response;
+import com.github.menglanyan.inventory_management.dtos.TransactionRequest;
+import com.github.menglanyan.inventory_management.entities.Product;
+import com.github.menglanyan.inventory_management.entities.User;
+import com.github.menglanyan.inventory_management.enums.TransactionType;
+import com.github.menglanyan.inventory_management.enums.UserRole;
+import com.github.menglanyan.inventory_management.repositories.ProductRepository;
+import com.github.menglanyan.inventory_management.repositories.TransactionMonthlyRollupRepository;
+import com.github.menglanyan.inventory_management.repositories.TransactionRepository;
+import com.github.menglanyan.inventory_management.repositories.UserRepository;
+import com.github.menglanyan.inventory_management.services.TransactionService;
+import com.github.menglanyan.inventory_management.services.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+// MySQL mode for the rollup upsert
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:batch-concurrency;MODE=MySQL")
+class TransactionBatchConcurrencyTests {
+
+    private static final int PRODUCTS = 40;
+
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionMonthlyRollupRepository rollupRepository;
+
+    @MockitoBean
+    private UserService userService;
+
+    @AfterEach
+    void cleanUp() {
+        transactionRepository.deleteAll();
+        rollupRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void batchesNamingTheSameProductsInOppositeOrderDoNotDeadlock() throws Exception {
+        User user = userRepository.save(User.builder()
+                .name("Cashier").email("cashier@example.com").password("secret")
+                .phoneNumber("123").role(UserRole.MANAGER).build());
+        when(userService.getCurrentLoggedInUser()).thenReturn(user);
+
+        List<Long> productIds = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            productIds.add(productRepository.save(Product.builder()
+                    .name("Product " + i).sku("SKU-" + i).price(BigDecimal.ONE).stockQuantity(100).build()).getId());
+        }
+
+        List<TransactionRequest> ascending = productIds.stream().map(this::sale).toList();
+        List<TransactionRequest> descending = ascending.reversed();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                CyclicBarrier start = new CyclicBarrier(2);
+
+                Future<Response> first = executor.submit(() -> {
+                    start.await();
+                    return transactionService.processBatch(ascending);
+                });
+                Future<Response> second = executor.submit(() -> {
+                    start.await();
+                    return transactionService.processBatch(descending);
+                });
+
+                assertThat(first.get(30, TimeUnit.SECONDS).getMessage()).endsWith(" 0 Failed");
+                assertThat(second.get(30, TimeUnit.SECONDS).getMessage()).endsWith(" 0 Failed");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(productRepository.findAllById(productIds))
+                .extracting(Product::getStockQuantity)
+                .containsOnly(100 - 2 * ROUNDS);
+    }
+
+    private TransactionRequest sale(Long productId) {
+        TransactionRequest request = new TransactionRequest();
+        request.setProductId(productId);
+        request.setQuantity(1);
+        request.setTransactionType(TransactionType.SALE);
+        return request;
+    }
+}
@@ -0,0 +1,107 @@
+package com.github.menglanyan.inventory_management.services.impl;
+
+import com.github.menglanyan.inventory_management.entities.Product;
+import com.github.menglanyan.inventory_management.entities.Transaction;
+import com.github.menglanyan.inventory_management.enums.ExportFormat;
+import com.github.menglanyan.inventory_management.enums.TransactionStatus;
+import com.github.menglanyan.inventory_management.enums.TransactionType;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionExportWriterTests {
+
+    private static final int ROWS = 1_000_000;
+
+    // An export must not retain rows: heap growth stays far below what 1M materialized rows would need
+    private static final long MAX_HEAP_GROWTH_BYTES = 32L * 1024 * 1024;
+
+    @Test
+    void writesNdjsonOneObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = new TransactionExportWriter(ExportFormat.NDJSON, out)
+                .writeAll(syntheticTransactions(2), 1000, () -> {});
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+
+        assertThat(count).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("{\"id\":1,\"transactionType\":\"SALE\"").contains("\"productId\":2");
+    }
+
+    @Test
+    void quotesCsvFieldsContainingSeparators() throws Exception {
+        Transaction transaction = syntheticTransaction(7);
+        transaction.setNote("boxed, \"fragile\"");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        new TransactionExportWriter(ExportFormat.CSV, out).writeAll(Stream.of(transaction), 1000, () -> {});
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("id,transactionType,status");
+        assertThat(lines[1]).startsWith("7,SALE,COMPLETED,3,29.97,").contains(",\"boxed, \"\"fragile\"\"\",");
+    }
+
+    @Test
+    void exportsOneMillionRowsInConstantMemory() throws Exception {
+        for (ExportFormat format : ExportFormat.values()) {
+            CountingOutputStream out = new CountingOutputStream();
+            long baseline = usedHeapAfterGc();
+            long[] peakGrowth = {0};
+
+            long count = new TransactionExportWriter(format, out).writeAll(syntheticTransactions(ROWS), 100_000,
+                    () -> peakGrowth[0] = Math.max(peakGrowth[0], usedHeapAfterGc() - baseline));
+
+            assertThat(count).isEqualTo(ROWS);
+            assertThat(out.bytes).isGreaterThan(ROWS * 50L);
+            assertThat(peakGrowth[0]).isLessThan(MAX_HEAP_GROWTH_BYTES);
+        }
+    }
+
+    private static Stream<Transaction> syntheticTransactions(int rows) {
+        return LongStream.rangeClosed(1, rows).mapToObj(TransactionExportWriterTests::syntheticTransaction);
+    }
+
+    private static Transaction syntheticTransaction(long id) {
+        return Transaction.builder()
+                .id(id)
+                .transactionType(TransactionType.SALE)
+                .status(TransactionStatus.COMPLETED)
+                .totalProducts(3)
+                .totalPrice(new BigDecimal("29.97"))
+                .description("Synthetic sale " + id)
+                .product(Product.builder().id(id % 1000 + 1).build())
+                .build();
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.github.menglanyan.inventory_management.stream;
+
+import com.github.menglanyan.inventory_management.cache.CatalogVersions;
+import com.github.menglanyan.inventory_management.entities.Product;
+import com.github.menglanyan.inventory_management.events.LowStockAlertEvent;
+import com.github.menglanyan.inventory_management.events.ProductDeletedEvent;
+import com.github.menglanyan.inventory_management.events.ProductSavedEvent;
+import com.github.menglanyan.inventory_management.events.StockChangedEvent;
+import com.github.menglanyan.inventory_management.repositories.ProductRepository;
+import com.github.menglanyan.inventory_management.sync.ProductChangeLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+@Import({LowStockMonitor.class, ProductChangeLog.class, CatalogVersions.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@RecordApplicationEvents
+class LowStockMonitorTests {
+
+    @Autowired
+    private LowStockMonitor monitor;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductChangeLog productChangeLog;
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private Product hammer;
+
+    private Product saw;
+
+    @BeforeEach
+    void setUp() {
+        hammer = save(product("Hammer", 3, 5));
+        saw = save(product("Saw", 20, 5));
+        save(product("Nails", 0, null));
+
+        monitor.load();
+        events.clear();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void loadsProductsAtOrBelowTheirThresholdOnly() {
+        assertThat(monitor.lowStockItems()).extracting(LowStockItem::productId).containsExactly(hammer.getId());
+    }
+
+    @Test
+    void alertsOnceWhenASaleCrossesTheThresholdAndAgainOnRestock() {
+        changeStock(saw.getId(), -15);
+        changeStock(saw.getId(), -3);
+
+        // Furthest below the threshold first
+        assertThat(monitor.lowStockItems()).extracting(LowStockItem::productId)
+                .containsExactly(saw.getId(), hammer.getId());
+        assertThat(events.stream(LowStockAlertEvent.class))
+                .extracting(alert -> alert.product().productId(), LowStockAlertEvent::low)
+                .containsExactly(tuple(saw.getId(), true));
+
+        events.clear();
+        changeStock(saw.getId(), 10);
+
+        assertThat(monitor.lowStockItems()).extracting(LowStockItem::productId).containsExactly(hammer.getId());
+        assertThat(events.stream(LowStockAlertEvent.class))
+                .extracting(alert -> alert.product().productId(), LowStockAlertEvent::low)
+                .containsExactly(tuple(saw.getId(), false));
+    }
+
+    @Test
+    void thresholdChangesAndDeletesAreApplied() {
+        inTransaction(() -> {
+            Product product = productRepository.findById(saw.getId()).orElseThrow();
+            product.setReorderThreshold(25);
+            productChangeLog.recordChanged(product.getId());
+            applicationEventPublisher.publishEvent(new ProductSavedEvent(product));
+            return null;
+        });
+
+        inTransaction(() -> {
+            productRepository.deleteById(hammer.getId());
+            productChangeLog.recordDeleted(hammer.getId());
+            applicationEventPublisher.publishEvent(new ProductDeletedEvent(hammer.getId()));
+            return null;
+        });
+
+        assertThat(monitor.lowStockItems()).extracting(LowStockItem::productId).containsExactly(saw.getId());
+        assertThat(events.stream(LowStockAlertEvent.class)).hasSize(1);
+    }
+
+    @Test
+    void ignoresStatesOlderThanTheOneApplied() {
+        Product stale = productRepository.findById(hammer.getId()).orElseThrow();
+
+        changeStock(hammer.getId(), 10);
+
+        // An after-commit listener of an earlier write running late
+        monitor.onStockChanged(new StockChangedEvent(stale, 0));
+
+        assertThat(monitor.lowStockItems()).isEmpty();
+    }
+
+    @Test
+    void rolledBackSalesLeaveTheSetAlone() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Product product = productRepository.findById(saw.getId()).orElseThrow();
+            product.setStockQuantity(1);
+            productChangeLog.recordChanged(product.getId());
+            applicationEventPublisher.publishEvent(new StockChangedEvent(product, -19));
+            status.setRollbackOnly();
+        });
+
+        assertThat(monitor.lowStockItems()).extracting(LowStockItem::productId).containsExactly(hammer.getId());
+        assertThat(events.stream(LowStockAlertEvent.class)).isEmpty();
+    }
+
+    private void changeStock(Long productId, int delta) {
+        inTransaction(() -> {
+            Product product = productRepository.findById(productId).orElseThrow();
+            product.setStockQuantity(product.getStockQuantity() + delta);
+            productChangeLog.recordChanged(productId);
+            applicationEventPublisher.publishEvent(new StockChangedEvent(product, delta));
+            return null;
+        });
+    }
+
+    private Product save(Product product) {
+        return inTransaction(() -> {
+            Product saved = productRepository.save(product);
+            productChangeLog.recordChanged(saved.getId());
+            return saved;
+        });
+    }
+
+    private Product product(String name, int stock, Integer reorderThreshold) {
+        return Product.builder().name(name).sku(name.toUpperCase()).price(new BigDecimal("1.00"))
+                .stockQuantity(stock).reorderThreshold(reorderThreshold).build();
+    }
+
+    private <T> T inTransaction(Supplier<T> action) {
+        return new TransactionTemplate(transactionManager).execute(status -> action.get());
+    }
+}
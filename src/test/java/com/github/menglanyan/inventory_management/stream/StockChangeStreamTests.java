@@ -0,0 +1,199 @@
+package com.github.menglanyan.inventory_management.stream;
+
+import com.github.menglanyan.inventory_management.entities.Product;
+import com.github.menglanyan.inventory_management.events.StockChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StockChangeStreamTests {
+
+    private static final int MAX_PENDING = 3;
+
+    private static final long SEND_TIMEOUT_MILLIS = 200;
+
+    private final AtomicLong horizon = new AtomicLong(Long.MAX_VALUE);
+
+    // Windows are closed by hand in these tests
+    private final StockChangeStream stream = new StockChangeStream(horizon::get, TimeUnit.HOURS.toMillis(1),
+            MAX_PENDING, SEND_TIMEOUT_MILLIS);
+
+    @BeforeEach
+    void setUp() {
+        stream.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stream.stop();
+    }
+
+    @Test
+    void coalescesAHotProductIntoOneUpdatePerWindow() throws Exception {
+        CapturingEmitter subscriber = new CapturingEmitter();
+        stream.subscribe(subscriber);
+
+        for (int stock = 100; stock > 0; stock--) {
+            stream.onStockChanged(new StockChangedEvent(product(1L, stock, 1000 - stock), -1));
+        }
+        stream.onStockChanged(new StockChangedEvent(product(2L, 7, 5), 7));
+
+        stream.closeWindow();
+
+        assertThat(subscriber.next()).containsExactlyInAnyOrder(
+                new StockUpdate(1L, 1, 999),
+                new StockUpdate(2L, 7, 5));
+
+        stream.closeWindow();
+
+        assertThat(subscriber.events.poll(200, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void keepsTheHighestChangeSequenceWhenCommitsArriveOutOfOrder() throws Exception {
+        CapturingEmitter subscriber = new CapturingEmitter();
+        stream.subscribe(subscriber);
+
+        stream.onStockChanged(new StockChangedEvent(product(1L, 4, 20), -1));
+        stream.onStockChanged(new StockChangedEvent(product(1L, 5, 19), -1));
+
+        stream.closeWindow();
+
+        assertThat(subscriber.next()).containsExactly(new StockUpdate(1L, 4, 20));
+    }
+
+    @Test
+    void capsTheEventIdAtTheChangeLogHorizon() throws Exception {
+        CapturingEmitter subscriber = new CapturingEmitter();
+        stream.subscribe(subscriber);
+
+        // Change 15 is still in flight: resuming from 20 would skip it
+        horizon.set(14);
+        stream.onStockChanged(new StockChangedEvent(product(1L, 4, 20), -1));
+        stream.closeWindow();
+
+        subscriber.next();
+        assertThat(subscriber.ids.poll(5, TimeUnit.SECONDS)).isEqualTo("14");
+
+        horizon.set(40);
+        stream.onStockChanged(new StockChangedEvent(product(2L, 4, 30), -1));
+        stream.closeWindow();
+
+        subscriber.next();
+        assertThat(subscriber.ids.poll(5, TimeUnit.SECONDS)).isEqualTo("30");
+    }
+
+    @Test
+    void disconnectsASubscriberThatFallsTooFarBehind() throws Exception {
+        CapturingEmitter fast = new CapturingEmitter();
+        BlockedEmitter slow = new BlockedEmitter();
+        stream.subscribe(fast);
+        stream.subscribe(slow);
+
+        // The first window is taken by the slow sender, which then blocks
+        stream.onStockChanged(new StockChangedEvent(product(1L, 1, 1), 1));
+        stream.closeWindow();
+        assertThat(slow.sending.await(5, TimeUnit.SECONDS)).isTrue();
+        fast.next();
+
+        for (long productId = 2; productId <= MAX_PENDING + 2; productId++) {
+            stream.onStockChanged(new StockChangedEvent(product(productId, 1, productId), 1));
+            stream.closeWindow();
+            fast.next();
+        }
+
+        assertThat(stream.subscriberCount()).isEqualTo(1);
+
+        slow.release.countDown();
+    }
+
+    @Test
+    void dropsSubscribersWhoseSendsStallWithoutHoldingUpTheOthers() throws Exception {
+        List<BlockedEmitter> stalled = List.of(new BlockedEmitter(), new BlockedEmitter(), new BlockedEmitter(),
+                new BlockedEmitter(), new BlockedEmitter());
+        CapturingEmitter healthy = new CapturingEmitter();
+        stalled.forEach(stream::subscribe);
+        stream.subscribe(healthy);
+
+        stream.onStockChanged(new StockChangedEvent(product(1L, 1, 1), 1));
+        stream.closeWindow();
+
+        for (BlockedEmitter emitter : stalled) {
+            assertThat(emitter.sending.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+        assertThat(healthy.next()).containsExactly(new StockUpdate(1L, 1, 1));
+
+        Thread.sleep(SEND_TIMEOUT_MILLIS + 100);
+        stream.onStockChanged(new StockChangedEvent(product(2L, 1, 2), 1));
+        stream.closeWindow();
+
+        assertThat(healthy.next()).containsExactly(new StockUpdate(2L, 1, 2));
+        assertThat(stream.subscriberCount()).isEqualTo(1);
+
+        // The blocked sends were interrupted rather than left holding their sender threads
+        for (BlockedEmitter emitter : stalled) {
+            assertThat(emitter.interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    private static Product product(Long id, int stockQuantity, long changeSeq) {
+        return Product.builder().id(id).stockQuantity(stockQuantity).changeSeq(changeSeq).build();
+    }
+
+    private static class CapturingEmitter extends SseEmitter {
+
+        private final BlockingQueue<List<StockUpdate>> events = new LinkedBlockingQueue<>();
+
+        private final BlockingQueue<String> ids = new LinkedBlockingQueue<>();
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void send(SseEventBuilder builder) {
+            builder.build().forEach(part -> {
+                if (part.getData() instanceof List) {
+                    events.add((List<StockUpdate>) part.getData());
+                } else if (part.getData() instanceof String text && text.contains("id:")) {
+                    ids.add(text.replaceAll("(?s).*id:([^\\n]*)\\n.*", "$1"));
+                }
+            });
+        }
+
+        private List<StockUpdate> next() throws InterruptedException {
+            List<StockUpdate> updates = events.poll(5, TimeUnit.SECONDS);
+            assertThat(updates).isNotNull();
+            return updates;
+        }
+    }
+
+    private static class BlockedEmitter extends SseEmitter {
+
+        private final CountDownLatch sending = new CountDownLatch(1);
+
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        private final CountDownLatch interrupted = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+    }
+}
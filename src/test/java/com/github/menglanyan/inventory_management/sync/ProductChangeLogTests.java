@@ -0,0 +1,235 @@
+package com.github.menglanyan.inventory_management.sync;
+
+import com.github.menglanyan.inventory_management.cache.CatalogVersions;
+import com.github.menglanyan.inventory_management.entities.Product;
+import com.github.menglanyan.inventory_management.entities.ProductTombstone;
+import com.github.menglanyan.inventory_management.enums.CatalogAggregate;
+import com.github.menglanyan.inventory_management.repositories.ProductChangeSetRepository;
+import com.github.menglanyan.inventory_management.repositories.ProductRepository;
+import com.github.menglanyan.inventory_management.repositories.ProductTombstoneRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "product-changes.settle-millis=" + ProductChangeLogTests.SETTLE_MILLIS)
+@Import({ProductChangeLog.class, CatalogVersions.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductChangeLogTests {
+
+    static final long SETTLE_MILLIS = 1000;
+
+    @Autowired
+    private ProductChangeLog productChangeLog;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductTombstoneRepository productTombstoneRepository;
+
+    @Autowired
+    private ProductChangeSetRepository productChangeSetRepository;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteAll();
+        productTombstoneRepository.deleteAll();
+    }
+
+    @Test
+    void numbersChangesInCommitOrderAcrossUpsertsAndDeletes() {
+        Long first = saveProduct("SKU-1");
+        Long second = saveProduct("SKU-2");
+        Long third = saveProduct("SKU-3");
+        long start = changeSeqOf(third);
+
+        inTransaction(() -> {
+            productRepository.adjustStock(second, 1);
+            productChangeLog.recordChanged(second);
+        });
+
+        inTransaction(() -> {
+            productRepository.deleteById(third);
+            productChangeLog.recordDeleted(third);
+            productChangeLog.recordChanged(first);
+        });
+
+        long horizon = productChangeLog.horizon(start);
+
+        assertThat(productRepository.findChangedBetween(start, horizon, Limit.of(10)))
+                .extracting(Product::getId)
+                .containsExactly(second, first);
+
+        long deleted = productTombstoneRepository
+                .findByChangeSeqGreaterThanAndChangeSeqLessThanEqualOrderByChangeSeqAsc(start, horizon, Limit.of(10))
+                .stream()
+                .map(ProductTombstone::getChangeSeq)
+                .findFirst()
+                .orElseThrow();
+
+        // Changes of one transaction are numbered consecutively
+        assertThat(deleted).isGreaterThan(changeSeqOf(second));
+        assertThat(changeSeqOf(first)).isEqualTo(deleted + 1);
+    }
+
+    @Test
+    void holdsTheHorizonBackWhileAnEarlierNumberIsInFlight() throws Exception {
+        Long slow = saveProduct("SKU-SLOW");
+        Long fast = saveProduct("SKU-FAST");
+        long since = productChangeLog.horizon(0);
+
+        CountDownLatch numbered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Numbered first, committed last
+        CompletableFuture<Void> slowWrite = CompletableFuture.runAsync(() -> inTransaction(() -> {
+            productChangeLog.recordChanged(slow);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    numbered.countDown();
+                    await(release);
+                }
+            });
+        }));
+
+        assertThat(numbered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        inTransaction(() -> productChangeLog.recordChanged(fast));
+
+        assertThat(productChangeLog.horizon(since)).isLessThan(changeSeqOf(fast));
+
+        release.countDown();
+        slowWrite.get(5, TimeUnit.SECONDS);
+
+        assertThat(productChangeLog.horizon(since)).isGreaterThanOrEqualTo(changeSeqOf(fast));
+        assertThat(changeSeqOf(slow)).isLessThan(changeSeqOf(fast));
+    }
+
+    @Test
+    void releasesTheHorizonOnceANumberRolledBackHasSettled() throws Exception {
+        Long failed = saveProduct("SKU-FAILED");
+        Long next = saveProduct("SKU-NEXT");
+        long since = productChangeLog.horizon(0);
+        long productsVersion = catalogVersions.current(CatalogAggregate.PRODUCTS);
+
+        // Fails after its numbers were handed out
+        assertThatThrownBy(() -> inTransaction(() -> {
+            productChangeLog.recordChanged(failed);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    throw new IllegalStateException("commit failed");
+                }
+            });
+        })).isInstanceOf(IllegalStateException.class);
+
+        inTransaction(() -> productChangeLog.recordChanged(next));
+
+        assertThat(productChangeLog.horizon(since)).isLessThan(changeSeqOf(next));
+
+        Thread.sleep(SETTLE_MILLIS + 500);
+
+        assertThat(productChangeLog.horizon(since)).isGreaterThanOrEqualTo(changeSeqOf(next));
+
+        // Responses cached while the gap held the horizon back are dropped
+        assertThat(catalogVersions.current(CatalogAggregate.PRODUCTS)).isGreaterThan(productsVersion);
+    }
+
+    @Test
+    void leavesNoGapWhenTheTransactionRollsBackBeforeCommit() {
+        Long productId = saveProduct("SKU-ROLLBACK");
+        long since = productChangeLog.horizon(0);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            productChangeLog.recordChanged(productId);
+            status.setRollbackOnly();
+        });
+
+        Long next = saveProduct("SKU-NEXT");
+
+        assertThat(productChangeLog.horizon(since)).isGreaterThanOrEqualTo(changeSeqOf(next));
+    }
+
+    @Test
+    void prunesSettledSetsButKeepsTheLastOne() throws Exception {
+        saveProduct("SKU-A");
+        saveProduct("SKU-B");
+        Long last = saveProduct("SKU-C");
+
+        Thread.sleep(SETTLE_MILLIS + 100);
+        productChangeLog.prune();
+
+        assertThat(productChangeSetRepository.count()).isEqualTo(1);
+        assertThat(productChangeLog.horizon(0)).isGreaterThanOrEqualTo(changeSeqOf(last));
+    }
+
+    @Test
+    void numbersProductsWrittenBeforeChangeTrackingOnStartup() {
+        Product untracked = productRepository.save(product("SKU-UNTRACKED"));
+
+        assertThat(untracked.getChangeSeq()).isZero();
+
+        productChangeLog.numberUntrackedProducts();
+
+        assertThat(changeSeqOf(untracked.getId())).isPositive();
+        assertThat(productChangeLog.horizon(0)).isGreaterThanOrEqualTo(changeSeqOf(untracked.getId()));
+        assertThat(changeSeqOf(saveProduct("SKU-AFTER"))).isGreaterThan(changeSeqOf(untracked.getId()));
+    }
+
+    private Long saveProduct(String sku) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Long id = productRepository.save(product(sku)).getId();
+            productChangeLog.recordChanged(id);
+            return id;
+        });
+    }
+
+    private Product product(String sku) {
+        return Product.builder()
+                .name("Product " + sku)
+                .sku(sku)
+                .price(BigDecimal.TEN)
+                .stockQuantity(5)
+                .build();
+    }
+
+    private long changeSeqOf(Long productId) {
+        return productRepository.findById(productId).orElseThrow().getChangeSeq();
+    }
+
+    private void inTransaction(Runnable work) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> work.run());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}